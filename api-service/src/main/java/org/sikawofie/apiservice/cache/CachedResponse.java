@@ -0,0 +1,13 @@
+package org.sikawofie.apiservice.cache;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+
+/**
+ * Fully buffered upstream response. {@code etag} is the upstream's entity tag, if it sent one, and
+ * {@code restaurantId} is the restaurant the response belongs to, or {@code null} for listings that span
+ * several restaurants.
+ */
+public record CachedResponse(HttpStatusCode status, MediaType contentType, String etag, byte[] body,
+                             Long restaurantId) {
+}
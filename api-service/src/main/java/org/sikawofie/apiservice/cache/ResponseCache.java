@@ -0,0 +1,70 @@
+package org.sikawofie.apiservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-route cache of upstream responses. Concurrent misses for the same key are coalesced: the first
+ * request becomes the leader and goes upstream, the others wait on the leader's sink.
+ */
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    public ResponseCache(String name, Duration ttl, long maxSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response." + name);
+        this.coalesced = Counter.builder("gateway.response.cache.coalesced")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Registers {@code leader} as the in-flight upstream call for {@code key}.
+     *
+     * @return the sink of a call that is already in flight, or {@code null} if {@code leader} was registered
+     */
+    public Sinks.One<CachedResponse> joinInFlight(String key, Sinks.One<CachedResponse> leader) {
+        Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            coalesced.increment();
+        }
+        return existing;
+    }
+
+    public void leaveInFlight(String key, Sinks.One<CachedResponse> leader) {
+        inFlight.remove(key, leader);
+        leader.tryEmitEmpty();
+    }
+
+    public void invalidateRestaurant(Long restaurantId) {
+        cache.asMap().values().removeIf(response ->
+                response.restaurantId() == null || response.restaurantId().equals(restaurantId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,16 @@
+package org.sikawofie.apiservice.cache;
+
+/**
+ * Identity extracted from a JWT whose signature has already been checked.
+ * {@code tokenId} is the {@code jti} claim, checked against the denylist on every request.
+ * {@code expiresAtMillis} mirrors the token's {@code exp} claim. {@code identityHeader} is the signed
+ * {@code X-User-Identity} value, computed once per token; it is {@code null} if the token carries a role the
+ * services do not know.
+ */
+public record VerifiedToken(Long userId, String username, String role, String email, String tokenId,
+                            long expiresAtMillis, String identityHeader) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
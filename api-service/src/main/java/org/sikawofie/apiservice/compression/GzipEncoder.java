@@ -0,0 +1,105 @@
+package org.sikawofie.apiservice.compression;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips a body chunk by chunk. Every input buffer is deflated and released as soon as it arrives and
+ * whatever compressed output the deflater has produced so far is emitted, so memory per response is
+ * bounded by the deflater window rather than by the body size.
+ */
+public final class GzipEncoder {
+
+    private static final int SCRATCH_SIZE = 8 * 1024;
+
+    private GzipEncoder() {
+    }
+
+    public static Flux<DataBuffer> encode(Publisher<? extends DataBuffer> body, DataBufferFactory bufferFactory) {
+        return Flux.using(Encoding::new,
+                encoding -> Flux.from(body)
+                        .<DataBuffer>handle((buffer, sink) -> {
+                            try {
+                                encoding.write(buffer);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                            if (encoding.hasOutput()) {
+                                sink.next(encoding.drain(bufferFactory));
+                            }
+                        })
+                        .concatWith(Mono.fromCallable(() -> encoding.finish(bufferFactory))),
+                Encoding::close);
+    }
+
+    private static final class Encoding {
+        private final Output output = new Output();
+        private final byte[] scratch = new byte[SCRATCH_SIZE];
+        private final GZIPOutputStream gzip;
+
+        Encoding() {
+            try {
+                this.gzip = new GZIPOutputStream(output, SCRATCH_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void write(DataBuffer buffer) {
+            try {
+                int remaining;
+                while ((remaining = buffer.readableByteCount()) > 0) {
+                    int length = Math.min(remaining, scratch.length);
+                    buffer.read(scratch, 0, length);
+                    gzip.write(scratch, 0, length);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean hasOutput() {
+            return output.size() > 0;
+        }
+
+        DataBuffer drain(DataBufferFactory bufferFactory) {
+            return output.drain(bufferFactory);
+        }
+
+        DataBuffer finish(DataBufferFactory bufferFactory) throws IOException {
+            gzip.finish();
+            return output.drain(bufferFactory);
+        }
+
+        void close() {
+            try {
+                gzip.close();
+            } catch (IOException ignored) {
+                // the deflater is released either way
+            }
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(SCRATCH_SIZE);
+        }
+
+        DataBuffer drain(DataBufferFactory bufferFactory) {
+            DataBuffer buffer = bufferFactory.allocateBuffer(count);
+            buffer.write(buf, 0, count);
+            reset();
+            return buffer;
+        }
+    }
+}
@@ -1,32 +1,159 @@
 package org.sikawofie.apiservice.config;
 
 import lombok.RequiredArgsConstructor;
+import org.sikawofie.apiservice.filters.HedgingGatewayFilterFactory;
 import org.sikawofie.apiservice.filters.JwtAuthenticationFilter;
+import org.sikawofie.apiservice.filters.ResilienceGatewayFilterFactory;
+import org.sikawofie.apiservice.filters.ResponseCacheGatewayFilterFactory;
+import org.sikawofie.apiservice.filters.ResponseCompressionGatewayFilterFactory;
+import org.sikawofie.apiservice.filters.RestaurantPageGatewayFilterFactory;
+import org.sikawofie.apiservice.filters.ResilienceGatewayFilterFactory.Fallback;
+import org.sikawofie.apiservice.filters.UserRateLimitGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
 
 @Configuration
 @RequiredArgsConstructor
 public class RouteConfig {
     final JwtAuthenticationFilter jwtAuthenticationFilter;
+    final ResponseCacheGatewayFilterFactory responseCache;
+    final HedgingGatewayFilterFactory hedging;
+    final RestaurantPageGatewayFilterFactory restaurantPage;
+    final UserRateLimitGatewayFilterFactory rateLimit;
+    final ResponseCompressionGatewayFilterFactory compression;
+    final ResilienceGatewayFilterFactory resilience;
 
     @Bean
     public RouteLocator customRoutes(RouteLocatorBuilder builder) {
+        GatewayFilter gzip = compression.apply(new ResponseCompressionGatewayFilterFactory.Config());
+        GatewayFilter restaurantFallbackToCache = resilience.apply(c -> {
+            c.setName("restaurant-service");
+            c.setTimeout(Duration.ofSeconds(3));
+            c.setMaxConcurrentCalls(100);
+            c.setFallback(Fallback.CACHED);
+        });
+        GatewayFilter restaurantIsolation = resilience.apply(c -> {
+            c.setName("restaurant-service");
+            c.setTimeout(Duration.ofSeconds(3));
+            c.setMaxConcurrentCalls(100);
+        });
+        GatewayFilter orderIsolation = resilience.apply(c -> {
+            c.setName("order-service");
+            c.setTimeout(Duration.ofSeconds(5));
+            c.setMaxConcurrentCalls(50);
+        });
+
         return builder.routes()
+                .route("auth-admin", r -> r
+                        .path("/auth/admin/**", "/auth/users/**")
+                        .filters(f -> f.filters(jwtAuthenticationFilter))
+                        .uri("lb://auth-service"))
+
                 .route("auth/**", r -> r
                         .path("/auth/**")
                         .uri("lb://auth-service"))
 
+                .route("restaurant-active", r -> r
+                        .method(HttpMethod.GET)
+                        .and()
+                        .path("/api/restaurant/active")
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(gzip)
+                                .filter(responseCache.apply(c -> {
+                                    c.setName("restaurant-active");
+                                    c.setTtl(Duration.ofSeconds(15));
+                                    c.setMaxSize(16);
+                                }))
+                                .filter(resilience.apply(c -> {
+                                    c.setName("restaurant-service");
+                                    c.setTimeout(Duration.ofSeconds(2));
+                                    c.setFallback(Fallback.EMPTY_LIST);
+                                })))
+                        .uri("lb://restaurant-service"))
+
+                .route("restaurant-details", r -> r
+                        .method(HttpMethod.GET)
+                        .and()
+                        .path("/api/restaurant/{id:[0-9]+}")
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(responseCache.apply(c -> {
+                                    c.setName("restaurant-details");
+                                    c.setTtl(Duration.ofMinutes(1));
+                                    c.setMaxSize(10_000);
+                                }))
+                                .filter(restaurantFallbackToCache)
+                                .filter(hedging.apply(c -> c.setName("restaurant-details"))))
+                        .uri("lb://restaurant-service"))
+
+                .route("restaurant-menu", r -> r
+                        .method(HttpMethod.GET)
+                        .and()
+                        .path("/api/restaurant/{id:[0-9]+}/menu")
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(gzip)
+                                .filter(responseCache.apply(c -> {
+                                    c.setName("restaurant-menu");
+                                    c.setTtl(Duration.ofMinutes(5));
+                                    c.setMaxSize(10_000);
+                                }))
+                                .filter(restaurantFallbackToCache)
+                                .filter(hedging.apply(c -> c.setName("restaurant-menu"))))
+                        .uri("lb://restaurant-service"))
+
                 .route("restaurant-service", r -> r
                         .path("/api/restaurant/**")
-                        .filters(f -> f.filters(jwtAuthenticationFilter))
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(gzip)
+                                .filter(rateLimit.apply(c -> {
+                                    c.setName("restaurant-service");
+                                    c.setReplenishRate(20);
+                                    c.setBurstCapacity(40);
+                                }))
+                                .filter(restaurantIsolation))
                         .uri("lb://restaurant-service"))
 
+                .route("restaurant-page", r -> r
+                        .method(HttpMethod.GET)
+                        .and()
+                        .path("/api/composite/restaurant/{id:[0-9]+}")
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(gzip)
+                                .filter(rateLimit.apply(c -> {
+                                    c.setName("restaurant-page");
+                                    c.setReplenishRate(5);
+                                    c.setBurstCapacity(10);
+                                }))
+                                .filter(restaurantPage.apply(new RestaurantPageGatewayFilterFactory.Config())))
+                        .uri("no://op"))
+
+                .route("order-place", r -> r
+                        .method(HttpMethod.POST)
+                        .and()
+                        .path("/api/order", "/api/order/")
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(rateLimit.apply(c -> {
+                                    c.setName("order-place");
+                                    c.setReplenishRate(1);
+                                    c.setBurstCapacity(5);
+                                }))
+                                .filter(orderIsolation))
+                        .uri("lb://order-service"))
+
                 .route("order-service", r -> r
                         .path("/api/order/**")
-                        .filters(f -> f.filters(jwtAuthenticationFilter))
+                        .filters(f -> f.filters(jwtAuthenticationFilter)
+                                .filter(rateLimit.apply(c -> {
+                                    c.setName("order-service");
+                                    c.setReplenishRate(10);
+                                    c.setBurstCapacity(20);
+                                }))
+                                .filter(orderIsolation))
                         .uri("lb://order-service"))
 
                 .route("notification-service", r -> r
@@ -1,14 +1,45 @@
 package org.sikawofie.apiservice.config;
 
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.JwksKeySet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(
+            @Value("${identity.header.secret}") String secret) {
+        return IdentityHeaderCodec.fromSecret(secret);
+    }
+
+    /**
+     * auth-service's token signing keys, refreshed in the background so verifying a token never leaves the gateway.
+     */
+    @Bean(destroyMethod = "close")
+    public JwksKeySet jwksKeySet(WebClient.Builder webClientBuilder,
+                                 LoadBalancedExchangeFilterFunction loadBalancerFunction,
+                                 @Value("${gateway.jwt.jwks.uri:http://auth-service/auth/.well-known/jwks.json}") String jwksUri,
+                                 @Value("${gateway.jwt.jwks.refresh-interval:5m}") Duration refreshInterval,
+                                 @Value("${gateway.jwt.jwks.retry-interval:10s}") Duration retryInterval,
+                                 @Value("${gateway.jwt.jwks.fetch-timeout:5s}") Duration fetchTimeout) {
+        WebClient webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+        return new JwksKeySet(() -> webClient.get()
+                .uri(jwksUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block(fetchTimeout), refreshInterval, retryInterval).start();
+    }
+
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
         http.csrf(ServerHttpSecurity.CsrfSpec::disable)
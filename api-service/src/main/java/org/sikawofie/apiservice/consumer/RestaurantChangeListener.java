@@ -0,0 +1,25 @@
+package org.sikawofie.apiservice.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.apiservice.events.RestaurantChangedEvent;
+import org.sikawofie.apiservice.filters.ResponseCacheGatewayFilterFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RestaurantChangeListener {
+    private final ResponseCacheGatewayFilterFactory responseCache;
+
+    @KafkaListener(topics = "restaurant-changed-topic", containerFactory = "kafkaListenerContainerFactory")
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        log.debug("Invalidating cached responses for restaurant {} after {}", event.getRestaurantId(), event.getChangeType());
+        if (event.getRestaurantId() == null) {
+            responseCache.invalidateAll();
+            return;
+        }
+        responseCache.invalidateRestaurant(event.getRestaurantId());
+    }
+}
@@ -0,0 +1,51 @@
+package org.sikawofie.apiservice.consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.sikawofie.apiservice.events.TokenRevocationEvent;
+import org.sikawofie.apiservice.revocation.TokenDenylist;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Feeds the {@link TokenDenylist}. On assignment the consumer rewinds by {@code replay-window}, which must exceed
+ * auth-service's snapshot interval: a fresh replica then starts from a full snapshot plus every delta after it.
+ */
+@Service
+@Slf4j
+public class TokenRevocationListener extends AbstractConsumerSeekAware {
+    private final TokenDenylist denylist;
+    private final Duration replayWindow;
+
+    public TokenRevocationListener(TokenDenylist denylist,
+                                   @Value("${gateway.jwt.revocation.replay-window:2m}") Duration replayWindow) {
+        this.denylist = denylist;
+        this.replayWindow = replayWindow;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - replayWindow.toMillis());
+    }
+
+    @KafkaListener(topics = "token-revocation-topic", containerFactory = "revocationListenerContainerFactory")
+    public void onRevocation(TokenRevocationEvent event) {
+        if (TokenRevocationEvent.SNAPSHOT.equals(event.getType()) && event.getFilter() != null) {
+            try {
+                denylist.applySnapshot(event.getSequence() != null ? event.getSequence() : 0L, event.getFilter());
+                log.debug("Applied denylist snapshot {}", event.getSequence());
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unreadable denylist snapshot {}: {}", event.getSequence(), e.getMessage());
+            }
+        } else if (TokenRevocationEvent.DELTA.equals(event.getType()) && event.getTokenId() != null) {
+            denylist.applyDelta(event.getTokenId(),
+                    event.getExpiresAtEpochSecond() != null ? event.getExpiresAtEpochSecond() : Long.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.sikawofie.apiservice.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+    private Long restaurantId;
+    private String changeType;
+}
@@ -0,0 +1,19 @@
+package org.sikawofie.apiservice.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationEvent {
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+
+    private String type;
+    private Long sequence;
+    private String tokenId;
+    private Long expiresAtEpochSecond;
+    private byte[] filter;
+}
@@ -0,0 +1,46 @@
+package org.sikawofie.apiservice.filters;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+
+/**
+ * Execution order of the gateway's own route filters. Filters that decorate the response must run before
+ * {@link NettyWriteResponseFilter} so that it writes through their decorator.
+ */
+public final class FilterOrder {
+
+    public static final int JWT_AUTHENTICATION = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 100;
+
+    public static final int RATE_LIMIT = JWT_AUTHENTICATION + 1;
+
+    /*
+     * Compression wraps the response before the cache does, so the cache stores plain bodies and cache hits
+     * are compressed on the way out.
+     */
+    public static final int COMPRESSION = RATE_LIMIT + 1;
+
+    public static final int RESPONSE_CACHE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 10;
+
+    /*
+     * Inside the response cache so that cache hits neither count against the circuit breaker nor take a
+     * bulkhead permit.
+     */
+    public static final int RESILIENCE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 5;
+
+    /*
+     * Right after the load-balancer client filter, so the primary is the instance it picked, and before the
+     * stats filter, so that only the primary leg is tracked against that instance.
+     */
+    public static final int HEDGING = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    public static final int LOADBALANCER_STATS = HEDGING + 1;
+
+    /*
+     * The composite filter calls the upstream services and writes the response itself, so it only has to run
+     * after the filters that decorate the response and before the load-balancer client filter.
+     */
+    public static final int COMPOSITE = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+    private FilterOrder() {
+    }
+}
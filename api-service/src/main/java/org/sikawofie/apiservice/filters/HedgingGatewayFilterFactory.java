@@ -0,0 +1,289 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import lombok.Getter;
+import lombok.Setter;
+import org.sikawofie.apiservice.hedging.Hedger;
+import org.sikawofie.apiservice.loadbalancer.InstanceLoadTracker;
+import org.sikawofie.apiservice.loadbalancer.LoadBalancerStatsFilter;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Hedges idempotent GETs on {@code lb://} routes: if the primary instance has not answered within the
+ * route's hedge delay, the same request is sent to a different instance and the first successful response
+ * wins. The loser is cancelled.
+ * <p>
+ * The primary is the instance {@link ReactiveLoadBalancerClientFilter} picked and is called through the rest
+ * of the chain, so {@link LoadBalancerStatsFilter} tracks it and {@link NettyWriteResponseFilter} streams its
+ * body. Only the hedge is called by this filter; its body is streamed to the client as well, never buffered,
+ * and its time to respond is recorded against its own instance in {@link GatewayLatencyMetrics}, as the
+ * stats filter does for the primary.
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    private static final Set<String> UNFORWARDED_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "host", "content-length");
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final InstanceLoadTracker loadTracker;
+    private final GatewayLatencyMetrics latencyMetrics;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Hedger> hedgers = new ConcurrentHashMap<>();
+
+    public HedgingGatewayFilterFactory(ReactiveDiscoveryClient discoveryClient,
+                                       InstanceLoadTracker loadTracker,
+                                       GatewayLatencyMetrics latencyMetrics,
+                                       WebClient.Builder webClientBuilder,
+                                       MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.discoveryClient = discoveryClient;
+        this.loadTracker = loadTracker;
+        this.latencyMetrics = latencyMetrics;
+        this.webClient = webClientBuilder.build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Hedger hedger = hedgers.computeIfAbsent(config.getName(), name -> new Hedger(name, config.getPercentile(),
+                config.getMinDelay(), config.getInitialDelay(), config.getMaxExtraLoadPercent(),
+                config.getMaxBurst(), meterRegistry));
+        return new OrderedGatewayFilter((exchange, chain) -> filter(hedger, exchange, chain), FilterOrder.HEDGING);
+    }
+
+    private Mono<Void> filter(Hedger hedger, ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || route == null
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        hedger.onRequest();
+        return hedged(hedger, exchange, chain, route, lbResponse.getServer());
+    }
+
+    private Mono<Void> hedged(Hedger hedger, ServerWebExchange exchange, GatewayFilterChain chain,
+                              Route route, ServiceInstance primary) {
+        // Whatever the filters before us put on the response, for a winning hedge to start from again
+        HttpHeaders initialHeaders = new HttpHeaders();
+        initialHeaders.putAll(exchange.getResponse().getHeaders());
+
+        Mono<Leg> hedge = Mono.delay(hedger.delay())
+                .then(Mono.defer(() -> hedgeInstance(route.getUri().getHost(), primary)))
+                .filter(instance -> hedger.tryFire())
+                .flatMap(instance -> call(hedger, route.getId(), instance, exchange.getRequest()));
+
+        return Mono.firstWithValue(routePrimary(hedger, exchange, chain), hedge)
+                .doOnNext(leg -> {
+                    if (leg.hedge()) {
+                        hedger.hedgeWon();
+                    }
+                })
+                .onErrorResume(error -> failedLeg(error).map(Mono::just).orElseGet(() -> Mono.error(error)))
+                .flatMap(leg -> leg.hedge() ? write(exchange, initialHeaders, leg.response()) : Mono.<Void>empty());
+    }
+
+    /**
+     * Runs the rest of the chain, which completes once {@link NettyRoutingFilter} has the primary's status and
+     * headers; the body is left for {@link NettyWriteResponseFilter} to stream.
+     */
+    private static Mono<Leg> routePrimary(Hedger hedger, ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .then(Mono.defer(() -> {
+                        hedger.recordLatency(System.nanoTime() - start);
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && status.is5xxServerError()) {
+                            return Mono.<Leg>error(new UpstreamFailure(Leg.PRIMARY, status));
+                        }
+                        return Mono.just(Leg.PRIMARY);
+                    }))
+                    // A primary that loses to the hedge took at least this long; leaving it out would pull the
+                    // hedge delay towards the fast responses
+                    .doOnCancel(() -> hedger.recordLatency(System.nanoTime() - start));
+        });
+    }
+
+    private Mono<ServiceInstance> hedgeInstance(String serviceId, ServiceInstance primary) {
+        String primaryKey = InstanceLoadTracker.key(primary);
+        return discoveryClient.getInstances(serviceId)
+                .filter(instance -> !InstanceLoadTracker.key(instance).equals(primaryKey))
+                .collectList()
+                .flatMap(candidates -> Mono.justOrEmpty(candidates.stream()
+                        .min(Comparator.comparingDouble(loadTracker::cost))));
+    }
+
+    private Mono<Leg> call(Hedger hedger, String routeId, ServiceInstance instance, ServerHttpRequest request) {
+        String instanceId = InstanceLoadTracker.key(instance);
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+
+        return Mono.defer(() -> {
+            loadTracker.onRequestStart(instance);
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> copyRequestHeaders(request.getHeaders(), headers))
+                    .retrieve()
+                    .onStatus(status -> true, response -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class)
+                    .doOnCancel(() -> {
+                        loadTracker.onRequestCancelled(instance);
+                        latencyMetrics.recordUpstream(routeId, instanceId, "CANCELLED", System.nanoTime() - start);
+                    })
+                    .doOnError(error -> {
+                        long elapsed = System.nanoTime() - start;
+                        loadTracker.onRequestComplete(instance, elapsed, false);
+                        latencyMetrics.recordUpstream(routeId, instanceId, Outcome.SERVER_ERROR.name(), elapsed);
+                    })
+                    .flatMap(response -> {
+                        long elapsed = System.nanoTime() - start;
+                        boolean success = !response.getStatusCode().is5xxServerError();
+                        loadTracker.onRequestComplete(instance, elapsed, success);
+                        latencyMetrics.recordUpstream(routeId, instanceId,
+                                Outcome.forStatus(response.getStatusCode().value()).name(), elapsed);
+                        hedger.recordLatency(elapsed);
+                        return success ? Mono.just(new Leg(response, true)) : failedHedge(response);
+                    });
+        });
+    }
+
+    /**
+     * Reads the hedge's 5xx body so that its connection is released even if the primary's answer is used.
+     */
+    private static Mono<Leg> failedHedge(ResponseEntity<Flux<DataBuffer>> response) {
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> Mono.<Leg>error(new UpstreamFailure(new Leg(
+                        new ResponseEntity<>(Flux.<DataBuffer>just(DefaultDataBufferFactory.sharedInstance.wrap(bytes)),
+                                response.getHeaders(), response.getStatusCode()),
+                        true), response.getStatusCode())));
+    }
+
+    private static void copyRequestHeaders(HttpHeaders from, HttpHeaders to) {
+        from.forEach((name, values) -> {
+            if (!UNFORWARDED_HEADERS.contains(name.toLowerCase())) {
+                to.addAll(name, values);
+            }
+        });
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, HttpHeaders initialHeaders,
+                                    ResponseEntity<Flux<DataBuffer>> upstream) {
+        // The primary may already have answered with a 5xx; its status, headers and body must not leak out
+        Connection primaryConnection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+        exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+        exchange.getAttributes().remove(CLIENT_RESPONSE_ATTR);
+        if (primaryConnection != null) {
+            primaryConnection.dispose();
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().clear();
+        response.getHeaders().putAll(initialHeaders);
+        response.setStatusCode(upstream.getStatusCode());
+        upstream.getHeaders().forEach((name, values) -> {
+            if (!UNFORWARDED_HEADERS.contains(name.toLowerCase())) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        return response.writeWith(upstream.getBody() != null ? upstream.getBody() : Flux.empty());
+    }
+
+    /**
+     * When neither leg succeeded, a 5xx is still a valid answer for the client; the primary's is preferred
+     * because it is already on the exchange.
+     */
+    private static Optional<Leg> failedLeg(Throwable error) {
+        return Stream.concat(Exceptions.unwrapMultiple(error).stream(), Arrays.stream(error.getSuppressed()))
+                .filter(UpstreamFailure.class::isInstance)
+                .map(failure -> ((UpstreamFailure) failure).leg)
+                .min(Comparator.comparing(Leg::hedge));
+    }
+
+    /**
+     * A leg that answered; only the hedge carries its response, the primary's is already on the exchange.
+     */
+    private record Leg(ResponseEntity<Flux<DataBuffer>> response, boolean hedge) {
+        static final Leg PRIMARY = new Leg(null, false);
+    }
+
+    private static final class UpstreamFailure extends RuntimeException {
+        private final transient Leg leg;
+
+        private UpstreamFailure(Leg leg, HttpStatusCode status) {
+            super("Upstream responded with " + status, null, false, false);
+            this.leg = leg;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private String name;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration initialDelay = Duration.ofMillis(100);
+        private int maxExtraLoadPercent = 5;
+        private int maxBurst = 10;
+    }
+}
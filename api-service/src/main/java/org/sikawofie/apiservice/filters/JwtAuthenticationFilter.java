@@ -1,12 +1,21 @@
 package org.sikawofie.apiservice.filters;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import org.sikawofie.apiservice.cache.VerifiedToken;
+import org.sikawofie.apiservice.cache.VerifiedTokenCache;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.sikawofie.apiservice.revocation.RevocationChecker;
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.JwksKeySet;
+import org.sikawofie.securitycommon.Roles;
+import org.sikawofie.securitycommon.UserIdentity;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,57 +25,126 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.security.Key;
+import java.util.Date;
 
+/**
+ * Verifies the ES256 access token against the locally cached {@link JwksKeySet}, so neither a cache miss nor a
+ * key rotation costs a call to auth-service, then forwards the caller as a signed identity header.
+ */
 @Component
-public class JwtAuthenticationFilter implements GatewayFilter {
+public class JwtAuthenticationFilter implements GatewayFilter, Ordered {
 
-    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache tokenCache;
+    private final GatewayLatencyMetrics latencyMetrics;
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final RevocationChecker revocationChecker;
 
-    public JwtAuthenticationFilter(@Value("${jwt.secret:pX6r4kz3e2l9f5aD1cB8v7gN0jM5qW2yL4iH9oP3uK6tF1xZ0}") String jwtSecret) {
-        byte[] decodedKey = Decoders.BASE64URL.decode(jwtSecret);
-        this.signingKey = Keys.hmacShaKeyFor(decodedKey);
+    public JwtAuthenticationFilter(JwksKeySet jwksKeySet,
+                                   VerifiedTokenCache tokenCache,
+                                   GatewayLatencyMetrics latencyMetrics,
+                                   IdentityHeaderCodec identityHeaderCodec,
+                                   RevocationChecker revocationChecker) {
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return jwksKeySet.get(header.getKeyId());
+                    }
+                })
+                .build();
+        this.tokenCache = tokenCache;
+        this.latencyMetrics = latencyMetrics;
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.revocationChecker = revocationChecker;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
+        long start = System.nanoTime();
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            latencyMetrics.recordJwtVerification("MISSING", System.nanoTime() - start);
             return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
         }
 
         try {
             String token = authHeader.substring(7);
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            Long userId = claims.get("userId", Long.class);
-            String username = claims.getSubject();
-            String role = claims.get("role", String.class);
-            String email = claims.get("email", String.class);
-
-            if (userId == null) {
-                return onError(exchange, "User ID missing in token", HttpStatus.UNAUTHORIZED);
+            VerifiedToken verified = tokenCache.get(token);
+            if (verified == null) {
+                verified = verify(token);
+                if (verified.userId() == null) {
+                    latencyMetrics.recordJwtVerification("REJECTED", System.nanoTime() - start);
+                    return onError(exchange, "User ID missing in token", HttpStatus.UNAUTHORIZED);
+                }
+                tokenCache.put(token, verified);
+                latencyMetrics.recordJwtVerification("VERIFIED", System.nanoTime() - start);
+            } else {
+                latencyMetrics.recordJwtVerification("CACHED", System.nanoTime() - start);
             }
 
+            String identityHeader = verified.identityHeader();
             ServerHttpRequest modifiedRequest = exchange.getRequest().mutate()
-                    .header("X-User-Id", userId.toString())
-                    .header("X-User-Name", username)
-                    .header("X-User-Role", role != null ? role : "USER")
-                    .header("X-User-Email", email != null ? email : "")
+                    .header("X-User-Id", verified.userId().toString())
+                    .header("X-User-Name", verified.username())
+                    .header("X-User-Role", verified.role() != null ? verified.role() : "USER")
+                    .header("X-User-Email", verified.email() != null ? verified.email() : "")
+                    .headers(headers -> {
+                        if (identityHeader != null) {
+                            headers.set(IdentityHeaderCodec.HEADER, identityHeader);
+                        } else {
+                            headers.remove(IdentityHeaderCodec.HEADER);
+                        }
+                    })
                     .build();
 
-            return chain.filter(exchange.mutate().request(modifiedRequest).build());
+            ServerWebExchange mutated = exchange.mutate().request(modifiedRequest).build();
+            if (!revocationChecker.mightBeRevoked(verified.tokenId())) {
+                return chain.filter(mutated);
+            }
+            return revocationChecker.confirm(verified.tokenId())
+                    .flatMap(revoked -> revoked
+                            ? onError(exchange, "Token has been revoked", HttpStatus.UNAUTHORIZED)
+                            : chain.filter(mutated));
 
         } catch (Exception e) {
+            latencyMetrics.recordJwtVerification("REJECTED", System.nanoTime() - start);
             return onError(exchange, "JWT verification failed: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
         }
     }
 
+    @Override
+    public int getOrder() {
+        return FilterOrder.JWT_AUTHENTICATION;
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+
+        Long userId = claims.get("userId", Long.class);
+        String username = claims.getSubject();
+        String role = claims.get("role", String.class);
+        String email = claims.get("email", String.class);
+        Date expiration = claims.getExpiration();
+        long expiresAtMillis = expiration != null ? expiration.getTime() : 0L;
+        return new VerifiedToken(userId, username, role, email, claims.getId(), expiresAtMillis,
+                identityHeader(userId, username, role, email, expiresAtMillis));
+    }
+
+    private String identityHeader(Long userId, String username, String role, String email, long expiresAtMillis) {
+        int roleMask = Roles.mask(role);
+        if (userId == null || roleMask < 0) {
+            return null;
+        }
+        try {
+            return identityHeaderCodec.encode(new UserIdentity(userId, username, email, roleMask, expiresAtMillis / 1000));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
         exchange.getResponse().setStatusCode(status);
         exchange.getResponse().getHeaders().add(HttpHeaders.CONTENT_TYPE, "text/plain");
@@ -74,4 +152,4 @@ public class JwtAuthenticationFilter implements GatewayFilter {
         DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(bytes);
         return exchange.getResponse().writeWith(Mono.just(buffer));
     }
-}
\ No newline at end of file
+}
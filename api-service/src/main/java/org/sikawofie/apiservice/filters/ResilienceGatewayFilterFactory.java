@@ -0,0 +1,219 @@
+package org.sikawofie.apiservice.filters;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.sikawofie.apiservice.cache.CachedResponse;
+import org.sikawofie.apiservice.cache.ResponseCache;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Circuit breaker, concurrency bulkhead and response timeout per downstream service. Upstream 5xx
+ * responses, timeouts and connection errors count as failures. When a call is not permitted or fails
+ * before the response is committed, the configured fallback is served instead.
+ */
+@Component
+public class ResilienceGatewayFilterFactory extends AbstractGatewayFilterFactory<ResilienceGatewayFilterFactory.Config> {
+
+    public enum Fallback {
+        /** 503 with Retry-After. */
+        NONE,
+        /** 200 with an empty {@code data} list in the services' ApiResponse envelope. */
+        EMPTY_LIST,
+        /** The last successful response for the same URL, or {@link #NONE} if there is none. */
+        CACHED
+    }
+
+    public static final String FALLBACK_HEADER = "X-Fallback";
+
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+    private final Map<String, ResponseCache> lastGoodResponses = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResilienceGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    /**
+     * Routes that share a {@code name} share its breaker and bulkhead, whose settings come from the first
+     * route; timeout and fallback are per route.
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(config.getName(), CircuitBreakerConfig.custom()
+                .slidingWindowSize(config.getSlidingWindowSize())
+                .minimumNumberOfCalls(config.getMinimumNumberOfCalls())
+                .failureRateThreshold(config.getFailureRateThreshold())
+                .slowCallDurationThreshold(config.getSlowCallDurationThreshold())
+                .slowCallRateThreshold(config.getSlowCallRateThreshold())
+                .waitDurationInOpenState(config.getWaitDurationInOpenState())
+                .build());
+        Bulkhead bulkhead = bulkheads.bulkhead(config.getName(), BulkheadConfig.custom()
+                .maxConcurrentCalls(config.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ResponseCache lastGood = config.getFallback() == Fallback.CACHED
+                ? lastGoodResponses.computeIfAbsent(config.getName(), name ->
+                        new ResponseCache("fallback." + name, config.getFallbackTtl(), 10_000, meterRegistry))
+                : null;
+
+        return new OrderedGatewayFilter((exchange, chain) ->
+                filter(config, circuitBreaker, bulkhead, lastGood, exchange, chain), FilterOrder.RESILIENCE);
+    }
+
+    private Mono<Void> filter(Config config, CircuitBreaker circuitBreaker, Bulkhead bulkhead, ResponseCache lastGood,
+                              ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!bulkhead.tryAcquirePermission()) {
+            return fallback(config, lastGood, exchange, "bulkhead_full");
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            return fallback(config, lastGood, exchange, "circuit_open");
+        }
+
+        ServerWebExchange routed = lastGood != null && exchange.getRequest().getMethod() == HttpMethod.GET
+                ? exchange.mutate().response(recording(exchange, lastGood)).build()
+                : exchange;
+        long start = circuitBreaker.getCurrentTimestamp();
+        return chain.filter(routed)
+                .timeout(config.getTimeout())
+                .doOnSuccess(ignored -> {
+                    long duration = circuitBreaker.getCurrentTimestamp() - start;
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), new UpstreamServerError(status));
+                    } else {
+                        circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                    }
+                })
+                .doOnError(error -> circuitBreaker.onError(
+                        circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), error))
+                .doOnCancel(circuitBreaker::releasePermission)
+                .doFinally(signal -> bulkhead.onComplete())
+                .onErrorResume(error -> exchange.getResponse().isCommitted()
+                        ? Mono.error(error)
+                        : fallback(config, lastGood, exchange, error instanceof TimeoutException ? "timeout" : "error"));
+    }
+
+    /**
+     * Whether {@code headers} belong to a fallback answer rather than to a response from the service.
+     */
+    public static boolean isFallback(HttpHeaders headers) {
+        return headers.containsKey(FALLBACK_HEADER)
+                || "STALE".equals(headers.getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+    }
+
+    private Mono<Void> fallback(Config config, ResponseCache lastGood, ServerWebExchange exchange, String reason) {
+        Counter.builder("gateway.resilience.fallback")
+                .tag("name", config.getName())
+                .tag("reason", reason)
+                .tag("fallback", config.getFallback().name())
+                .register(meterRegistry)
+                .increment();
+
+        ServerHttpResponse response = exchange.getResponse();
+        if (config.getFallback() == Fallback.EMPTY_LIST) {
+            String body = "{\"status\":200,\"message\":\"" + config.getName()
+                    + " is temporarily unavailable\",\"data\":[]}";
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().set(FALLBACK_HEADER, Fallback.EMPTY_LIST.name());
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }
+        if (lastGood != null && exchange.getRequest().getMethod() == HttpMethod.GET) {
+            CachedResponse cached = lastGood.get(ResponseCacheGatewayFilterFactory.cacheKey(exchange.getRequest()));
+            if (cached != null) {
+                return ResponseCacheGatewayFilterFactory.write(exchange, cached, "STALE");
+            }
+        }
+
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, config.getWaitDurationInOpenState().toSeconds())));
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "text/plain");
+        byte[] bytes = (config.getName() + " is temporarily unavailable").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    /**
+     * Remembers successful responses so they can be served while the service is unavailable.
+     */
+    private static ServerHttpResponseDecorator recording(ServerWebExchange exchange, ResponseCache lastGood) {
+        String key = ResponseCacheGatewayFilterFactory.cacheKey(exchange.getRequest());
+        return new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != HttpStatus.OK.value()) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    lastGood.put(key, new CachedResponse(status, getHeaders().getContentType(), getHeaders().getETag(),
+                            bytes, null));
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+    }
+
+    private static final class UpstreamServerError extends RuntimeException {
+        private UpstreamServerError(HttpStatusCode status) {
+            super("Upstream responded with " + status, null, false, false);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private String name;
+        private Duration timeout = Duration.ofSeconds(5);
+        private int maxConcurrentCalls = 50;
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        private float failureRateThreshold = 50;
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+        private float slowCallRateThreshold = 80;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        private Fallback fallback = Fallback.NONE;
+        private Duration fallbackTtl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,148 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.sikawofie.apiservice.cache.CachedResponse;
+import org.sikawofie.apiservice.cache.ResponseCache;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        ResponseCache cache = caches.computeIfAbsent(config.getName(),
+                name -> new ResponseCache(name, config.getTtl(), config.getMaxSize(), meterRegistry));
+        return new OrderedGatewayFilter((exchange, chain) -> filter(cache, exchange, chain), FilterOrder.RESPONSE_CACHE);
+    }
+
+    public void invalidateRestaurant(Long restaurantId) {
+        caches.values().forEach(cache -> cache.invalidateRestaurant(restaurantId));
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(ResponseCache::invalidateAll);
+    }
+
+    private Mono<Void> filter(ResponseCache cache, ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            return write(exchange, cached, "HIT");
+        }
+
+        Sinks.One<CachedResponse> leader = Sinks.one();
+        Sinks.One<CachedResponse> inFlight = cache.joinInFlight(key, leader);
+        if (inFlight != null) {
+            return inFlight.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(response -> response.isPresent()
+                            ? write(exchange, response.get(), "HIT")
+                            : chain.filter(exchange));
+        }
+
+        Long restaurantId = restaurantId(exchange);
+        ServerHttpResponseDecorator capturingResponse = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                // The resilience filter answers through here too; its fallbacks must not be cached as fresh
+                if (ResilienceGatewayFilterFactory.isFallback(getHeaders())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    HttpStatusCode status = getStatusCode();
+                    if (status != null && status.value() == HttpStatus.OK.value()) {
+                        CachedResponse response = new CachedResponse(status, getHeaders().getContentType(),
+                                getHeaders().getETag(), bytes, restaurantId);
+                        cache.put(key, response);
+                        leader.tryEmitValue(response);
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(capturingResponse).build())
+                .doFinally(signal -> cache.leaveInFlight(key, leader));
+    }
+
+    static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query != null ? request.getURI().getRawPath() + "?" + query : request.getURI().getRawPath();
+    }
+
+    /**
+     * Writes {@code cached} with its ETag, or answers 304 without a body if the request's If-None-Match
+     * already names that ETag.
+     */
+    static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_HEADER, cacheStatus);
+        if (cached.etag() != null && exchange.checkNotModified(cached.etag())) {
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        if (cached.contentType() != null) {
+            response.getHeaders().setContentType(cached.contentType());
+        }
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static Long restaurantId(ServerWebExchange exchange) {
+        String id = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id");
+        return id != null ? Long.valueOf(id) : null;
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private String name;
+        private Duration ttl = Duration.ofSeconds(30);
+        private long maxSize = 1_000;
+    }
+}
@@ -0,0 +1,137 @@
+package org.sikawofie.apiservice.filters;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.sikawofie.apiservice.compression.GzipEncoder;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Gzips responses for clients that accept it. The body is compressed chunk by chunk as it arrives; this
+ * filter never aggregates it, but the response cache and the {@code CACHED} resilience fallback join the
+ * body before it reaches the compressor, so only routes without them (the restaurant catch-all) stream end
+ * to end. Those two are kept to the small, bounded active-list, details and menu responses. Responses below
+ * {@code minResponseSize}, with a content type outside {@code mimeTypes}, or that are already encoded are
+ * passed through untouched. Runs before the response cache so cached entries stay uncompressed and cache
+ * hits are compressed too.
+ */
+@Component
+public class ResponseCompressionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCompressionGatewayFilterFactory.Config> {
+
+    public ResponseCompressionGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<MediaType> mimeTypes = MediaType.parseMediaTypes(config.getMimeTypes());
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!acceptsGzip(exchange.getRequest().getHeaders())) {
+                return chain.filter(exchange);
+            }
+            ServerHttpResponse compressing = new CompressingResponse(exchange.getResponse(), config, mimeTypes);
+            return chain.filter(exchange.mutate().response(compressing).build());
+        }, FilterOrder.COMPRESSION);
+    }
+
+    static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            refused = Double.parseDouble(parameter.substring(2)) == 0;
+                        } catch (NumberFormatException ignored) {
+                            // an unparseable weight does not refuse the coding
+                        }
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class CompressingResponse extends ServerHttpResponseDecorator {
+        private final Config config;
+        private final List<MediaType> mimeTypes;
+
+        CompressingResponse(ServerHttpResponse delegate, Config config, List<MediaType> mimeTypes) {
+            super(delegate);
+            this.config = config;
+            this.mimeTypes = mimeTypes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!shouldCompress()) {
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return super.writeWith(GzipEncoder.encode(body, bufferFactory()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(Flux::from));
+        }
+
+        private boolean shouldCompress() {
+            HttpHeaders headers = getHeaders();
+            HttpStatusCode status = getStatusCode();
+            if (status != null && (status.value() == HttpStatus.NO_CONTENT.value()
+                    || status.value() == HttpStatus.NOT_MODIFIED.value())) {
+                return false;
+            }
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0 && contentLength < config.getMinResponseSize()) {
+                return false;
+            }
+            MediaType contentType = headers.getContentType();
+            return contentType != null && mimeTypes.stream().anyMatch(type -> type.includes(contentType));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private long minResponseSize = 2 * 1024;
+        private List<String> mimeTypes = List.of(
+                MediaType.APPLICATION_JSON_VALUE,
+                "application/*+json",
+                MediaType.TEXT_PLAIN_VALUE,
+                MediaType.TEXT_HTML_VALUE,
+                MediaType.APPLICATION_XML_VALUE);
+    }
+}
@@ -0,0 +1,160 @@
+package org.sikawofie.apiservice.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serves the whole restaurant page in one round trip: the restaurant, its menu and its orders are fetched
+ * in parallel and merged into one document. Each leg has its own timeout; failed legs are reported under
+ * {@code errors} instead of failing the page.
+ */
+@Component
+public class RestaurantPageGatewayFilterFactory extends AbstractGatewayFilterFactory<RestaurantPageGatewayFilterFactory.Config> {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    public RestaurantPageGatewayFilterFactory(WebClient.Builder webClientBuilder,
+                                              LoadBalancedExchangeFilterFunction loadBalancerFunction,
+                                              ObjectMapper objectMapper) {
+        super(Config.class);
+        this.webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<Leg> legs = List.of(
+                new Leg("restaurant", "http://restaurant-service/api/restaurant/{id}", config.getRestaurantTimeout()),
+                new Leg("menu", "http://restaurant-service/api/restaurant/{id}/menu", config.getMenuTimeout()),
+                new Leg("orders", "http://order-service/api/order/restaurant/{id}", config.getOrdersTimeout()));
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            String id = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id");
+            HttpHeaders identity = identityHeaders(exchange.getRequest().getHeaders());
+            List<Mono<LegResult>> calls = legs.stream()
+                    .map(leg -> fetch(leg, id, identity))
+                    .toList();
+            return Mono.zip(calls, results -> Arrays.stream(results).map(LegResult.class::cast).toList())
+                    .flatMap(results -> write(exchange, results));
+        }, FilterOrder.COMPOSITE);
+    }
+
+    private Mono<LegResult> fetch(Leg leg, String id, HttpHeaders identity) {
+        return webClient.get()
+                .uri(leg.uriTemplate(), id)
+                .headers(headers -> headers.addAll(identity))
+                .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                        ? response.bodyToMono(JsonNode.class)
+                                .map(body -> LegResult.success(leg.name(), body.has("data") ? body.get("data") : body))
+                                // A 204 or an empty 200 would otherwise complete the zip empty and drop the page
+                                .defaultIfEmpty(LegResult.success(leg.name(), NullNode.getInstance()))
+                        : response.releaseBody()
+                                .thenReturn(LegResult.failure(leg.name(), response.statusCode(),
+                                        "HTTP " + response.statusCode().value())))
+                .timeout(leg.timeout())
+                .onErrorResume(error -> Mono.just(LegResult.failure(leg.name(), null, describe(error, leg))));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, List<LegResult> results) {
+        ObjectNode page = objectMapper.createObjectNode();
+        ObjectNode errors = objectMapper.createObjectNode();
+        for (LegResult result : results) {
+            if (result.error() == null) {
+                page.set(result.name(), result.body());
+            } else {
+                page.putNull(result.name());
+                errors.put(result.name(), result.error());
+            }
+        }
+        if (!errors.isEmpty()) {
+            page.set("errors", errors);
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status(results));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(page);
+            response.getHeaders().setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+
+    /**
+     * A missing or forbidden restaurant fails the page with the same status; otherwise the page is served
+     * as long as at least one leg succeeded.
+     */
+    private static HttpStatusCode status(List<LegResult> results) {
+        LegResult restaurant = results.get(0);
+        if (restaurant.status() != null && restaurant.status().is4xxClientError()) {
+            return restaurant.status();
+        }
+        boolean anySucceeded = results.stream().anyMatch(result -> result.error() == null);
+        return anySucceeded ? HttpStatus.OK : HttpStatus.BAD_GATEWAY;
+    }
+
+    private static HttpHeaders identityHeaders(HttpHeaders requestHeaders) {
+        HttpHeaders identity = new HttpHeaders();
+        requestHeaders.forEach((name, values) -> {
+            if (name.equalsIgnoreCase(HttpHeaders.AUTHORIZATION) || name.regionMatches(true, 0, "X-User-", 0, 7)) {
+                identity.addAll(name, values);
+            }
+        });
+        return identity;
+    }
+
+    private static String describe(Throwable error, Leg leg) {
+        if (error instanceof TimeoutException) {
+            return "Timed out after " + leg.timeout().toMillis() + "ms";
+        }
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    private record Leg(String name, String uriTemplate, Duration timeout) {
+    }
+
+    private record LegResult(String name, JsonNode body, HttpStatusCode status, String error) {
+
+        static LegResult success(String name, JsonNode body) {
+            return new LegResult(name, body, HttpStatus.OK, null);
+        }
+
+        static LegResult failure(String name, HttpStatusCode status, String error) {
+            return new LegResult(name, null, status, error);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private Duration restaurantTimeout = Duration.ofSeconds(1);
+        private Duration menuTimeout = Duration.ofSeconds(1);
+        private Duration ordersTimeout = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,87 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.sikawofie.apiservice.ratelimit.RateLimit;
+import org.sikawofie.apiservice.ratelimit.TokenBucketStore;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limit per route and per user. Runs after {@link JwtAuthenticationFilter}, so the user is
+ * the verified {@code X-User-Id}; requests without one are limited per client address.
+ */
+@Component
+public class UserRateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<UserRateLimitGatewayFilterFactory.Config> {
+
+    private final TokenBucketStore bucketStore;
+    private final MeterRegistry meterRegistry;
+
+    public UserRateLimitGatewayFilterFactory(TokenBucketStore bucketStore, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.bucketStore = bucketStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RateLimit limit = new RateLimit(config.getReplenishRate(), config.getBurstCapacity());
+        String keyPrefix = config.getName() + ":";
+        Counter rejected = Counter.builder("gateway.ratelimit.rejected")
+                .tag("route", config.getName())
+                .register(meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            long waitNanos = bucketStore.tryAcquire(keyPrefix + clientKey(exchange), limit);
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+            rejected.increment();
+            return tooManyRequests(exchange, waitNanos);
+        }, FilterOrder.RATE_LIMIT);
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
+        if (userId != null) {
+            return userId;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? "ip:" + remoteAddress.getAddress().getHostAddress()
+                : "ip:unknown";
+    }
+
+    private static Mono<Void> tooManyRequests(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().add(HttpHeaders.CONTENT_TYPE, "text/plain");
+        byte[] bytes = "Rate limit exceeded".getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+        private String name;
+        private long replenishRate = 10;
+        private long burstCapacity = 20;
+    }
+}
@@ -0,0 +1,41 @@
+package org.sikawofie.apiservice.hedging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps hedged requests at a percentage of primary requests. Every primary request
+ * deposits {@code maxExtraLoadPercent} hundredths of a token; a hedge spends a whole token.
+ */
+public class HedgeBudget {
+
+    private static final long HEDGE_COST = 100;
+
+    private final long depositPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public HedgeBudget(int maxExtraLoadPercent, int maxBurst) {
+        if (maxExtraLoadPercent < 0 || maxExtraLoadPercent > 100) {
+            throw new IllegalArgumentException("maxExtraLoadPercent must be between 0 and 100");
+        }
+        this.depositPerRequest = maxExtraLoadPercent;
+        this.capacity = Math.max(1, maxBurst) * HEDGE_COST;
+        this.balance = new AtomicLong(maxExtraLoadPercent > 0 ? capacity : 0);
+    }
+
+    public void onRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(capacity, current + deposit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - HEDGE_COST)) {
+                return true;
+            }
+        }
+    }
+}
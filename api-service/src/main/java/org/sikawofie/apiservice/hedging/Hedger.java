@@ -0,0 +1,102 @@
+package org.sikawofie.apiservice.hedging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-route hedging state: the upstream latency distribution the hedge delay is derived from, the hedge
+ * budget and the fired/won counters.
+ */
+public class Hedger {
+
+    private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_SAMPLES = 100;
+
+    private final Timer upstreamLatency;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long initialDelayNanos;
+    private final HedgeBudget budget;
+    private final Counter fired;
+    private final Counter won;
+    private final Counter overBudget;
+    private final LongSupplier nanoClock;
+
+    private volatile long delayNanos;
+    private volatile long nextRefreshNanos;
+
+    public Hedger(String route, double percentile, Duration minDelay, Duration initialDelay,
+                  int maxExtraLoadPercent, int maxBurst, MeterRegistry meterRegistry) {
+        this(route, percentile, minDelay, initialDelay, maxExtraLoadPercent, maxBurst, meterRegistry, System::nanoTime);
+    }
+
+    Hedger(String route, double percentile, Duration minDelay, Duration initialDelay,
+           int maxExtraLoadPercent, int maxBurst, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.upstreamLatency = Timer.builder("gateway.hedging.upstream.latency")
+                .tag("route", route)
+                .publishPercentiles(percentile)
+                .register(meterRegistry);
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.initialDelayNanos = Math.max(initialDelay.toNanos(), minDelayNanos);
+        this.budget = new HedgeBudget(maxExtraLoadPercent, maxBurst);
+        this.fired = Counter.builder("gateway.hedging.fired").tag("route", route).register(meterRegistry);
+        this.won = Counter.builder("gateway.hedging.won").tag("route", route).register(meterRegistry);
+        this.overBudget = Counter.builder("gateway.hedging.over-budget").tag("route", route).register(meterRegistry);
+        this.nanoClock = nanoClock;
+        this.delayNanos = initialDelayNanos;
+        this.nextRefreshNanos = nanoClock.getAsLong();
+    }
+
+    public void onRequest() {
+        budget.onRequest();
+    }
+
+    public void recordLatency(long nanos) {
+        upstreamLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How long to wait for the primary before hedging. Re-read from the latency distribution at most once a
+     * second; until enough samples exist the configured initial delay is used.
+     */
+    public Duration delay() {
+        long now = nanoClock.getAsLong();
+        if (now - nextRefreshNanos >= 0) {
+            nextRefreshNanos = now + REFRESH_INTERVAL_NANOS;
+            delayNanos = computeDelay();
+        }
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public boolean tryFire() {
+        if (!budget.tryAcquire()) {
+            overBudget.increment();
+            return false;
+        }
+        fired.increment();
+        return true;
+    }
+
+    public void hedgeWon() {
+        won.increment();
+    }
+
+    private long computeDelay() {
+        if (upstreamLatency.count() < MIN_SAMPLES) {
+            return initialDelayNanos;
+        }
+        for (ValueAtPercentile value : upstreamLatency.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return Math.max(minDelayNanos, (long) value.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return initialDelayNanos;
+    }
+}
@@ -0,0 +1,106 @@
+package org.sikawofie.apiservice.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instance in-flight counts and a peak-sensitive moving latency average, shared by every
+ * {@link LatencyAwareLoadBalancer}. Averages decay while an instance receives no traffic so that an
+ * instance that recovered from a GC pause is probed again.
+ */
+@Component
+public class InstanceLoadTracker {
+
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public InstanceLoadTracker(@Value("${gateway.loadbalancer.latency-decay:10s}") Duration decay,
+                               @Value("${gateway.loadbalancer.failure-penalty:1s}") Duration failurePenalty) {
+        this(decay, failurePenalty, System::nanoTime);
+    }
+
+    InstanceLoadTracker(Duration decay, Duration failurePenalty, LongSupplier nanoClock) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    public void onRequestStart(ServiceInstance instance) {
+        statsFor(instance).inFlight.incrementAndGet();
+    }
+
+    public void onRequestComplete(ServiceInstance instance, long latencyNanos, boolean success) {
+        InstanceStats instanceStats = statsFor(instance);
+        instanceStats.inFlight.decrementAndGet();
+        instanceStats.record(success ? latencyNanos : Math.max(latencyNanos, failurePenaltyNanos), nanoClock.getAsLong());
+    }
+
+    public void onRequestCancelled(ServiceInstance instance) {
+        statsFor(instance).inFlight.decrementAndGet();
+    }
+
+    /**
+     * Expected cost of sending one more request to {@code instance}: decayed latency average times the
+     * number of requests that would be in flight. Unknown instances cost nothing so they get tried.
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        if (instanceStats == null) {
+            return 0;
+        }
+        return instanceStats.decayedLatency(nanoClock.getAsLong()) * (instanceStats.inFlight.get() + 1);
+    }
+
+    public int inFlight(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        return instanceStats != null ? instanceStats.inFlight.get() : 0;
+    }
+
+    public double averageLatencyMillis(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(key(instance));
+        return instanceStats != null ? instanceStats.decayedLatency(nanoClock.getAsLong()) / TimeUnit.MILLISECONDS.toNanos(1) : 0;
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    private final class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private double latencyNanos;
+        private long lastUpdateNanos;
+
+        synchronized void record(long sampleNanos, long now) {
+            if (lastUpdateNanos == 0 || sampleNanos > latencyNanos) {
+                latencyNanos = sampleNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdateNanos) / decayNanos);
+                latencyNanos = latencyNanos * weight + sampleNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+
+        synchronized double decayedLatency(long now) {
+            if (lastUpdateNanos == 0) {
+                return 0;
+            }
+            return latencyNanos * Math.exp(-(now - lastUpdateNanos) / decayNanos);
+        }
+    }
+}
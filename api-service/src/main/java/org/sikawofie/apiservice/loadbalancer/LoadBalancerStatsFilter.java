@@ -0,0 +1,67 @@
+package org.sikawofie.apiservice.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.sikawofie.apiservice.filters.FilterOrder;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.sikawofie.apiservice.metrics.LoadBalancerStartFilter;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Feeds {@link InstanceLoadTracker} with the in-flight count and time-to-response of every request the
+ * load balancer routed, and records the pick and upstream timers.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLoadTracker loadTracker;
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        String instanceId = InstanceLoadTracker.key(instance);
+        long start = System.nanoTime();
+
+        Long pickStart = exchange.getAttribute(LoadBalancerStartFilter.LOADBALANCER_START_ATTR);
+        if (pickStart != null) {
+            latencyMetrics.recordLoadBalancerPick(routeId, instanceId, start - pickStart);
+        }
+
+        loadTracker.onRequestStart(instance);
+        return chain.filter(exchange).doFinally(signal -> {
+            long elapsed = System.nanoTime() - start;
+            String outcome = GatewayLatencyMetrics.outcome(exchange, signal);
+            latencyMetrics.recordUpstream(routeId, instanceId, outcome, elapsed);
+            if (signal == SignalType.CANCEL) {
+                loadTracker.onRequestCancelled(instance);
+            } else {
+                loadTracker.onRequestComplete(instance, elapsed, !"SERVER_ERROR".equals(outcome));
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return FilterOrder.LOADBALANCER_STATS;
+    }
+}
@@ -0,0 +1,47 @@
+package org.sikawofie.apiservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/gatewaylatency}: the slowest routes, upstream instances, load-balancer picks and JWT
+ * verification outcomes by recent p99, from the timers in {@link GatewayLatencyMetrics}.
+ */
+@Component
+@Endpoint(id = "gatewaylatency")
+@RequiredArgsConstructor
+public class GatewayLatencyEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    @ReadOperation
+    public Map<String, List<LatencySummary>> slowest(@Nullable Integer limit) {
+        int top = limit != null && limit > 0 ? limit : DEFAULT_LIMIT;
+        Map<String, List<LatencySummary>> slowest = new LinkedHashMap<>();
+        slowest.put("routes", slowest(GatewayLatencyMetrics.ROUTE_LATENCY, top));
+        slowest.put("instances", slowest(GatewayLatencyMetrics.UPSTREAM_LATENCY, top));
+        slowest.put("loadBalancerPicks", slowest(GatewayLatencyMetrics.LOADBALANCER_PICK, top));
+        slowest.put("jwtVerification", slowest(GatewayLatencyMetrics.JWT_VERIFICATION, top));
+        return slowest;
+    }
+
+    private List<LatencySummary> slowest(String meterName, int limit) {
+        return meterRegistry.find(meterName).timers().stream()
+                .map(LatencySummary::of)
+                .filter(summary -> summary.count() > 0)
+                .sorted(Comparator.comparingDouble(LatencySummary::p99Ms).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
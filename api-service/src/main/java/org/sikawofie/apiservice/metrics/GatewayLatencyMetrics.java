@@ -0,0 +1,79 @@
+package org.sikawofie.apiservice.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for where a gateway request spends its time: JWT verification, the load-balancer pick, the
+ * upstream call and the route as a whole. All of them publish percentile histograms for Prometheus and
+ * client-side percentiles for {@link GatewayLatencyEndpoint}.
+ */
+@Component
+public class GatewayLatencyMetrics {
+
+    public static final String JWT_VERIFICATION = "gateway.jwt.verification";
+    public static final String LOADBALANCER_PICK = "gateway.loadbalancer.pick";
+    public static final String UPSTREAM_LATENCY = "gateway.upstream.latency";
+    public static final String ROUTE_LATENCY = "gateway.route.latency";
+
+    static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Meter.MeterProvider<Timer> jwtVerification;
+    private final Meter.MeterProvider<Timer> loadBalancerPick;
+    private final Meter.MeterProvider<Timer> upstreamLatency;
+    private final Meter.MeterProvider<Timer> routeLatency;
+
+    public GatewayLatencyMetrics(MeterRegistry meterRegistry) {
+        this.jwtVerification = timer(JWT_VERIFICATION, "Time spent authenticating the bearer token", meterRegistry);
+        this.loadBalancerPick = timer(LOADBALANCER_PICK, "Time spent choosing an upstream instance", meterRegistry);
+        this.upstreamLatency = timer(UPSTREAM_LATENCY, "Time until the upstream instance responded", meterRegistry);
+        this.routeLatency = timer(ROUTE_LATENCY, "Total time spent in the gateway per route", meterRegistry);
+    }
+
+    public void recordJwtVerification(String outcome, long nanos) {
+        jwtVerification.withTags("outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLoadBalancerPick(String route, String instance, long nanos) {
+        loadBalancerPick.withTags("route", route, "instance", instance).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUpstream(String route, String instance, String outcome, long nanos) {
+        upstreamLatency.withTags("route", route, "instance", instance, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRoute(String route, String outcome, long nanos) {
+        routeLatency.withTags("route", route, "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Micrometer's HTTP outcome of the exchange, or {@code CANCELLED} if the client went away.
+     */
+    public static String outcome(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.ON_ERROR && (status == null || !status.isError())) {
+            return Outcome.SERVER_ERROR.name();
+        }
+        return status != null ? Outcome.forStatus(status.value()).name() : Outcome.SUCCESS.name();
+    }
+
+    private static Meter.MeterProvider<Timer> timer(String name, String description, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .publishPercentiles(PERCENTILES)
+                .withRegistry(meterRegistry);
+    }
+}
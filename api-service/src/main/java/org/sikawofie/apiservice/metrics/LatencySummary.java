@@ -0,0 +1,38 @@
+package org.sikawofie.apiservice.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public record LatencySummary(Map<String, String> tags, long count, double meanMs,
+                             double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+    static LatencySummary of(Timer timer) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : timer.getId().getTags()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        return new LatencySummary(tags, snapshot.count(),
+                snapshot.mean(TimeUnit.MILLISECONDS),
+                percentile(snapshot, 0.5),
+                percentile(snapshot, 0.95),
+                percentile(snapshot, 0.99),
+                snapshot.max(TimeUnit.MILLISECONDS));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+}
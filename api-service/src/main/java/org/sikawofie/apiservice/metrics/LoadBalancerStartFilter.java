@@ -0,0 +1,30 @@
+package org.sikawofie.apiservice.metrics;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stamps the moment the request enters {@link ReactiveLoadBalancerClientFilter} so that
+ * {@link org.sikawofie.apiservice.loadbalancer.LoadBalancerStatsFilter} can time the pick.
+ */
+@Component
+public class LoadBalancerStartFilter implements GlobalFilter, Ordered {
+
+    public static final String LOADBALANCER_START_ATTR = LoadBalancerStartFilter.class.getName() + ".start";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(LOADBALANCER_START_ATTR, System.nanoTime());
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,39 @@
+package org.sikawofie.apiservice.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Times every routed request end to end.
+ */
+@Component
+@RequiredArgsConstructor
+public class RouteLatencyFilter implements GlobalFilter, Ordered {
+
+    private final GatewayLatencyMetrics latencyMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if (route != null) {
+                long elapsed = System.nanoTime() - start;
+                latencyMetrics.recordRoute(route.getId(), GatewayLatencyMetrics.outcome(exchange, signal), elapsed);
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,23 @@
+package org.sikawofie.apiservice.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained rate of {@code replenishRate} requests per second with bursts of up to {@code burstCapacity}.
+ */
+public record RateLimit(long replenishRate, long burstCapacity) {
+
+    public RateLimit {
+        if (replenishRate <= 0 || burstCapacity <= 0) {
+            throw new IllegalArgumentException("replenishRate and burstCapacity must be positive");
+        }
+    }
+
+    long emissionIntervalNanos() {
+        return TimeUnit.SECONDS.toNanos(1) / replenishRate;
+    }
+
+    long burstToleranceNanos() {
+        return emissionIntervalNanos() * (burstCapacity - 1);
+    }
+}
@@ -0,0 +1,93 @@
+package org.sikawofie.apiservice.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, one per key. Each bucket is a single {@link AtomicLong} holding its
+ * theoretical arrival time (GCRA), so taking a token is one CAS and never blocks. Buckets are spread over
+ * independently swept stripes; a bucket that has been full for longer than the idle timeout is dropped,
+ * which is indistinguishable from keeping it.
+ */
+@Component
+public class TokenBucketStore {
+
+    private final Stripe[] stripes;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public TokenBucketStore(@Value("${gateway.ratelimit.idle-timeout:5m}") Duration idleTimeout,
+                            MeterRegistry meterRegistry) {
+        this(idleTimeout, Runtime.getRuntime().availableProcessors() * 4, System::nanoTime);
+        Gauge.builder("gateway.ratelimit.buckets", this, TokenBucketStore::size)
+                .register(meterRegistry);
+    }
+
+    TokenBucketStore(Duration idleTimeout, int concurrency, LongSupplier nanoClock) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoClock = nanoClock;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(2, concurrency) - 1) << 1];
+        Arrays.setAll(stripes, i -> new Stripe());
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 if the token was granted, otherwise how many nanoseconds until one will be available
+     */
+    public long tryAcquire(String key, RateLimit limit) {
+        long now = nanoClock.getAsLong();
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        stripe.sweepIfDue(now);
+
+        AtomicLong bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        long interval = limit.emissionIntervalNanos();
+        long tolerance = limit.burstToleranceNanos();
+        while (true) {
+            long arrival = bucket.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(nanoClock.getAsLong() + idleTimeoutNanos);
+
+        void sweepIfDue(long now) {
+            long due = nextSweep.get();
+            if (now - due < 0 || !nextSweep.compareAndSet(due, now + idleTimeoutNanos)) {
+                return;
+            }
+            buckets.entrySet().removeIf(entry -> now - entry.getValue().get() > idleTimeoutNanos);
+        }
+    }
+}
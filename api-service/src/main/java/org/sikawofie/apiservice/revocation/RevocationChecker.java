@@ -0,0 +1,102 @@
+package org.sikawofie.apiservice.revocation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a verified token has been revoked. The {@link TokenDenylist} filter answers almost every request
+ * in memory; only probable hits are confirmed, first against the deltas held exactly, then with auth-service.
+ * Confirmed answers are cached briefly. If auth-service cannot answer, the token is treated as revoked.
+ */
+@Component
+public class RevocationChecker {
+
+    public static final String CHECKS = "gateway.jwt.revocation.checks";
+
+    private final TokenDenylist denylist;
+    private final WebClient webClient;
+    private final Duration lookupTimeout;
+    private final Cache<String, Boolean> confirmed;
+    private final Counter filterNegative;
+    private final Counter knownRevoked;
+    private final Counter lookedUpRevoked;
+    private final Counter falsePositive;
+    private final Counter lookupFailed;
+
+    @Autowired
+    public RevocationChecker(TokenDenylist denylist,
+                             WebClient.Builder webClientBuilder,
+                             LoadBalancedExchangeFilterFunction loadBalancerFunction,
+                             @Value("${gateway.jwt.revocation.lookup-timeout:500ms}") Duration lookupTimeout,
+                             @Value("${gateway.jwt.revocation.lookup-cache-ttl:1m}") Duration lookupCacheTtl,
+                             MeterRegistry meterRegistry) {
+        this(denylist, webClientBuilder.clone().filter(loadBalancerFunction).build(), lookupTimeout, lookupCacheTtl,
+                meterRegistry);
+    }
+
+    public RevocationChecker(TokenDenylist denylist, WebClient webClient, Duration lookupTimeout,
+                             Duration lookupCacheTtl, MeterRegistry meterRegistry) {
+        this.denylist = denylist;
+        this.webClient = webClient;
+        this.lookupTimeout = lookupTimeout;
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(lookupCacheTtl)
+                .build();
+        this.filterNegative = Counter.builder(CHECKS).tag("result", "filter-negative").register(meterRegistry);
+        this.knownRevoked = Counter.builder(CHECKS).tag("result", "known-revoked").register(meterRegistry);
+        this.lookedUpRevoked = Counter.builder(CHECKS).tag("result", "lookup-revoked").register(meterRegistry);
+        this.falsePositive = Counter.builder(CHECKS).tag("result", "false-positive").register(meterRegistry);
+        this.lookupFailed = Counter.builder(CHECKS).tag("result", "lookup-failed").register(meterRegistry);
+    }
+
+    /**
+     * In-memory check for the request path; when {@code false} no further check is needed.
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        if (tokenId == null || !denylist.mightBeRevoked(tokenId)) {
+            filterNegative.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exact answer for a token {@link #mightBeRevoked} could not clear.
+     */
+    public Mono<Boolean> confirm(String tokenId) {
+        if (denylist.isKnownRevoked(tokenId)) {
+            knownRevoked.increment();
+            return Mono.just(true);
+        }
+        Boolean cached = confirmed.getIfPresent(tokenId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return webClient.get()
+                .uri("http://auth-service/auth/revocations/{tokenId}", tokenId)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(lookupTimeout)
+                .map(body -> body.path("revoked").asBoolean(true))
+                .doOnNext(revoked -> {
+                    confirmed.put(tokenId, revoked);
+                    (revoked ? lookedUpRevoked : falsePositive).increment();
+                })
+                .onErrorResume(error -> {
+                    lookupFailed.increment();
+                    return Mono.just(true);
+                });
+    }
+}
@@ -0,0 +1,59 @@
+package org.sikawofie.apiservice.revocation;
+
+import org.sikawofie.securitycommon.BloomFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The gateway's replica of the auth-service token denylist: the latest Bloom filter snapshot with every delta
+ * received since added on top. Deltas are also kept exactly until their token expires, so they survive the swap
+ * to a snapshot built before they were committed and answer lookups for them without a round trip.
+ */
+@Component
+public class TokenDenylist {
+
+    private final Map<String, Long> recent = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private long snapshotSequence = -1;
+
+    /**
+     * Lock-free; {@code false} means the token is certainly not revoked.
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        BloomFilter current = filter;
+        return current != null ? current.mightContain(tokenId) : recent.containsKey(tokenId);
+    }
+
+    public boolean isKnownRevoked(String tokenId) {
+        return recent.containsKey(tokenId);
+    }
+
+    /**
+     * Replaces the filter unless a newer snapshot is already applied.
+     */
+    public synchronized void applySnapshot(long sequence, byte[] bytes) {
+        if (sequence < snapshotSequence) {
+            return;
+        }
+        BloomFilter next = BloomFilter.fromBytes(bytes);
+        long now = System.currentTimeMillis() / 1000;
+        recent.values().removeIf(expiresAt -> expiresAt <= now);
+        recent.keySet().forEach(next::put);
+        filter = next;
+        snapshotSequence = sequence;
+    }
+
+    public synchronized void applyDelta(String tokenId, long expiresAtEpochSecond) {
+        recent.put(tokenId, expiresAtEpochSecond);
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+    }
+
+    public synchronized long snapshotSequence() {
+        return snapshotSequence;
+    }
+}
@@ -0,0 +1,113 @@
+package org.sikawofie.apiservice.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.apiservice.cache.VerifiedToken;
+import org.sikawofie.apiservice.cache.VerifiedTokenCache;
+import org.sikawofie.apiservice.filters.JwtAuthenticationFilter;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.sikawofie.apiservice.revocation.RevocationChecker;
+import org.sikawofie.apiservice.revocation.TokenDenylist;
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.Jwks;
+import org.sikawofie.securitycommon.JwksKeySet;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link JwtAuthenticationFilter} with and without the verified-token cache.
+ * Run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String KEY_ID = "key-1";
+    private static final String IDENTITY_SECRET = "aWRlbnRpdHktaGVhZGVyLWRldmVsb3BtZW50LXNlY3JldC0wMQ";
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    private JwksKeySet keySet;
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final GatewayFilterChain chain = exchange -> Mono.empty();
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        VerifiedTokenCache cache = cached
+                ? new VerifiedTokenCache(10_000, registry)
+                : new VerifiedTokenCache(1, registry) {
+                    @Override
+                    public VerifiedToken get(String token) {
+                        return null;
+                    }
+
+                    @Override
+                    public void put(String token, VerifiedToken verified) {
+                    }
+                };
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        keySet = new JwksKeySet(() -> Jwks.toJson(Map.of(KEY_ID, (ECPublicKey) keyPair.getPublic())),
+                Duration.ofHours(1), Duration.ofMinutes(1));
+        keySet.refresh();
+        filter = new JwtAuthenticationFilter(keySet, cache, new GatewayLatencyMetrics(registry),
+                IdentityHeaderCodec.fromSecret(IDENTITY_SECRET),
+                new RevocationChecker(new TokenDenylist(), WebClient.create(), Duration.ofMillis(100),
+                        Duration.ofMinutes(1), registry));
+
+        String token = Jwts.builder()
+                .setHeaderParam("kid", KEY_ID)
+                .setId(UUID.randomUUID().toString())
+                .setSubject("alice")
+                .claim("userId", 42L)
+                .claim("role", "ROLE_CUSTOMER")
+                .claim("email", "alice@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+        authorization = "Bearer " + token;
+    }
+
+    @TearDown
+    public void tearDown() {
+        keySet.close();
+    }
+
+    @Benchmark
+    public Void filter() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+        return filter.filter(exchange, chain).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package org.sikawofie.apiservice.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.securitycommon.JwtVerifier;
+import org.sikawofie.securitycommon.UserIdentity;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying one access token signed HS256 with a shared secret against ES256 with a published key, as
+ * the gateway pays it on a verified-token cache miss and a service pays it on every request. ES256 is measured
+ * with jjwt, which the gateway uses, and with the {@link JwtVerifier} the services use.
+ * Run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String KEY_ID = "key-1";
+
+    private JwtParser hmacParser;
+    private JwtParser ecParser;
+    private JwtVerifier ecVerifier;
+    private String hmacToken;
+    private String ecToken;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        Key secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+
+        hmacParser = Jwts.parserBuilder().setSigningKey(secret).build();
+        ecParser = Jwts.parserBuilder().setSigningKey(keyPair.getPublic()).build();
+        ecVerifier = new JwtVerifier(kid -> KEY_ID.equals(kid) ? keyPair.getPublic() : null);
+        hmacToken = token(secret, SignatureAlgorithm.HS256);
+        ecToken = token(keyPair.getPrivate(), SignatureAlgorithm.ES256);
+        now = System.currentTimeMillis() / 1000;
+    }
+
+    @Benchmark
+    public Claims hmacJjwt() {
+        return hmacParser.parseClaimsJws(hmacToken).getBody();
+    }
+
+    @Benchmark
+    public Claims ecJjwt() {
+        return ecParser.parseClaimsJws(ecToken).getBody();
+    }
+
+    @Benchmark
+    public UserIdentity ecJwtVerifier() {
+        return ecVerifier.verify(ecToken, now);
+    }
+
+    private static String token(Key key, SignatureAlgorithm algorithm) {
+        return Jwts.builder()
+                .setHeaderParam("kid", KEY_ID)
+                .setId(UUID.randomUUID().toString())
+                .setSubject("alice")
+                .claim("userId", 42L)
+                .claim("role", "ROLE_CUSTOMER")
+                .claim("email", "alice@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, algorithm)
+                .compact();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package org.sikawofie.apiservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.apiservice.compression.GzipEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and gateway allocation for a {@code GET /api/restaurant} sized payload, comparing the
+ * uncompressed pass-through, gzip over the aggregated body and the streaming {@link GzipEncoder}.
+ * {@code wireBytes} is reported per operation; allocation per operation comes from the GC profiler
+ * ({@code gc.alloc.rate.norm}). Run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Param({"500", "2000"})
+    public int restaurants;
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private byte[][] chunks;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        byte[] body = payload(restaurants).getBytes(StandardCharsets.UTF_8);
+        int count = (body.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            chunks[i] = Arrays.copyOfRange(body, i * CHUNK_SIZE, Math.min(body.length, (i + 1) * CHUNK_SIZE));
+        }
+    }
+
+    @Benchmark
+    public long passThrough(Wire wire) {
+        return count(upstream(), wire);
+    }
+
+    @Benchmark
+    public long aggregatedGzip(Wire wire) {
+        Flux<DataBuffer> compressed = DataBufferUtils.join(upstream())
+                .map(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    return bufferFactory.wrap(gzip(bytes));
+                })
+                .flux();
+        return count(compressed, wire);
+    }
+
+    @Benchmark
+    public long streamingGzip(Wire wire) {
+        return count(GzipEncoder.encode(upstream(), bufferFactory), wire);
+    }
+
+    private Flux<DataBuffer> upstream() {
+        return Flux.fromArray(chunks).map(chunk -> {
+            DataBuffer buffer = bufferFactory.allocateBuffer(chunk.length);
+            buffer.write(chunk);
+            return buffer;
+        });
+    }
+
+    private static long count(Flux<DataBuffer> body, Wire wire) {
+        long bytes = body
+                .map(buffer -> {
+                    int size = buffer.readableByteCount();
+                    DataBufferUtils.release(buffer);
+                    return (long) size;
+                })
+                .reduce(0L, Long::sum)
+                .switchIfEmpty(Mono.just(0L))
+                .block();
+        wire.wireBytes += bytes;
+        return bytes;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String payload(int count) {
+        StringBuilder json = new StringBuilder("{\"status\":200,\"message\":\"Restaurants retrieved\",\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Restaurant ").append(i)
+                    .append("\",\"address\":\"").append(i).append(" Independence Avenue, Accra\"")
+                    .append(",\"status\":\"ACTIVE\",\"menuItems\":[");
+            for (int m = 0; m < 8; m++) {
+                if (m > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":").append(i * 8 + m)
+                        .append(",\"name\":\"Menu item ").append(m)
+                        .append("\",\"description\":\"House special number ").append(m)
+                        .append("\",\"price\":").append(20 + m).append(".00,\"available\":true}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseCompressionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,202 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.apiservice.loadbalancer.InstanceLoadTracker;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HedgingGatewayFilterFactoryTest {
+
+    private static final String SERVICE_ID = "restaurant-service";
+
+    private final ServiceInstance slow = instance("restaurant-slow", 8081);
+    private final ServiceInstance fast = instance("restaurant-fast", 8082);
+    private final Map<Integer, Duration> injectedLatency = Map.of(
+            8081, Duration.ofMillis(800),
+            8082, Duration.ofMillis(10));
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger cancelledCalls = new AtomicInteger();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpStatus primaryStatus = HttpStatus.OK;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+        when(discoveryClient.getInstances(SERVICE_ID)).thenReturn(Flux.just(slow, fast));
+
+        WebClient.Builder stubInstances = WebClient.builder().exchangeFunction(request -> {
+            upstreamCalls.incrementAndGet();
+            int port = request.url().getPort();
+            return Mono.delay(injectedLatency.get(port))
+                    .map(tick -> ClientResponse.create(HttpStatus.OK)
+                            .header("Content-Type", "application/json")
+                            .body("{\"port\":" + port + "}")
+                            .build())
+                    .doOnCancel(cancelledCalls::incrementAndGet);
+        });
+
+        HedgingGatewayFilterFactory factory = new HedgingGatewayFilterFactory(discoveryClient,
+                new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1)),
+                new GatewayLatencyMetrics(meterRegistry), stubInstances, meterRegistry);
+        filter = factory.apply(c -> {
+            c.setName("restaurant-details");
+            c.setInitialDelay(Duration.ofMillis(50));
+        });
+    }
+
+    @Test
+    void slowPrimary_ShouldBeHedgedAndHedgeShouldWin() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurant/7").build(), slow);
+
+        long start = System.nanoTime();
+        filter.filter(exchange, routedTo(slow)).block(Duration.ofSeconds(5));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals("{\"port\":8082}", exchange.getResponse().getBodyAsString().block());
+        assertTrue(elapsedMillis < 500, "hedged response took " + elapsedMillis + "ms");
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, cancelledCalls.get());
+        assertEquals(1.0, meterRegistry.counter("gateway.hedging.fired", "route", "restaurant-details").count());
+        assertEquals(1.0, meterRegistry.counter("gateway.hedging.won", "route", "restaurant-details").count());
+        assertEquals(1, upstreamTimer(fast, "SUCCESS").count());
+    }
+
+    @Test
+    void cancelledPrimary_ShouldStillBeSampledForTheHedgeDelay() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurant/7").build(), slow);
+
+        filter.filter(exchange, routedTo(slow)).block(Duration.ofSeconds(5));
+
+        Timer sampled = meterRegistry.get("gateway.hedging.upstream.latency").tag("route", "restaurant-details").timer();
+        assertEquals(2, sampled.count());
+        // The hedge answered after 50ms delay plus 10ms; the primary was cancelled no earlier than that
+        assertTrue(sampled.max(TimeUnit.MILLISECONDS) >= 60, "longest sample " + sampled.max(TimeUnit.MILLISECONDS) + "ms");
+    }
+
+    @Test
+    void fastPrimary_ShouldNotBeHedged() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurant/7").build(), fast);
+
+        filter.filter(exchange, routedTo(fast)).block(Duration.ofSeconds(5));
+
+        assertEquals("{\"port\":8082}", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0.0, meterRegistry.counter("gateway.hedging.fired", "route", "restaurant-details").count());
+    }
+
+    @Test
+    void failingPrimary_ShouldBeReplacedByHedgeResponse() {
+        primaryStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurant/7").build(), fast);
+
+        filter.filter(exchange, routedTo(fast)).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertNull(exchange.getResponse().getHeaders().getFirst("X-Upstream"));
+        assertEquals("{\"port\":8081}", exchange.getResponse().getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.counter("gateway.hedging.won", "route", "restaurant-details").count());
+    }
+
+    @Test
+    void requestsWithoutLoadBalancedInstance_ShouldPassThrough() {
+        AtomicInteger routed = new AtomicInteger();
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/restaurant/7").build(), null);
+
+        filter.filter(exchange, e -> {
+            routed.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertEquals(1, routed.get());
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    @Test
+    void nonGetRequests_ShouldPassThrough() {
+        AtomicInteger routed = new AtomicInteger();
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/restaurant/7").build(), slow);
+
+        filter.filter(exchange, e -> {
+            routed.incrementAndGet();
+            return Mono.empty();
+        }).block();
+
+        assertEquals(1, routed.get());
+        assertEquals(0, upstreamCalls.get());
+    }
+
+    private Timer upstreamTimer(ServiceInstance instance, String outcome) {
+        return meterRegistry.get(GatewayLatencyMetrics.UPSTREAM_LATENCY)
+                .tags("route", "restaurant-details", "instance", InstanceLoadTracker.key(instance), "outcome", outcome)
+                .timer();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest request, ServiceInstance primary) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        Route route = Route.async()
+                .id("restaurant-details")
+                .uri("lb://" + SERVICE_ID)
+                .predicate(e -> true)
+                .build();
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        if (primary != null) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR,
+                    new DefaultResponse(primary));
+        }
+        return exchange;
+    }
+
+    /**
+     * Stands in for the routing filters: answers from the load-balanced primary after its injected latency.
+     */
+    private GatewayFilterChain routedTo(ServiceInstance primary) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.delay(injectedLatency.get(primary.getPort()))
+                    .then(Mono.defer(() -> {
+                        exchange.getResponse().setStatusCode(primaryStatus);
+                        exchange.getResponse().getHeaders().add("X-Upstream", primary.getInstanceId());
+                        if (primaryStatus.is5xxServerError()) {
+                            return Mono.empty();
+                        }
+                        byte[] body = ("{\"port\":" + primary.getPort() + "}").getBytes(StandardCharsets.UTF_8);
+                        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+                    }))
+                    .doOnCancel(cancelledCalls::incrementAndGet);
+        };
+    }
+
+    private static ServiceInstance instance(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "localhost", port, false);
+    }
+}
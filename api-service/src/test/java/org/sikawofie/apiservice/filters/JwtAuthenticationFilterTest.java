@@ -0,0 +1,222 @@
+package org.sikawofie.apiservice.filters;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.apiservice.cache.VerifiedTokenCache;
+import org.sikawofie.apiservice.metrics.GatewayLatencyMetrics;
+import org.sikawofie.apiservice.revocation.RevocationChecker;
+import org.sikawofie.apiservice.revocation.TokenDenylist;
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.Jwks;
+import org.sikawofie.securitycommon.JwksKeySet;
+import org.sikawofie.securitycommon.Roles;
+import org.sikawofie.securitycommon.UserIdentity;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String KEY_ID = "key-1";
+    private static final String IDENTITY_SECRET = "aWRlbnRpdHktaGVhZGVyLWRldmVsb3BtZW50LXNlY3JldC0wMQ";
+    private static final KeyPair KEY_PAIR = Keys.keyPairFor(SignatureAlgorithm.ES256);
+
+    private final IdentityHeaderCodec identityHeaderCodec = IdentityHeaderCodec.fromSecret(IDENTITY_SECRET);
+
+    private JwksKeySet keySet;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache tokenCache;
+    private TokenDenylist denylist;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        keySet = new JwksKeySet(() -> Jwks.toJson(Map.of(KEY_ID, (ECPublicKey) KEY_PAIR.getPublic())),
+                Duration.ofMinutes(5), Duration.ofMinutes(1));
+        keySet.refresh();
+        meterRegistry = new SimpleMeterRegistry();
+        tokenCache = new VerifiedTokenCache(1_000, meterRegistry);
+        denylist = new TokenDenylist();
+        RevocationChecker revocationChecker = new RevocationChecker(denylist, WebClient.create(),
+                Duration.ofMillis(100), Duration.ofMinutes(1), meterRegistry);
+        filter = new JwtAuthenticationFilter(keySet, tokenCache, new GatewayLatencyMetrics(meterRegistry),
+                identityHeaderCodec, revocationChecker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keySet.close();
+    }
+
+    @Test
+    void validToken_ShouldForwardIdentityHeaders() {
+        String token = token(42L, System.currentTimeMillis() + 60_000);
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange(token), capture(forwarded)).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertEquals("42", headers.getFirst("X-User-Id"));
+        assertEquals("alice", headers.getFirst("X-User-Name"));
+        assertEquals("ROLE_CUSTOMER", headers.getFirst("X-User-Role"));
+        assertEquals("alice@example.com", headers.getFirst("X-User-Email"));
+
+        UserIdentity identity = identityHeaderCodec.decode(headers.getFirst(IdentityHeaderCodec.HEADER),
+                System.currentTimeMillis() / 1000);
+        assertNotNull(identity);
+        assertEquals(42L, identity.userId());
+        assertEquals("alice", identity.username());
+        assertEquals(Roles.CUSTOMER, identity.roleMask());
+    }
+
+    @Test
+    void spoofedIdentityHeader_ShouldBeReplaced() {
+        String token = token(42L, System.currentTimeMillis() + 60_000);
+        String spoofed = identityHeaderCodec.encode(new UserIdentity(1L, "root", "", Roles.ADMIN, 0));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(IdentityHeaderCodec.HEADER, spoofed)), capture(forwarded)).block();
+
+        List<String> values = forwarded.get().getRequest().getHeaders().get(IdentityHeaderCodec.HEADER);
+        assertEquals(1, values.size());
+        assertNotEquals(spoofed, values.get(0));
+    }
+
+    @Test
+    void repeatedToken_ShouldBeServedFromCache() {
+        String token = token(42L, System.currentTimeMillis() + 60_000);
+
+        filter.filter(exchange(token), capture(new AtomicReference<>())).block();
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        filter.filter(exchange(token), capture(forwarded)).block();
+
+        assertEquals("42", forwarded.get().getRequest().getHeaders().getFirst("X-User-Id"));
+        assertEquals(1, tokenCache.size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1, meterRegistry.get(GatewayLatencyMetrics.JWT_VERIFICATION).tag("outcome", "VERIFIED").timer().count());
+        assertEquals(1, meterRegistry.get(GatewayLatencyMetrics.JWT_VERIFICATION).tag("outcome", "CACHED").timer().count());
+    }
+
+    @Test
+    void tamperedToken_ShouldBeRejectedAndNotCached() {
+        String token = token(42L, System.currentTimeMillis() + 60_000);
+        MockServerWebExchange exchange = exchange(token.substring(0, token.length() - 2) + "xx");
+
+        filter.filter(exchange, capture(new AtomicReference<>())).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void expiredToken_ShouldBeRejected() {
+        String token = token(42L, System.currentTimeMillis() - 1_000);
+        MockServerWebExchange exchange = exchange(token);
+
+        filter.filter(exchange, capture(new AtomicReference<>())).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void tokenFromUnknownKey_ShouldBeRejected() {
+        String token = token(42L, System.currentTimeMillis() + 60_000, UUID.randomUUID().toString(), "key-2",
+                Keys.keyPairFor(SignatureAlgorithm.ES256).getPrivate(), SignatureAlgorithm.ES256);
+        MockServerWebExchange exchange = exchange(token);
+
+        filter.filter(exchange, capture(new AtomicReference<>())).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void hmacToken_ShouldBeRejected() {
+        Key secret = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode("pX6r4kz3e2l9f5aD1cB8v7gN0jM5qW2yL4iH9oP3uK6tF1xZ0"));
+        String token = token(42L, System.currentTimeMillis() + 60_000, UUID.randomUUID().toString(), KEY_ID,
+                secret, SignatureAlgorithm.HS256);
+        MockServerWebExchange exchange = exchange(token);
+
+        filter.filter(exchange, capture(new AtomicReference<>())).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void revokedToken_ShouldBeRejectedEvenWhenCached() {
+        String tokenId = UUID.randomUUID().toString();
+        String token = token(42L, System.currentTimeMillis() + 60_000, tokenId);
+        filter.filter(exchange(token), capture(new AtomicReference<>())).block();
+
+        denylist.applyDelta(tokenId, System.currentTimeMillis() / 1000 + 60);
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        MockServerWebExchange exchange = exchange(token);
+        filter.filter(exchange, capture(forwarded)).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+        assertEquals(1.0, meterRegistry.get(RevocationChecker.CHECKS).tag("result", "known-revoked").counter().count());
+    }
+
+    private String token(Long userId, long expiresAtMillis) {
+        return token(userId, expiresAtMillis, UUID.randomUUID().toString());
+    }
+
+    private String token(Long userId, long expiresAtMillis, String tokenId) {
+        return token(userId, expiresAtMillis, tokenId, KEY_ID, KEY_PAIR.getPrivate(), SignatureAlgorithm.ES256);
+    }
+
+    private String token(Long userId, long expiresAtMillis, String tokenId, String keyId, Key key,
+                         SignatureAlgorithm algorithm) {
+        return Jwts.builder()
+                .setHeaderParam("kid", keyId)
+                .setId(tokenId)
+                .setSubject("alice")
+                .claim("userId", userId)
+                .claim("role", "ROLE_CUSTOMER")
+                .claim("email", "alice@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(key, algorithm)
+                .compact();
+    }
+
+    private static MockServerWebExchange exchange(String token) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private static GatewayFilterChain capture(AtomicReference<ServerWebExchange> forwarded) {
+        return exchange -> {
+            forwarded.set(exchange);
+            return Mono.empty();
+        };
+    }
+}
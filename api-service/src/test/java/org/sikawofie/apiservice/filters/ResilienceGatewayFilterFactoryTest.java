@@ -0,0 +1,199 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.apiservice.filters.ResilienceGatewayFilterFactory.Fallback;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResilienceGatewayFilterFactoryTest {
+
+    private static final int POOL_SIZE = 20;
+    private static final Duration ORDER_STALL = Duration.ofMillis(500);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResilienceGatewayFilterFactory factory = new ResilienceGatewayFilterFactory(meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void slowOrderService_ShouldNotSlowDownRestaurantRoutes() {
+        GatewayFilter orderIsolation = factory.apply(c -> {
+            c.setName("order-service");
+            c.setMaxConcurrentCalls(10);
+        });
+
+        long unisolated = restaurantLatencyDuringOrderStall((exchange, chain) -> chain.filter(exchange), POOL_SIZE);
+        long isolated = restaurantLatencyDuringOrderStall(orderIsolation, 10);
+
+        // Relative bounds only: without the bulkhead restaurant calls wait for stalled order calls to return
+        // their connections, with it they never wait on one
+        assertTrue(isolated * 4 < unisolated,
+                "restaurant calls took " + isolated + "ms with a bulkhead and " + unisolated + "ms without");
+        assertTrue(isolated < ORDER_STALL.toMillis(),
+                "restaurant calls took " + isolated + "ms with a bulkhead, longer than an order stall");
+        assertTrue(meterRegistry.counter("gateway.resilience.fallback",
+                "name", "order-service", "reason", "bulkhead_full", "fallback", "NONE").count() > 0);
+    }
+
+    @Test
+    void openCircuit_ShouldServeLastGoodResponse() {
+        GatewayFilter filter = factory.apply(c -> {
+            c.setName("restaurant-service");
+            c.setSlidingWindowSize(2);
+            c.setMinimumNumberOfCalls(2);
+            c.setWaitDurationInOpenState(Duration.ofSeconds(30));
+            c.setFallback(Fallback.CACHED);
+        });
+
+        filter.filter(restaurantExchange(), respond(HttpStatus.OK, "{\"id\":7}")).block();
+        filter.filter(restaurantExchange(), respond(HttpStatus.INTERNAL_SERVER_ERROR, "")).block();
+        filter.filter(restaurantExchange(), respond(HttpStatus.INTERNAL_SERVER_ERROR, "")).block();
+
+        MockServerWebExchange exchange = restaurantExchange();
+        filter.filter(exchange, respond(HttpStatus.OK, "{\"id\":8}")).block();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals("STALE", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("{\"id\":7}", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "restaurant-service").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void timeout_ShouldFallBackToEmptyList() {
+        GatewayFilter filter = factory.apply(c -> {
+            c.setName("restaurant-service");
+            c.setTimeout(Duration.ofMillis(50));
+            c.setFallback(Fallback.EMPTY_LIST);
+        });
+        MockServerWebExchange exchange = restaurantExchange();
+
+        filter.filter(exchange, e -> Mono.delay(Duration.ofSeconds(1)).then()).block(Duration.ofSeconds(2));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("EMPTY_LIST", exchange.getResponse().getHeaders().getFirst("X-Fallback"));
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("\"data\":[]"));
+    }
+
+    /**
+     * Stalls order-service with 60 concurrent calls through the real Netty routing filters, then returns the slowest
+     * of 20 concurrent restaurant calls in milliseconds. Reactor Netty pools connections per remote address, so both
+     * stub services sit behind one local server, as they would behind a shared ingress, and share a fixed pool.
+     */
+    private long restaurantLatencyDuringOrderStall(GatewayFilter orderFilter, int stalledOrders) {
+        AtomicInteger orderCalls = new AtomicInteger();
+        DisposableServer upstream = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/order/{id}", (request, response) -> {
+                            orderCalls.incrementAndGet();
+                            return Mono.delay(ORDER_STALL).then(Mono.defer(() -> response.sendString(Mono.just("{}")).then()));
+                        })
+                        .get("/api/restaurant/{id}", (request, response) -> response.sendString(Mono.just("{\"id\":7}"))))
+                .bindNow();
+        ConnectionProvider pool = ConnectionProvider.builder("gateway")
+                .maxConnections(POOL_SIZE)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofSeconds(30))
+                .build();
+        NettyRoutingFilter routing = new NettyRoutingFilter(HttpClient.create(pool), noHeaderFilters(), new HttpClientProperties());
+        NettyWriteResponseFilter writing = new NettyWriteResponseFilter(List.of());
+        GatewayFilterChain routed = chain(List.<GatewayFilter>of(writing::filter, routing::filter));
+
+        Disposable stalled = Flux.range(0, 60)
+                .flatMap(i -> orderFilter.filter(routedExchange(upstream, "/api/order/1"), routed))
+                .subscribe();
+        try {
+            awaitCalls(orderCalls, stalledOrders);
+            List<Long> latencies = Flux.range(0, 20)
+                    .flatMap(i -> Mono.defer(() -> {
+                        long start = System.nanoTime();
+                        return routed.filter(routedExchange(upstream, "/api/restaurant/7"))
+                                .then(Mono.fromCallable(() -> Duration.ofNanos(System.nanoTime() - start).toMillis()));
+                    }))
+                    .collectList()
+                    .block(Duration.ofSeconds(30));
+            return Collections.max(latencies);
+        } finally {
+            stalled.dispose();
+            pool.disposeLater().block(Duration.ofSeconds(5));
+            upstream.disposeNow();
+        }
+    }
+
+    private GatewayFilterChain respond(HttpStatus status, String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Mono.just(
+                    exchange.getResponse().bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static MockServerWebExchange restaurantExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant/7"));
+    }
+
+    private static MockServerWebExchange routedExchange(DisposableServer upstream, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        URI uri = URI.create("http://localhost:" + upstream.port() + path);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("upstream").uri(uri).predicate(e -> true).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, uri);
+        return exchange;
+    }
+
+    private static GatewayFilterChain chain(List<GatewayFilter> filters) {
+        return exchange -> filters.isEmpty()
+                ? Mono.empty()
+                : filters.get(0).filter(exchange, chain(filters.subList(1, filters.size())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<List<HttpHeadersFilter>> noHeaderFilters() {
+        ObjectProvider<List<HttpHeadersFilter>> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(List.of());
+        return provider;
+    }
+
+    private static void awaitCalls(AtomicInteger calls, int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (calls.get() < expected) {
+            assertTrue(System.nanoTime() < deadline, "only " + calls.get() + " order calls reached the stub");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.apiservice.filters.ResilienceGatewayFilterFactory.Fallback;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String MENU_ETAG = "\"m7-1\"";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private ResponseCacheGatewayFilterFactory factory;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        factory = new ResponseCacheGatewayFilterFactory(new SimpleMeterRegistry());
+        filter = factory.apply(c -> {
+            c.setName("restaurant-menu");
+            c.setTtl(Duration.ofMinutes(1));
+            c.setMaxSize(100);
+        });
+    }
+
+    @Test
+    void concurrentMisses_ShouldBeCoalescedIntoOneUpstreamCall() {
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 20)
+                .mapToObj(i -> menuExchange(7L))
+                .toList();
+
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, slowUpstream()))
+                .blockLast(Duration.ofSeconds(5));
+
+        assertEquals(1, upstreamCalls.get());
+        exchanges.forEach(exchange ->
+                assertEquals("{\"menu\":7}", exchange.getResponse().getBodyAsString().block()));
+    }
+
+    @Test
+    void cachedResponse_ShouldBeServedUntilRestaurantChanges() {
+        filter.filter(menuExchange(7L), slowUpstream()).block();
+        filter.filter(menuExchange(7L), slowUpstream()).block();
+        assertEquals(1, upstreamCalls.get());
+
+        factory.invalidateRestaurant(8L);
+        filter.filter(menuExchange(7L), slowUpstream()).block();
+        assertEquals(1, upstreamCalls.get());
+
+        factory.invalidateRestaurant(7L);
+        filter.filter(menuExchange(7L), slowUpstream()).block();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void cachedResponse_ShouldKeepETagAndAnswerMatchingIfNoneMatchWith304() {
+        filter.filter(menuExchange(7L), slowUpstream()).block();
+
+        MockServerWebExchange hit = menuExchange(7L);
+        filter.filter(hit, slowUpstream()).block();
+        assertEquals(MENU_ETAG, hit.getResponse().getHeaders().getETag());
+
+        MockServerWebExchange conditional = exchange(MockServerHttpRequest.get("/api/restaurant/7/menu")
+                .ifNoneMatch(MENU_ETAG), 7L);
+        filter.filter(conditional, slowUpstream()).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(MENU_ETAG, conditional.getResponse().getHeaders().getETag());
+        assertEquals("", conditional.getResponse().getBodyAsString().defaultIfEmpty("").block());
+
+        MockServerWebExchange stale = exchange(MockServerHttpRequest.get("/api/restaurant/7/menu")
+                .ifNoneMatch("\"m7-0\""), 7L);
+        filter.filter(stale, slowUpstream()).block();
+
+        assertEquals(HttpStatus.OK, stale.getResponse().getStatusCode());
+        assertEquals("{\"menu\":7}", stale.getResponse().getBodyAsString().block());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void errorResponses_ShouldNotBeCached() {
+        GatewayFilterChain failingUpstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return exchange.getResponse().setComplete();
+        };
+
+        filter.filter(menuExchange(7L), failingUpstream).block();
+        filter.filter(menuExchange(7L), failingUpstream).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void emptyListFallback_ShouldNotBeCached() {
+        GatewayFilter resilience = new ResilienceGatewayFilterFactory(new SimpleMeterRegistry()).apply(c -> {
+            c.setName("restaurant-service");
+            c.setTimeout(Duration.ofMillis(50));
+            c.setFallback(Fallback.EMPTY_LIST);
+        });
+        GatewayFilterChain stalledUpstream = exchange -> Mono.delay(Duration.ofSeconds(1)).then();
+
+        MockServerWebExchange timedOut = menuExchange(7L);
+        filter.filter(timedOut, exchange -> resilience.filter(exchange, stalledUpstream)).block(Duration.ofSeconds(2));
+        assertEquals("EMPTY_LIST", timedOut.getResponse().getHeaders().getFirst("X-Fallback"));
+
+        MockServerWebExchange recovered = menuExchange(7L);
+        filter.filter(recovered, exchange -> resilience.filter(exchange, slowUpstream())).block(Duration.ofSeconds(2));
+
+        assertNull(recovered.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("{\"menu\":7}", recovered.getResponse().getBodyAsString().block());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void staleFallback_ShouldNotBeServedAsHit() {
+        GatewayFilter resilience = new ResilienceGatewayFilterFactory(new SimpleMeterRegistry()).apply(c -> {
+            c.setName("restaurant-service");
+            c.setSlidingWindowSize(2);
+            c.setMinimumNumberOfCalls(2);
+            c.setWaitDurationInOpenState(Duration.ofSeconds(30));
+            c.setFallback(Fallback.CACHED);
+        });
+        GatewayFilterChain failingUpstream = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return exchange.getResponse().setComplete();
+        };
+
+        filter.filter(menuExchange(7L), exchange -> resilience.filter(exchange, slowUpstream())).block();
+        // The owner edits the menu: the invalidation event empties the gateway cache, then the service fails
+        factory.invalidateRestaurant(7L);
+        filter.filter(menuExchange(7L), exchange -> resilience.filter(exchange, failingUpstream)).block();
+        filter.filter(menuExchange(7L), exchange -> resilience.filter(exchange, failingUpstream)).block();
+
+        MockServerWebExchange stale = menuExchange(7L);
+        filter.filter(stale, exchange -> resilience.filter(exchange, failingUpstream)).block();
+        MockServerWebExchange next = menuExchange(7L);
+        filter.filter(next, exchange -> resilience.filter(exchange, failingUpstream)).block();
+
+        assertEquals("STALE", stale.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals("STALE", next.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    private GatewayFilterChain slowUpstream() {
+        return exchange -> Mono.delay(Duration.ofMillis(100)).then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            exchange.getResponse().getHeaders().setETag(MENU_ETAG);
+            byte[] body = "{\"menu\":7}".getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        }));
+    }
+
+    private static MockServerWebExchange menuExchange(Long restaurantId) {
+        return exchange(MockServerHttpRequest.get("/api/restaurant/" + restaurantId + "/menu"), restaurantId);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, Long restaurantId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("id", restaurantId.toString()));
+        return exchange;
+    }
+}
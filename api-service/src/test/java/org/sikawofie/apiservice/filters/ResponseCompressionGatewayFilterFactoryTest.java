@@ -0,0 +1,122 @@
+package org.sikawofie.apiservice.filters;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCompressionGatewayFilterFactoryTest {
+
+    private final GatewayFilter filter = new ResponseCompressionGatewayFilterFactory()
+            .apply(new ResponseCompressionGatewayFilterFactory.Config());
+
+    @Test
+    void largeJson_ShouldBeGzippedChunkByChunk() throws IOException {
+        String body = restaurants(2_000);
+        MockServerWebExchange exchange = exchange("gzip, deflate, br");
+
+        filter.filter(exchange, upstream(body, MediaType.APPLICATION_JSON, 8 * 1024)).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(-1, headers.getContentLength());
+        byte[] compressed = bodyBytes(exchange);
+        assertTrue(compressed.length < body.length() / 5, "compressed to " + compressed.length + " bytes");
+        assertEquals(body, gunzip(compressed));
+    }
+
+    @Test
+    void smallResponses_ShouldPassThrough() {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, upstream("{\"id\":1}", MediaType.APPLICATION_JSON, 8 * 1024)).block();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"id\":1}", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void clientsThatRefuseGzip_ShouldGetIdentity() {
+        String body = restaurants(100);
+        MockServerWebExchange exchange = exchange("gzip;q=0, identity");
+
+        filter.filter(exchange, upstream(body, MediaType.APPLICATION_JSON, 8 * 1024)).block();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body, exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void contentTypesOutsideAllowList_ShouldPassThrough() {
+        String body = restaurants(100);
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, upstream(body, MediaType.IMAGE_PNG, 8 * 1024)).block();
+
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private static GatewayFilterChain upstream(String body, MediaType contentType, int chunkSize) {
+        return exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponse().getHeaders().setContentType(contentType);
+            if (bytes.length < chunkSize) {
+                exchange.getResponse().getHeaders().setContentLength(bytes.length);
+            }
+            Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                    .map(i -> exchange.getResponse().bufferFactory()
+                            .wrap(Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize))));
+            return exchange.getResponse().writeWith(chunks);
+        };
+    }
+
+    static String restaurants(int count) {
+        StringBuilder json = new StringBuilder("{\"status\":200,\"message\":\"Restaurants retrieved\",\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Restaurant ").append(i)
+                    .append("\",\"address\":\"").append(i).append(" Independence Avenue, Accra\"")
+                    .append(",\"status\":\"ACTIVE\",\"menuItems\":[")
+                    .append("{\"id\":").append(i * 2).append(",\"name\":\"Jollof Rice\",\"price\":45.00},")
+                    .append("{\"id\":").append(i * 2 + 1).append(",\"name\":\"Waakye\",\"price\":30.00}]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/restaurant")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .build());
+    }
+
+    private static byte[] bodyBytes(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.sikawofie.apiservice.filters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestaurantPageGatewayFilterFactoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> forwardedUserIds = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void slowLeg_ShouldTimeOutAndPageShouldBePartial() throws Exception {
+        GatewayFilter filter = filter(Map.of(
+                "/api/restaurant/7", ok("{\"status\":200,\"data\":{\"id\":7,\"name\":\"Sika\"}}"),
+                "/api/restaurant/7/menu", ok("{\"status\":200,\"data\":[{\"name\":\"Jollof\"}]}"),
+                "/api/order/restaurant/7", ok("{\"status\":200,\"data\":[]}").delayElement(Duration.ofSeconds(5))));
+        MockServerWebExchange exchange = pageExchange(7L);
+
+        long start = System.nanoTime();
+        filter.filter(exchange, notRouted()).block(Duration.ofSeconds(5));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        JsonNode page = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals("Sika", page.path("restaurant").path("name").asText());
+        assertEquals("Jollof", page.path("menu").get(0).path("name").asText());
+        assertTrue(page.get("orders").isNull());
+        assertTrue(page.path("errors").path("orders").asText().startsWith("Timed out"));
+        assertTrue(elapsedMillis < 1_000, "legs must run in parallel, took " + elapsedMillis + "ms");
+        assertEquals(Set.of("42"), forwardedUserIds);
+    }
+
+    @Test
+    void missingRestaurant_ShouldFailThePage() {
+        GatewayFilter filter = filter(Map.of(
+                "/api/restaurant/7", Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()),
+                "/api/restaurant/7/menu", ok("{\"status\":200,\"data\":[]}"),
+                "/api/order/restaurant/7", ok("{\"status\":200,\"data\":[]}")));
+        MockServerWebExchange exchange = pageExchange(7L);
+
+        filter.filter(exchange, notRouted()).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void emptyLegBody_ShouldStillServeTheOtherLegs() throws Exception {
+        GatewayFilter filter = filter(Map.of(
+                "/api/restaurant/7", ok("{\"status\":200,\"data\":{\"id\":7,\"name\":\"Sika\"}}"),
+                "/api/restaurant/7/menu", Mono.just(ClientResponse.create(HttpStatus.NO_CONTENT).build()),
+                "/api/order/restaurant/7", ok("{\"status\":200,\"data\":[]}")));
+        MockServerWebExchange exchange = pageExchange(7L);
+
+        filter.filter(exchange, notRouted()).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        JsonNode page = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals("Sika", page.path("restaurant").path("name").asText());
+        assertTrue(page.get("menu").isNull());
+        assertTrue(page.get("orders").isArray());
+        assertFalse(page.has("errors"));
+    }
+
+    private GatewayFilter filter(Map<String, Mono<ClientResponse>> upstream) {
+        WebClient.Builder stubServices = WebClient.builder().exchangeFunction(request -> {
+            forwardedUserIds.add(request.headers().getFirst("X-User-Id"));
+            return upstream.get(request.url().getPath());
+        });
+        RestaurantPageGatewayFilterFactory factory = new RestaurantPageGatewayFilterFactory(
+                stubServices, (request, next) -> next.exchange(request), objectMapper);
+
+        RestaurantPageGatewayFilterFactory.Config config = new RestaurantPageGatewayFilterFactory.Config();
+        config.setOrdersTimeout(Duration.ofMillis(200));
+        return factory.apply(config);
+    }
+
+    private static Mono<ClientResponse> ok(String body) {
+        return Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .body(body)
+                .build());
+    }
+
+    private static MockServerWebExchange pageExchange(Long restaurantId) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/composite/restaurant/" + restaurantId)
+                        .header("X-User-Id", "42")
+                        .header("X-User-Role", "ROLE_CUSTOMER")
+                        .build());
+        ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("id", restaurantId.toString()));
+        return exchange;
+    }
+
+    private static GatewayFilterChain notRouted() {
+        return exchange -> Mono.error(new AssertionError("the page must be served by the filter"));
+    }
+}
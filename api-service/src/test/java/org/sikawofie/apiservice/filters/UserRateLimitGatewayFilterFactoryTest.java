@@ -0,0 +1,69 @@
+package org.sikawofie.apiservice.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.apiservice.ratelimit.TokenBucketStore;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRateLimitGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final GatewayFilter filter = new UserRateLimitGatewayFilterFactory(
+            new TokenBucketStore(Duration.ofMinutes(5), meterRegistry), meterRegistry)
+            .apply(c -> {
+                c.setName("order-place");
+                c.setReplenishRate(1);
+                c.setBurstCapacity(2);
+            });
+
+    @Test
+    void requestsOverTheLimit_ShouldBeRejectedWith429AndRetryAfter() {
+        filter.filter(orderExchange("7"), upstream()).block();
+        filter.filter(orderExchange("7"), upstream()).block();
+        MockServerWebExchange rejected = orderExchange("7");
+        filter.filter(rejected, upstream()).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimit.rejected", "route", "order-place").count());
+    }
+
+    @Test
+    void otherUsers_ShouldNotBeAffected() {
+        filter.filter(orderExchange("7"), upstream()).block();
+        filter.filter(orderExchange("7"), upstream()).block();
+        filter.filter(orderExchange("7"), upstream()).block();
+
+        MockServerWebExchange other = orderExchange("8");
+        filter.filter(other, upstream()).block();
+
+        assertEquals(3, upstreamCalls.get());
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, other.getResponse().getStatusCode());
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange orderExchange(String userId) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/order")
+                .header("X-User-Id", userId)
+                .build());
+    }
+}
@@ -0,0 +1,47 @@
+package org.sikawofie.apiservice.hedging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HedgerTest {
+
+    @Test
+    void budget_ShouldCapHedgesAtConfiguredPercentage() {
+        HedgeBudget budget = new HedgeBudget(10, 1);
+
+        assertTrue(budget.tryAcquire());
+        assertFalse(budget.tryAcquire());
+
+        for (int i = 0; i < 9; i++) {
+            budget.onRequest();
+        }
+        assertFalse(budget.tryAcquire());
+
+        budget.onRequest();
+        assertTrue(budget.tryAcquire());
+    }
+
+    @Test
+    void delay_ShouldTrackPercentileOnceEnoughSamplesExist() {
+        AtomicLong clock = new AtomicLong();
+        Hedger hedger = new Hedger("restaurant-menu", 0.95, Duration.ofMillis(10), Duration.ofMillis(100),
+                5, 10, new SimpleMeterRegistry(), clock::get);
+
+        assertEquals(Duration.ofMillis(100), hedger.delay());
+
+        for (int i = 1; i <= 1000; i++) {
+            hedger.recordLatency(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(Duration.ofMillis(100), hedger.delay(), "delay is refreshed at most once a second");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        long delayMillis = hedger.delay().toMillis();
+        assertTrue(delayMillis >= 900 && delayMillis <= 1000, "p95 delay was " + delayMillis + "ms");
+    }
+}
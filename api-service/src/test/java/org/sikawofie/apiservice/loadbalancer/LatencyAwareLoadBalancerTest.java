@@ -0,0 +1,112 @@
+package org.sikawofie.apiservice.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE_ID = "restaurant-service";
+    private static final int REQUESTS = 2_000;
+    private static final long INTERVAL_MILLIS = 5;
+
+    // Two healthy stubs and one stuck in a long GC pause.
+    private static final Map<String, Long> INJECTED_LATENCY_MILLIS = Map.of(
+            "restaurant-1", 10L,
+            "restaurant-2", 12L,
+            "restaurant-paused", 400L);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> instances = ServiceInstanceListSuppliers.toProvider(
+            SERVICE_ID,
+            stub("restaurant-1", 8081),
+            stub("restaurant-2", 8082),
+            stub("restaurant-paused", 8083));
+
+    @Test
+    void latencyAwareShouldBeatRoundRobinAtP99() {
+        AtomicLong clock = new AtomicLong(1);
+        InstanceLoadTracker tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+
+        long roundRobinP99 = p99(new RoundRobinLoadBalancer(instances, SERVICE_ID), null, clock);
+        long latencyAwareP99 = p99(new LatencyAwareLoadBalancer(instances, SERVICE_ID, tracker), tracker, clock);
+
+        assertEquals(400, roundRobinP99);
+        assertTrue(latencyAwareP99 < roundRobinP99,
+                "p99 " + latencyAwareP99 + "ms should be below round-robin " + roundRobinP99 + "ms");
+    }
+
+    @Test
+    void shouldPreferInstanceWithFewerRequestsInFlight() {
+        AtomicLong clock = new AtomicLong(1);
+        InstanceLoadTracker tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+        ServiceInstance busy = stub("restaurant-1", 8081);
+        ServiceInstance idle = stub("restaurant-2", 8082);
+        tracker.onRequestStart(busy);
+        tracker.onRequestComplete(busy, TimeUnit.MILLISECONDS.toNanos(10), true);
+        tracker.onRequestStart(idle);
+        tracker.onRequestComplete(idle, TimeUnit.MILLISECONDS.toNanos(10), true);
+        for (int i = 0; i < 5; i++) {
+            tracker.onRequestStart(busy);
+        }
+
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+                ServiceInstanceListSuppliers.toProvider(SERVICE_ID, busy, idle), SERVICE_ID, tracker);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(idle.getInstanceId(), loadBalancer.choose().block().getServer().getInstanceId());
+        }
+    }
+
+    @Test
+    void failuresShouldCostAtLeastTheFailurePenalty() {
+        AtomicLong clock = new AtomicLong(1);
+        InstanceLoadTracker tracker = new InstanceLoadTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+        ServiceInstance refusing = stub("restaurant-1", 8081);
+
+        tracker.onRequestStart(refusing);
+        tracker.onRequestComplete(refusing, TimeUnit.MILLISECONDS.toNanos(1), false);
+
+        assertEquals(1000, tracker.averageLatencyMillis(refusing), 0.001);
+        assertEquals(0, tracker.inFlight(refusing));
+    }
+
+    /**
+     * Replays a steady request stream against the stubs on a virtual clock and returns the p99 latency.
+     * Completed requests are reported to {@code tracker} when one is given.
+     */
+    private long p99(ReactorServiceInstanceLoadBalancer loadBalancer, InstanceLoadTracker tracker, AtomicLong clock) {
+        List<Long> latencies = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            ServiceInstance instance = loadBalancer.choose().block().getServer();
+            long latency = INJECTED_LATENCY_MILLIS.get(instance.getInstanceId());
+            if (tracker != null) {
+                tracker.onRequestStart(instance);
+                tracker.onRequestComplete(instance, TimeUnit.MILLISECONDS.toNanos(latency), true);
+            }
+            latencies.add(latency);
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(INTERVAL_MILLIS));
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) Math.ceil(REQUESTS * 0.99) - 1);
+    }
+
+    private static ServiceInstance stub(String instanceId, int port) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, "localhost", port, false);
+    }
+}
@@ -0,0 +1,41 @@
+package org.sikawofie.apiservice.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayLatencyEndpointTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayLatencyMetrics metrics = new GatewayLatencyMetrics(meterRegistry);
+    private final GatewayLatencyEndpoint endpoint = new GatewayLatencyEndpoint(meterRegistry);
+
+    @Test
+    void slowest_ShouldRankRoutesAndInstancesByP99() {
+        for (int i = 0; i < 100; i++) {
+            metrics.recordRoute("restaurant-menu", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(5));
+            metrics.recordRoute("order-place", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(i < 95 ? 20 : 900));
+            metrics.recordRoute("restaurant-active", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(40));
+            metrics.recordUpstream("order-service", "order-service/10.0.0.1:8083", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(15));
+            metrics.recordUpstream("order-service", "order-service/10.0.0.2:8083", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(i < 90 ? 15 : 700));
+        }
+
+        Map<String, List<LatencySummary>> slowest = endpoint.slowest(2);
+
+        List<LatencySummary> routes = slowest.get("routes");
+        assertEquals(2, routes.size());
+        assertEquals("order-place", routes.get(0).tags().get("route"));
+        assertEquals("restaurant-active", routes.get(1).tags().get("route"));
+        assertEquals(100, routes.get(0).count());
+
+        List<LatencySummary> instances = slowest.get("instances");
+        assertEquals("order-service/10.0.0.2:8083", instances.get(0).tags().get("instance"));
+        assertTrue(instances.get(0).p99Ms() > instances.get(1).p99Ms());
+        assertTrue(slowest.get("jwtVerification").isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package org.sikawofie.apiservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final TokenBucketStore store = new TokenBucketStore(Duration.ofMinutes(5), 4, clock::get);
+
+    @Test
+    void burst_ShouldBeAllowedThenRejectedUntilRefill() {
+        RateLimit limit = new RateLimit(2, 3);
+
+        assertEquals(0, store.tryAcquire("order-place:1", limit));
+        assertEquals(0, store.tryAcquire("order-place:1", limit));
+        assertEquals(0, store.tryAcquire("order-place:1", limit));
+
+        long wait = store.tryAcquire("order-place:1", limit);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), wait);
+        assertEquals(0, store.tryAcquire("order-place:2", limit), "users have separate buckets");
+
+        clock.addAndGet(wait);
+        assertEquals(0, store.tryAcquire("order-place:1", limit));
+        assertTrue(store.tryAcquire("order-place:1", limit) > 0);
+    }
+
+    @Test
+    void concurrentCallers_ShouldNeverExceedBurst() throws InterruptedException {
+        RateLimit limit = new RateLimit(1, 50);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (store.tryAcquire("order-place:42", limit) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(50, granted.get());
+    }
+
+    @Test
+    void idleFullBuckets_ShouldBeEvicted() {
+        RateLimit limit = new RateLimit(10, 10);
+        for (int user = 0; user < 1_000; user++) {
+            store.tryAcquire("restaurant-service:" + user, limit);
+        }
+        assertEquals(1_000, store.size());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        for (int user = 0; user < 1_000; user++) {
+            store.tryAcquire("restaurant-service:active-" + user, limit);
+        }
+
+        assertEquals(1_000, store.size());
+    }
+}
@@ -0,0 +1,101 @@
+package org.sikawofie.apiservice.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.securitycommon.BloomFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationCheckerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenDenylist denylist = new TokenDenylist();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private BloomFilter snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = BloomFilter.create(1_000, 0.01);
+        snapshot.put("revoked-before-snapshot");
+    }
+
+    @Test
+    void tokenOutsideFilter_ShouldPassWithoutLookup() {
+        denylist.applySnapshot(1, snapshot.toBytes());
+        RevocationChecker checker = checker("{\"revoked\": true}", HttpStatus.OK);
+
+        assertFalse(checker.mightBeRevoked("never-revoked"));
+        assertFalse(checker.mightBeRevoked(null));
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void probableHit_ShouldBeConfirmedOnceAndCached() {
+        denylist.applySnapshot(1, snapshot.toBytes());
+        RevocationChecker checker = checker("{\"revoked\": false}", HttpStatus.OK);
+
+        assertTrue(checker.mightBeRevoked("revoked-before-snapshot"));
+        assertFalse(checker.confirm("revoked-before-snapshot").block());
+        assertFalse(checker.confirm("revoked-before-snapshot").block());
+
+        assertEquals(1, lookups.get());
+        assertEquals(1.0, meterRegistry.get(RevocationChecker.CHECKS).tag("result", "false-positive").counter().count());
+    }
+
+    @Test
+    void failedLookup_ShouldTreatTokenAsRevoked() {
+        denylist.applySnapshot(1, snapshot.toBytes());
+        RevocationChecker checker = checker("", HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertTrue(checker.confirm("revoked-before-snapshot").block());
+        assertEquals(1.0, meterRegistry.get(RevocationChecker.CHECKS).tag("result", "lookup-failed").counter().count());
+    }
+
+    @Test
+    void deltaBeforeOlderSnapshot_ShouldSurviveTheSwap() {
+        RevocationChecker checker = checker("{\"revoked\": false}", HttpStatus.OK);
+        denylist.applyDelta("revoked-late", System.currentTimeMillis() / 1000 + 60);
+
+        denylist.applySnapshot(5, snapshot.toBytes());
+        denylist.applySnapshot(3, BloomFilter.create(1_000, 0.01).toBytes());
+
+        assertEquals(5, denylist.snapshotSequence());
+        assertTrue(checker.mightBeRevoked("revoked-late"));
+        assertTrue(checker.mightBeRevoked("revoked-before-snapshot"));
+        assertTrue(checker.confirm("revoked-late").block());
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void expiredDelta_ShouldBeDroppedOnNextSnapshot() {
+        denylist.applyDelta("expired", System.currentTimeMillis() / 1000 - 1);
+
+        denylist.applySnapshot(1, snapshot.toBytes());
+
+        assertFalse(denylist.isKnownRevoked("expired"));
+    }
+
+    private RevocationChecker checker(String body, HttpStatus status) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    lookups.incrementAndGet();
+                    return Mono.just(ClientResponse.create(status)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                })
+                .build();
+        return new RevocationChecker(denylist, webClient, Duration.ofSeconds(1), Duration.ofMinutes(1), meterRegistry);
+    }
+}
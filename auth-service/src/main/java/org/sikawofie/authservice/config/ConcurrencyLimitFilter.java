@@ -0,0 +1,71 @@
+package org.sikawofie.authservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the requests in flight. With a virtual thread per request nothing else bounds them, and every one past
+ * the JDBC pool's size would otherwise wait inside Hikari until its connection timeout. A request waits at most
+ * {@code maxQueueWait} for a slot and is then turned away with a 503. Actuator endpoints are not counted.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public static final String IN_FLIGHT = "auth.requests.in.flight";
+    public static final String REJECTED = "auth.requests.rejected";
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long maxQueueWaitNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxConcurrentRequests, Duration maxQueueWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+        this.rejected = Counter.builder(REJECTED).register(meterRegistry);
+        Gauge.builder(IN_FLIGHT, permits, semaphore -> maxConcurrentRequests - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "More than " + maxConcurrentRequests + " requests in flight");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -5,54 +5,76 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotNull;
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.JwtVerifier;
+import org.sikawofie.securitycommon.Roles;
+import org.sikawofie.securitycommon.UserIdentity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import reactor.util.annotation.NonNull;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 
 public class HeaderBasedAuthFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(HeaderBasedAuthFilter.class);
 
-    @Override
-    protected void doFilterInternal(@NotNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
-            throws ServletException, IOException {
-
-        String userId = request.getHeader("X-User-Id");
-        String userEmail = request.getHeader("X-User-Email");
-        String userRoleHeader = request.getHeader("X-User-Role");
+    private static final String BEARER_PREFIX = "Bearer ";
+    // The only endpoint a service identity may call; everywhere else it stays unauthenticated
+    private static final String SERVICE_PATH = "/auth/users/batch";
 
-        if (userId != null && !userId.isEmpty() && userEmail != null && !userEmail.isEmpty()) {
-            try {
-                Long parsedUserId = Long.parseLong(userId);
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final JwtVerifier jwtVerifier;
 
-                List<SimpleGrantedAuthority> authorities = Collections.emptyList();
-                if (userRoleHeader != null && !userRoleHeader.isEmpty()) {
-                    authorities = Collections.singletonList(new SimpleGrantedAuthority(userRoleHeader));
-                }
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(parsedUserId, null, authorities);
+    public HeaderBasedAuthFilter(IdentityHeaderCodec identityHeaderCodec, JwtVerifier jwtVerifier) {
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.jwtVerifier = jwtVerifier;
+    }
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
 
-                logger.info("Authenticated user [id={}, email={}] with role [{}]", parsedUserId, userEmail, userRoleHeader != null ? userRoleHeader : "N/A");
+        // The gateway's signed identity comes first; a bearer token only counts for calls that bypass the gateway
+        String identityHeader = request.getHeader(IdentityHeaderCodec.HEADER);
+        if (identityHeader != null) {
+            UserIdentity identity = identityHeaderCodec.decode(identityHeader, System.currentTimeMillis() / 1000);
+            if (identity != null && Roles.isService(identity.roleMask()) && !isServicePath(request)) {
+                logger.warn("Ignoring service identity '{}' on {}", identity.username(), request.getRequestURI());
+            } else if (identity != null) {
+                authenticate(identity);
+                logger.debug("Authenticated user [id={}] from identity header", identity.userId());
+            } else {
+                logger.warn("Ignoring invalid or expired '{}' header", IdentityHeaderCodec.HEADER);
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid format for header 'X-User-Id': '{}'. Expected a numeric value.", userId);
-            } catch (Exception e) {
-                logger.error("Failed to authenticate user from headers. Reason: {}", e.getMessage(), e);
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            UserIdentity identity = jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length()), System.currentTimeMillis() / 1000);
+            if (identity != null) {
+                authenticate(identity);
+                logger.debug("Authenticated user [id={}] from access token", identity.userId());
+            } else {
+                // Logout and refresh may present an expired access token, so only protected paths turn this into a 401
+                logger.debug("Ignoring invalid or expired access token");
             }
-        } else {
-            logger.debug("Missing or empty authentication headers. Skipping security context setup for this request.");
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isServicePath(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && SERVICE_PATH.equals(request.getServletPath());
+    }
+
+    private static void authenticate(UserIdentity identity) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(identity.userId(), null, identity.authorities()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package org.sikawofie.authservice.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.sikawofie.authservice.event.TokenRevocationEvent;
+import org.sikawofie.authservice.event.UserChangedEvent;
+import org.sikawofie.authservice.service.impl.TokenRevocationServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Bean
+    public ProducerFactory<String, UserChangedEvent> userChangedProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(
+                Map.of(
+                        ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                        ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                        ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                        JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+                        ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000
+                )
+        );
+    }
+
+    @Bean
+    public KafkaTemplate<String, UserChangedEvent> userChangedKafkaTemplate() {
+        return new KafkaTemplate<>(userChangedProducerFactory());
+    }
+
+    /**
+     * Denylist snapshots are one message holding the whole filter, so this producer allows records as large as the
+     * biggest snapshot {@code auth.revocation.max-revocations} can produce; the topic's {@code max.message.bytes}
+     * has to allow them too.
+     */
+    @Bean
+    public ProducerFactory<String, TokenRevocationEvent> tokenRevocationProducerFactory(
+            @Value("${auth.revocation.max-revocations:10000000}") long maxRevocations,
+            @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        int maxSnapshotBytes = TokenRevocationServiceImpl.maxSnapshotBytes(maxRevocations, falsePositiveRate);
+        return new DefaultKafkaProducerFactory<>(
+                Map.of(
+                        ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                        ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                        ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                        JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+                        ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000,
+                        ProducerConfig.MAX_REQUEST_SIZE_CONFIG, maxSnapshotBytes,
+                        ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"
+                )
+        );
+    }
+
+    @Bean
+    public KafkaTemplate<String, TokenRevocationEvent> tokenRevocationKafkaTemplate(
+            ProducerFactory<String, TokenRevocationEvent> tokenRevocationProducerFactory) {
+        return new KafkaTemplate<>(tokenRevocationProducerFactory);
+    }
+}
@@ -1,7 +1,14 @@
 package org.sikawofie.authservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sikawofie.authservice.security.BoundedPasswordEncoder;
+import org.sikawofie.authservice.security.SigningKeyRing;
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.JwtVerifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -12,8 +19,11 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import java.time.Duration;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -22,7 +32,7 @@ import static org.springframework.security.config.Customizer.withDefaults;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, HeaderBasedAuthFilter headerBasedAuthFilter) throws Exception {
         http.securityMatcher("/**")
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(withDefaults())
@@ -37,20 +47,42 @@ public class SecurityConfig {
                                 ).permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .anyRequest().authenticated())
-                .addFilterBefore(headerBasedAuthFilter(), BasicAuthenticationFilter.class);
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(headerBasedAuthFilter, BasicAuthenticationFilter.class);
 
         return http.build();
     }
 
 
     @Bean
-    public HeaderBasedAuthFilter headerBasedAuthFilter() {
-        return new HeaderBasedAuthFilter();
+    public IdentityHeaderCodec identityHeaderCodec(
+            @Value("${identity.header.secret}") String secret) {
+        return IdentityHeaderCodec.fromSecret(secret);
+    }
+
+    /**
+     * Verifies access tokens against the key ring directly; auth-service needs no copy of its own JWK set.
+     */
+    @Bean
+    public JwtVerifier jwtVerifier(SigningKeyRing signingKeyRing) {
+        return new JwtVerifier(kid -> signingKeyRing.get().verificationKeys().get(kid));
+    }
+
+    @Bean
+    public HeaderBasedAuthFilter headerBasedAuthFilter(IdentityHeaderCodec identityHeaderCodec, JwtVerifier jwtVerifier) {
+        return new HeaderBasedAuthFilter(identityHeaderCodec, jwtVerifier);
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password-hashing.bcrypt-strength:10}") int strength,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:32}") int queueCapacity,
+            @Value("${auth.password-hashing.timeout:5s}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
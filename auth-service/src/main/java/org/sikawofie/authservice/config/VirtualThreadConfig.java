@@ -0,0 +1,33 @@
+package org.sikawofie.authservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled}, as set by the {@code virtual-threads} profile. Spring Boot
+ * then runs Tomcat requests, {@code @Scheduled} jobs and Kafka listeners on virtual threads. Password hashing
+ * stays on its bounded platform pool: BCrypt is CPU-bound, and callers now park cheaply while they wait for it.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${auth.virtual-threads.max-concurrent-requests:100}") int maxConcurrentRequests,
+            @Value("${auth.virtual-threads.max-queue-wait:1s}") Duration maxQueueWait,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(maxConcurrentRequests, maxQueueWait, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package org.sikawofie.authservice.consumer;
+
+import org.sikawofie.authservice.event.UserChangedEvent;
+import org.sikawofie.authservice.principal.UserPrincipalCache;
+import org.sikawofie.authservice.producer.UserEventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeListener.class);
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    public UserChangeListener(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @KafkaListener(topics = UserEventPublisher.USER_CHANGED_TOPIC, containerFactory = "kafkaListenerContainerFactory")
+    public void onUserChanged(UserChangedEvent event) {
+        logger.debug("Evicting cached principal for user {} after {}", event.getUserId(), event.getChangeType());
+        if (event.getUserId() != null) {
+            userPrincipalCache.evictUser(event.getUserId());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.sikawofie.authservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.dto.BulkRegisterRequest;
+import org.sikawofie.authservice.dto.BulkRegisterResult;
+import org.sikawofie.authservice.service.AuthService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auth/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final AuthService authService;
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+            summary = "Register users in bulk",
+            description = "Registers up to 1000 users with one role, e.g. when onboarding restaurant staff. "
+                    + "Users whose email or username is taken are skipped and reported."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"created\": 2, \"skipped\": {\"chef@example.com\": \"Email already registered\"}}")
+                    )
+            ),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin"),
+            @ApiResponse(responseCode = "409", description = "Users were registered concurrently with the import")
+    })
+    public ResponseEntity<BulkRegisterResult> registerAll(@RequestBody @Valid BulkRegisterRequest request) {
+        return ResponseEntity.ok(authService.registerAll(request.getUsers(), request.getRole()));
+    }
+}
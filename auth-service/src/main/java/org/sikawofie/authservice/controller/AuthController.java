@@ -6,17 +6,22 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.dto.AuthTokens;
 import org.sikawofie.authservice.dto.LoginRequest;
+import org.sikawofie.authservice.dto.RefreshRequest;
 import org.sikawofie.authservice.dto.RegisterRequest;
 import org.sikawofie.authservice.entity.User;
 import org.sikawofie.authservice.service.AuthService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -100,7 +105,7 @@ public class AuthController {
                     description = "Authentication successful",
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                            schema = @Schema(example = "{\"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\"}")
+                            schema = @Schema(example = "{\"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"q2Xc...\"}")
                     )
             ),
             @ApiResponse(
@@ -118,10 +123,83 @@ public class AuthController {
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(example = "{\"error\": \"Invalid email or password\"}")
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many failed attempts for this email or client; see Retry-After",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"error\": \"Too many failed login attempts\"}")
+                    )
             )
     })
-    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request) {
-        String token = authService.login(request);
-        return ResponseEntity.ok(Map.of("token", token));
+    public ResponseEntity<?> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest) {
+        return tokens(authService.login(request, clientAddress(httpRequest)));
+    }
+
+    @PostMapping("/refresh")
+    @Operation(
+            summary = "Refresh a session",
+            description = "Exchanges a refresh token for a new JWT and a new refresh token; the presented refresh token is consumed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Session refreshed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"token\": \"eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...\", \"refreshToken\": \"q2Xc...\"}")
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unknown, expired or already used refresh token",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"error\": \"Invalid refresh token\"}")
+                    )
+            )
+    })
+    public ResponseEntity<?> refresh(@RequestBody @Valid RefreshRequest request) {
+        return tokens(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(
+            summary = "End a session",
+            description = "Revokes the bearer access token for the rest of its lifetime and, if given, deletes the refresh token"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Session ended"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Malformed or forged access token",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "{\"error\": \"Invalid token\"}")
+                    )
+            )
+    })
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * The address the gateway saw the caller connect from: the last X-Forwarded-For entry, which it appends,
+     * rather than the first, which the client controls.
+     */
+    private static String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static ResponseEntity<?> tokens(AuthTokens tokens) {
+        return ResponseEntity.ok(Map.of("token", tokens.token(), "refreshToken", tokens.refreshToken()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package org.sikawofie.authservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.service.TokenRevocationService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/auth/revocations")
+@RequiredArgsConstructor
+public class TokenRevocationController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    @GetMapping("/{tokenId}")
+    @Operation(
+            summary = "Check a token id against the denylist",
+            description = "Exact lookup the gateway falls back to when its Bloom filter reports a probable revocation"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Lookup done",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(example = "{\"revoked\": true}")
+            )
+    )
+    public ResponseEntity<Map<String, Boolean>> isRevoked(@PathVariable String tokenId) {
+        return ResponseEntity.ok(Map.of("revoked", tokenRevocationService.isRevoked(tokenId)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.sikawofie.authservice.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.dto.UserBatchRequest;
+import org.sikawofie.authservice.dto.UserProfileResponse;
+import org.sikawofie.authservice.service.UserProfileService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/auth/users")
+@RequiredArgsConstructor
+public class UserDirectoryController {
+
+    private final UserProfileService userProfileService;
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SERVICE')")
+    @Operation(
+            summary = "Look up users in bulk",
+            description = "Returns id, username, email and role for up to " + UserBatchRequest.MAX_IDS
+                    + " user ids in one query, for services enriching events. Unknown ids are left out."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Profiles of the known users",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(example = "[{\"id\": 1, \"username\": \"alice\", \"email\": \"alice@example.com\", \"role\": \"ROLE_CUSTOMER\"}]")
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "No ids, or more than the limit"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin or a trusted service")
+    })
+    public ResponseEntity<List<UserProfileResponse>> findUsers(@RequestBody @Valid UserBatchRequest request) {
+        return ResponseEntity.ok(userProfileService.findProfiles(request.getIds()));
+    }
+}
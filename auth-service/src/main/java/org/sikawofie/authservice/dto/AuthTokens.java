@@ -0,0 +1,7 @@
+package org.sikawofie.authservice.dto;
+
+/**
+ * A short-lived access JWT and the refresh token that renews it.
+ */
+public record AuthTokens(String token, String refreshToken) {
+}
@@ -0,0 +1,19 @@
+package org.sikawofie.authservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.sikawofie.authservice.enums.Role;
+
+import java.util.List;
+
+@Data
+public class BulkRegisterRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid RegisterRequest> users;
+    @NotNull
+    private Role role = Role.ROLE_RESTAURANT_OWNER;
+}
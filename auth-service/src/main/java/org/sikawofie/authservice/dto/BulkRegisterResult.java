@@ -0,0 +1,9 @@
+package org.sikawofie.authservice.dto;
+
+import java.util.Map;
+
+/**
+ * Outcome of a bulk registration: how many users were created and, by email, why the others were skipped.
+ */
+public record BulkRegisterResult(int created, Map<String, String> skipped) {
+}
@@ -0,0 +1,11 @@
+package org.sikawofie.authservice.dto;
+
+import org.sikawofie.authservice.repository.UserProfile;
+
+public record UserProfileResponse(Long id, String username, String email, String role) {
+
+    public static UserProfileResponse from(UserProfile profile) {
+        return new UserProfileResponse(profile.getId(), profile.getUsername(), profile.getEmail(),
+                profile.getRole() != null ? profile.getRole().name() : null);
+    }
+}
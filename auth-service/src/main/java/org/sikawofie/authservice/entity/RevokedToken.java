@@ -0,0 +1,27 @@
+package org.sikawofie.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An access token revoked before its expiry, identified by its {@code jti}. The row is only needed until the
+ * token would have expired anyway. The generated id orders revocations for the gateway's denylist replicas.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+@Setter
+@Getter
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", unique = true, nullable = false, length = 36)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
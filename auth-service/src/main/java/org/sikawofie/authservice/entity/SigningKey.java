@@ -0,0 +1,39 @@
+package org.sikawofie.authservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One EC P-256 key pair in the token signing rotation. The public key is published in the JWK set from creation;
+ * tokens are signed with the newest key whose {@code activatesAt} has passed. The private key is stored
+ * encrypted, and the row is deleted once no token signed with it can still be valid.
+ */
+@Entity
+@Table(name = "signing_keys", indexes = @Index(name = "idx_signing_keys_expires_at", columnList = "expires_at"))
+@Setter
+@Getter
+public class SigningKey {
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    @Lob
+    @Column(name = "public_key", nullable = false)
+    private byte[] publicKey;
+
+    @Lob
+    @Column(name = "private_key", nullable = false)
+    private byte[] privateKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -4,17 +4,25 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import org.sikawofie.authservice.enums.Role;
+import org.sikawofie.authservice.principal.UserPrincipalInvalidator;
 
 @Entity
-@Table(name = "users")
+@EntityListeners(UserPrincipalInvalidator.class)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "username")
+})
 @Setter
 @Getter
 public class User {
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
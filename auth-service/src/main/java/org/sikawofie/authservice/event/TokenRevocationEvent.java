@@ -0,0 +1,23 @@
+package org.sikawofie.authservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Replicates the token denylist. A {@code SNAPSHOT} carries the serialized Bloom filter of every live revoked token
+ * up to {@code sequence}; a {@code DELTA} carries one newly revoked token. {@code sequence} is the revoked token's id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationEvent {
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+
+    private String type;
+    private Long sequence;
+    private String tokenId;
+    private Long expiresAtEpochSecond;
+    private byte[] filter;
+}
@@ -0,0 +1,13 @@
+package org.sikawofie.authservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangedEvent {
+    private Long userId;
+    private String changeType;
+}
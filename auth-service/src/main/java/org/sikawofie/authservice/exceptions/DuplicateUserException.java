@@ -0,0 +1,8 @@
+package org.sikawofie.authservice.exceptions;
+
+public class DuplicateUserException extends RuntimeException {
+
+    public DuplicateUserException(String message) {
+        super(message);
+    }
+}
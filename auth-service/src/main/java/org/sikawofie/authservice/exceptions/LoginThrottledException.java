@@ -0,0 +1,17 @@
+package org.sikawofie.authservice.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an email or client address has too many recent failed logins to try again yet.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package org.sikawofie.authservice.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the password hashing pool is saturated and a request cannot be served in time.
+ */
+@Getter
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
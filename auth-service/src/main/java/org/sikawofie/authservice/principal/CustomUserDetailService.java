@@ -1,7 +1,5 @@
 package org.sikawofie.authservice.principal;
 
-import org.sikawofie.authservice.entity.User;
-import org.sikawofie.authservice.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,18 +8,19 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomUserDetailService implements UserDetailsService {
 
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public CustomUserDetailService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailService(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        return new UserPrincipal(user);
+        UserPrincipal principal = userPrincipalCache.get(email);
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return principal;
     }
 
 }
@@ -1,10 +1,8 @@
 package org.sikawofie.authservice.principal;
 
 
-import lombok.AllArgsConstructor;
-import lombok.NoArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.enums.Role;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,29 +10,51 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.List;
 
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Immutable snapshot of a {@link User}, safe to share between threads and to keep in {@link UserPrincipalCache}.
+ */
 public class UserPrincipal implements UserDetails {
-    private User user;
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+        this.password = user.getPassword();
+        this.role = user.getRole();
+        this.authorities = role != null ? List.of(new SimpleGrantedAuthority(role.name())) : List.of();
+    }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(user.getRole().name()));
+        return authorities;
+    }
+
+    public Long getId() {
+        return id;
     }
 
     public String getEmail() {
-        return user.getEmail();
+        return email;
     }
 
+    public Role getRole() {
+        return role;
+    }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername();
+        return username;
     }
 
     @Override
@@ -0,0 +1,47 @@
+package org.sikawofie.authservice.principal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sikawofie.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, expiring cache of {@link UserPrincipal} snapshots keyed by email. Unknown emails are not cached.
+ * Entries are evicted by user id when the user changes, here or on another replica.
+ * Hit rate and load time are published as the {@code auth.user.principal} cache metrics.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> cache;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${auth.user-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.user.principal");
+    }
+
+    /**
+     * @return the user's principal, or {@code null} if no user has this email
+     */
+    public UserPrincipal get(String email) {
+        return cache.get(email, key -> userRepository.findByEmail(key).map(UserPrincipal::new).orElse(null));
+    }
+
+    public void evictUser(Long userId) {
+        cache.asMap().values().removeIf(principal -> principal.getId().equals(userId));
+    }
+}
@@ -0,0 +1,53 @@
+package org.sikawofie.authservice.principal;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.producer.UserEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA listener on {@link User}: once a change to a user (password, role, ...) commits, evicts the cached principal
+ * and tells the other replicas to do the same.
+ */
+@Component
+public class UserPrincipalInvalidator {
+
+    private final UserPrincipalCache userPrincipalCache;
+    private final UserEventPublisher userEventPublisher;
+
+    public UserPrincipalInvalidator(UserPrincipalCache userPrincipalCache, UserEventPublisher userEventPublisher) {
+        this.userPrincipalCache = userPrincipalCache;
+        this.userEventPublisher = userEventPublisher;
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        afterCommit(user.getId(), "UPDATED");
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        afterCommit(user.getId(), "DELETED");
+    }
+
+    private void afterCommit(Long userId, String changeType) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId, changeType);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId, changeType);
+            }
+        });
+    }
+
+    private void invalidate(Long userId, String changeType) {
+        userPrincipalCache.evictUser(userId);
+        userEventPublisher.publishChange(userId, changeType);
+    }
+}
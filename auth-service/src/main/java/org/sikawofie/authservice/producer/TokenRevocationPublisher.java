@@ -0,0 +1,39 @@
+package org.sikawofie.authservice.producer;
+
+import org.sikawofie.authservice.event.TokenRevocationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenRevocationPublisher {
+    public static final String TOKEN_REVOCATION_TOPIC = "token-revocation-topic";
+
+    // One key keeps snapshots and deltas on one partition, so replicas see them in publish order.
+    private static final String KEY = "denylist";
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationPublisher.class);
+
+    private final KafkaTemplate<String, TokenRevocationEvent> kafkaTemplate;
+
+    public TokenRevocationPublisher(KafkaTemplate<String, TokenRevocationEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void publishRevoked(long sequence, String tokenId, long expiresAtEpochSecond) {
+        send(new TokenRevocationEvent(TokenRevocationEvent.DELTA, sequence, tokenId, expiresAtEpochSecond, null));
+    }
+
+    public void publishSnapshot(long sequence, byte[] filter) {
+        send(new TokenRevocationEvent(TokenRevocationEvent.SNAPSHOT, sequence, null, null, filter));
+    }
+
+    private void send(TokenRevocationEvent event) {
+        try {
+            kafkaTemplate.send(TOKEN_REVOCATION_TOPIC, KEY, event);
+        } catch (Exception e) {
+            logger.warn("Failed to publish token revocation {} {}: {}", event.getType(), event.getSequence(), e.getMessage());
+        }
+    }
+}
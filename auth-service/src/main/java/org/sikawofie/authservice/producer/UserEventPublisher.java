@@ -0,0 +1,28 @@
+package org.sikawofie.authservice.producer;
+
+import org.sikawofie.authservice.event.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserEventPublisher {
+    public static final String USER_CHANGED_TOPIC = "user-changed-topic";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventPublisher.class);
+
+    private final KafkaTemplate<String, UserChangedEvent> kafkaTemplate;
+
+    public UserEventPublisher(KafkaTemplate<String, UserChangedEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void publishChange(Long userId, String changeType) {
+        try {
+            kafkaTemplate.send(USER_CHANGED_TOPIC, String.valueOf(userId), new UserChangedEvent(userId, changeType));
+        } catch (Exception e) {
+            logger.warn("Failed to publish {} event for user {}: {}", changeType, userId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.sikawofie.authservice.repository;
+
+import org.sikawofie.authservice.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("select t from RefreshToken t join fetch t.user where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    /**
+     * @return the number of rows deleted; {@code 0} means another request already rotated the token
+     */
+    @Modifying
+    @Query("delete from RefreshToken t where t.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Query("select t.id from RefreshToken t where t.expiresAt <= :now order by t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
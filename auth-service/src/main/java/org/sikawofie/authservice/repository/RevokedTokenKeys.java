@@ -0,0 +1,9 @@
+package org.sikawofie.authservice.repository;
+
+/**
+ * Projection used to rebuild the denylist filter without loading whole entities.
+ */
+public interface RevokedTokenKeys {
+    Long getId();
+    String getTokenId();
+}
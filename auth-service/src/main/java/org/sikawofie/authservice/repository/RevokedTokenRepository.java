@@ -0,0 +1,29 @@
+package org.sikawofie.authservice.repository;
+
+import org.sikawofie.authservice.entity.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    boolean existsByTokenId(String tokenId);
+
+    long countByExpiresAtAfter(Instant now);
+
+    @Query("select coalesce(max(t.id), 0) from RevokedToken t")
+    long findMaxId();
+
+    /**
+     * Keyset page of the tokens that are still worth denying, in id order.
+     */
+    @Query("select t.id as id, t.tokenId as tokenId from RevokedToken t where t.id > :afterId and t.expiresAt > :now order by t.id")
+    List<RevokedTokenKeys> findLiveAfter(@Param("afterId") long afterId, @Param("now") Instant now, Pageable pageable);
+
+    @Query("select t.id from RevokedToken t where t.expiresAt <= :now order by t.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package org.sikawofie.authservice.repository;
+
+import org.sikawofie.authservice.entity.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findByExpiresAtAfterOrderByActivatesAtDesc(Instant now);
+
+    List<SigningKey> findByExpiresAtLessThanEqual(Instant now);
+}
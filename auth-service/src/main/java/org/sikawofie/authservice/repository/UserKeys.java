@@ -0,0 +1,9 @@
+package org.sikawofie.authservice.repository;
+
+/**
+ * Projection of the columns that must be unique across users, so conflict checks do not load whole entities.
+ */
+public interface UserKeys {
+    String getEmail();
+    String getUsername();
+}
@@ -0,0 +1,13 @@
+package org.sikawofie.authservice.repository;
+
+import org.sikawofie.authservice.enums.Role;
+
+/**
+ * Projection of the public profile columns, served to other services for enrichment.
+ */
+public interface UserProfile {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    Role getRole();
+}
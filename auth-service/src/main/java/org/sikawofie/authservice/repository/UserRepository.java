@@ -3,9 +3,14 @@ package org.sikawofie.authservice.repository;
 import org.sikawofie.authservice.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
+    List<UserKeys> findByEmailOrUsername(String email, String username);
+    List<UserKeys> findByEmailInOrUsernameIn(Collection<String> emails, Collection<String> usernames);
+    List<UserProfile> findByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,169 @@
+package org.sikawofie.authservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.sikawofie.authservice.exceptions.PasswordHashingRejectedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the delegate's hashing on a fixed pool with a bounded queue, so a login storm cannot pin every request
+ * thread on BCrypt. When the queue is full, or a hash is not done within {@code timeout}, callers get a
+ * {@link PasswordHashingRejectedException} carrying a Retry-After estimate instead of waiting.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    public static final String HASH_TIME = "auth.password.hashing";
+    public static final String QUEUE_DEPTH = "auth.password.hashing.queue.depth";
+    public static final String REJECTED = "auth.password.hashing.rejected";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        this.encodeTimer = Timer.builder(HASH_TIME).tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder(HASH_TIME).tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder(REJECTED).register(meterRegistry);
+        Gauge.builder(QUEUE_DEPTH, executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encodes every password in order, with at most one hash per pool thread in flight: a bulk import spreads over
+     * the whole pool without filling the queue that logins wait in. Where single hashes are rejected on a full
+     * queue, these wait up to {@code timeout} for room.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        int window = executor.getMaximumPoolSize();
+        List<Future<String>> inFlight = new ArrayList<>(window);
+        try {
+            for (int from = 0; from < rawPasswords.size(); from += window) {
+                for (CharSequence rawPassword : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))) {
+                    inFlight.add(enqueue(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword))));
+                }
+                for (Future<String> future : inFlight) {
+                    encoded.add(await(future));
+                }
+                inFlight.clear();
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        return encoded;
+    }
+
+    private <T> T submit(Callable<T> task) {
+        return await(start(task));
+    }
+
+    private <T> Future<T> start(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw reject("Too many concurrent password checks");
+        }
+    }
+
+    /**
+     * Puts the task straight on the queue, which works because every pool thread is started up front and never
+     * times out.
+     */
+    private <T> Future<T> enqueue(Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(task);
+        try {
+            if (executor.isShutdown() || !executor.getQueue().offer(future, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw reject("Too many concurrent password checks");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("Password check interrupted");
+        }
+        return future;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject("Password check timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw reject("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PasswordHashingRejectedException reject(String message) {
+        rejected.increment();
+        return new PasswordHashingRejectedException(message, retryAfterSeconds());
+    }
+
+    /**
+     * Time for the pool to work through what is queued and running at the observed mean hash time, rounded up to
+     * whole seconds.
+     */
+    long retryAfterSeconds() {
+        double meanNanos = Math.max(encodeTimer.mean(TimeUnit.NANOSECONDS), matchesTimer.mean(TimeUnit.NANOSECONDS));
+        double drainNanos = meanNanos * (executor.getQueue().size() + executor.getActiveCount()) / executor.getMaximumPoolSize();
+        return Math.max(1, (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,93 @@
+package org.sikawofie.authservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed logins per email and per client address over a sliding window. Once either reaches its limit,
+ * further attempts are turned away before the user lookup and the BCrypt compare, which is what a credential
+ * stuffing burst would otherwise spend its requests on. A successful login clears the email's count.
+ */
+@Component
+public class LoginAttemptThrottle {
+
+    public static final String THROTTLED = "auth.login.throttled";
+    public static final String TRACKED = "auth.login.throttle.tracked";
+
+    private final SlidingWindowCounter emailFailures;
+    private final SlidingWindowCounter clientFailures;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerClient;
+    private final Counter throttledByEmail;
+    private final Counter throttledByClient;
+
+    @Autowired
+    public LoginAttemptThrottle(@Value("${auth.login-throttle.window:15m}") Duration window,
+                                @Value("${auth.login-throttle.buckets:15}") int buckets,
+                                @Value("${auth.login-throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+                                @Value("${auth.login-throttle.max-failures-per-client:100}") int maxFailuresPerClient,
+                                MeterRegistry meterRegistry) {
+        this(window, buckets, maxFailuresPerEmail, maxFailuresPerClient, Runtime.getRuntime().availableProcessors() * 4,
+                System::nanoTime, meterRegistry);
+    }
+
+    LoginAttemptThrottle(Duration window, int buckets, int maxFailuresPerEmail, int maxFailuresPerClient,
+                         int concurrency, LongSupplier nanoClock, MeterRegistry meterRegistry) {
+        this.emailFailures = new SlidingWindowCounter(window, buckets, concurrency, nanoClock);
+        this.clientFailures = new SlidingWindowCounter(window, buckets, concurrency, nanoClock);
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerClient = maxFailuresPerClient;
+        this.throttledByEmail = Counter.builder(THROTTLED).tag("key", "email").register(meterRegistry);
+        this.throttledByClient = Counter.builder(THROTTLED).tag("key", "client").register(meterRegistry);
+        Gauge.builder(TRACKED, emailFailures, SlidingWindowCounter::size).tag("key", "email").register(meterRegistry);
+        Gauge.builder(TRACKED, clientFailures, SlidingWindowCounter::size).tag("key", "client").register(meterRegistry);
+    }
+
+    /**
+     * @param clientAddress may be {@code null} when the caller's address is unknown
+     * @return 0 if the attempt may go ahead, otherwise the seconds until it may be retried
+     */
+    public long retryAfterSeconds(String email, String clientAddress) {
+        long wait = emailFailures.nanosUntilBelow(emailKey(email), maxFailuresPerEmail);
+        if (wait > 0) {
+            throttledByEmail.increment();
+            return seconds(wait);
+        }
+        if (clientAddress != null) {
+            wait = clientFailures.nanosUntilBelow(clientAddress, maxFailuresPerClient);
+            if (wait > 0) {
+                throttledByClient.increment();
+                return seconds(wait);
+            }
+        }
+        return 0;
+    }
+
+    public void recordFailure(String email, String clientAddress) {
+        emailFailures.increment(emailKey(email));
+        if (clientAddress != null) {
+            clientFailures.increment(clientAddress);
+        }
+    }
+
+    public void recordSuccess(String email) {
+        emailFailures.reset(emailKey(email));
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,164 @@
+package org.sikawofie.authservice.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.authservice.entity.SigningKey;
+import org.sikawofie.authservice.repository.SigningKeyRepository;
+import org.sikawofie.securitycommon.Jwks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * The rotating EC signing keys, shared by every auth-service replica through the {@code signing_keys} table.
+ * A new key is created {@code key-publish-ahead} before it starts signing, so the gateway and the services have
+ * it in their cached JWK sets by the time the first token carries it. Retired keys stay published until the last
+ * token they signed has expired. Each replica reloads the table every {@code key-refresh-interval}; token issuing
+ * and parsing only read the in-memory snapshot.
+ */
+@Slf4j
+@Component
+public class SigningKeyRing implements Supplier<SigningKeys> {
+
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SigningKeyRepository signingKeyRepository;
+    private final SecretKey keyEncryptionKey;
+    private final Duration rotationInterval;
+    private final Duration publishAhead;
+    private final Duration tokenLifetime;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile SigningKeys current;
+
+    public SigningKeyRing(SigningKeyRepository signingKeyRepository,
+                          @Value("${auth.jwt.key-encryption-secret}") String keyEncryptionSecret,
+                          @Value("${auth.jwt.key-rotation-interval:7d}") Duration rotationInterval,
+                          @Value("${auth.jwt.key-publish-ahead:15m}") Duration publishAhead,
+                          @Value("${jwt.expiration}") long jwtExpiration) {
+        this.signingKeyRepository = signingKeyRepository;
+        this.keyEncryptionKey = new SecretKeySpec(sha256(keyEncryptionSecret), "AES");
+        this.rotationInterval = rotationInterval;
+        this.publishAhead = publishAhead;
+        this.tokenLifetime = Duration.ofMillis(jwtExpiration);
+    }
+
+    @Override
+    public SigningKeys get() {
+        return current;
+    }
+
+    @PostConstruct
+    @Scheduled(initialDelayString = "${auth.jwt.key-refresh-interval:1m}", fixedDelayString = "${auth.jwt.key-refresh-interval:1m}")
+    public void refresh() {
+        Instant now = Instant.now();
+        List<SigningKey> expired = signingKeyRepository.findByExpiresAtLessThanEqual(now);
+        if (!expired.isEmpty()) {
+            signingKeyRepository.deleteAllInBatch(expired);
+            log.info("Deleted {} expired signing keys", expired.size());
+        }
+
+        List<SigningKey> keys = new ArrayList<>(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(now));
+        if (keys.isEmpty() || !keys.get(0).getActivatesAt().isAfter(now.minus(rotationInterval).plus(publishAhead))) {
+            SigningKey created = create(now, keys.isEmpty() ? now : now.plus(publishAhead));
+            signingKeyRepository.save(created);
+            keys.add(0, created);
+            log.info("Created signing key {} activating at {}", created.getKid(), created.getActivatesAt());
+        }
+        current = load(keys, now);
+    }
+
+    private SigningKey create(Instant now, Instant activatesAt) {
+        KeyPair pair = SigningKeys.newKeyPair();
+        SigningKey key = new SigningKey();
+        key.setKid(UUID.randomUUID().toString());
+        key.setPublicKey(pair.getPublic().getEncoded());
+        key.setPrivateKey(encrypt(key.getKid(), pair.getPrivate().getEncoded()));
+        key.setCreatedAt(now);
+        key.setActivatesAt(activatesAt);
+        // Signs for one rotation interval (longer if the next key is late), then verifies tokens until they expire
+        key.setExpiresAt(activatesAt.plus(rotationInterval.multipliedBy(2)).plus(tokenLifetime));
+        return key;
+    }
+
+    /**
+     * @param keys live keys, newest activation first
+     */
+    private SigningKeys load(List<SigningKey> keys, Instant now) {
+        SigningKey signing = keys.stream()
+                .filter(key -> !key.getActivatesAt().isAfter(now))
+                .findFirst()
+                .orElse(keys.get(keys.size() - 1));
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        Map<String, ECPublicKey> published = new LinkedHashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            for (SigningKey key : keys) {
+                PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+                verificationKeys.put(key.getKid(), publicKey);
+                published.put(key.getKid(), (ECPublicKey) publicKey);
+            }
+            PrivateKey privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(signing.getKid(), signing.getPrivateKey())));
+            return new SigningKeys(signing.getKid(), privateKey, Map.copyOf(verificationKeys), Jwks.toJson(published));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unreadable signing key " + signing.getKid(), e);
+        }
+    }
+
+    private byte[] encrypt(String kid, byte[] plaintext) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] ciphertext = cipher.doFinal(plaintext);
+            return ByteBuffer.allocate(IV_LENGTH + ciphertext.length).put(iv).put(ciphertext).array();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt signing key", e);
+        }
+    }
+
+    private byte[] decrypt(String kid, byte[] stored) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, keyEncryptionKey, new GCMParameterSpec(TAG_BITS, stored, 0, IV_LENGTH));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(Arrays.copyOfRange(stored, IV_LENGTH, stored.length));
+    }
+
+    private static byte[] sha256(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.sikawofie.authservice.security;
+
+import org.sikawofie.securitycommon.Jwks;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Snapshot of the key rotation: the key new tokens are signed with, every key a live token may carry, and the
+ * JWK set document the verifiers download.
+ */
+public record SigningKeys(String signingKeyId, PrivateKey signingKey, Map<String, PublicKey> verificationKeys,
+                          String jwks) {
+
+    /**
+     * A single fresh key, for tests and benchmarks.
+     */
+    public static SigningKeys generate() {
+        String kid = UUID.randomUUID().toString();
+        KeyPair pair = newKeyPair();
+        return new SigningKeys(kid, pair.getPrivate(), Map.of(kid, pair.getPublic()),
+                Jwks.toJson(Map.of(kid, (ECPublicKey) pair.getPublic())));
+    }
+
+    static KeyPair newKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.sikawofie.authservice.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key event counts over a sliding window made of {@code buckets} fixed sub-windows. A key's counts are one
+ * {@link AtomicLongArray} slot per sub-window, each packing the sub-window's index with its count, so counting
+ * is a single CAS and never locks; a slot still holding an older sub-window reads as zero. Keys are spread over
+ * independently swept stripes and dropped once their newest event has left the window.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Stripe[] stripes;
+    private final int buckets;
+    private final long bucketNanos;
+    private final long windowNanos;
+    private final long origin;
+    private final LongSupplier nanoClock;
+
+    public SlidingWindowCounter(Duration window, int buckets, int concurrency, LongSupplier nanoClock) {
+        this.buckets = buckets;
+        this.bucketNanos = Math.max(1, window.toNanos() / buckets);
+        this.windowNanos = bucketNanos * buckets;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(2, concurrency) - 1) << 1];
+        Arrays.setAll(stripes, i -> new Stripe());
+    }
+
+    public void increment(String key) {
+        long elapsed = nanoClock.getAsLong() - origin;
+        long bucket = elapsed / bucketNanos;
+        Stripe stripe = stripe(key);
+        stripe.sweepIfDue(elapsed, bucket);
+        stripe.windows.computeIfAbsent(key, k -> new Window(buckets)).increment(bucket);
+    }
+
+    public int count(String key) {
+        Window window = stripe(key).windows.get(key);
+        return window == null ? 0 : window.sum((nanoClock.getAsLong() - origin) / bucketNanos);
+    }
+
+    /**
+     * @return 0 if fewer than {@code limit} events fall in the window, otherwise how many nanoseconds until
+     * enough of them have aged out
+     */
+    public long nanosUntilBelow(String key, int limit) {
+        Window window = stripe(key).windows.get(key);
+        if (window == null) {
+            return 0;
+        }
+        long elapsed = nanoClock.getAsLong() - origin;
+        long current = elapsed / bucketNanos;
+        long remaining = window.sum(current);
+        if (remaining < limit) {
+            return 0;
+        }
+        for (long bucket = Math.max(0, current - buckets + 1); bucket <= current; bucket++) {
+            remaining -= window.count(bucket);
+            if (remaining < limit) {
+                return (bucket + buckets) * bucketNanos - elapsed;
+            }
+        }
+        return (current + buckets) * bucketNanos - elapsed;
+    }
+
+    public void reset(String key) {
+        stripe(key).windows.remove(key);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.windows.size();
+        }
+        return size;
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Window {
+        private final AtomicLongArray slots;
+        private volatile long newest;
+
+        Window(int buckets) {
+            this.slots = new AtomicLongArray(buckets);
+        }
+
+        void increment(long bucket) {
+            int slot = (int) (bucket % slots.length());
+            while (true) {
+                long packed = slots.get(slot);
+                long next;
+                if (packed >>> COUNT_BITS != bucket) {
+                    next = bucket << COUNT_BITS | 1;
+                } else if ((packed & COUNT_MASK) == COUNT_MASK) {
+                    break;
+                } else {
+                    next = packed + 1;
+                }
+                if (slots.compareAndSet(slot, packed, next)) {
+                    break;
+                }
+            }
+            if (bucket > newest) {
+                newest = bucket;
+            }
+        }
+
+        long count(long bucket) {
+            long packed = slots.get((int) (bucket % slots.length()));
+            return packed >>> COUNT_BITS == bucket ? packed & COUNT_MASK : 0;
+        }
+
+        int sum(long current) {
+            long sum = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long packed = slots.get(i);
+                long bucket = packed >>> COUNT_BITS;
+                if (bucket <= current && current - bucket < slots.length()) {
+                    sum += packed & COUNT_MASK;
+                }
+            }
+            return (int) Math.min(sum, Integer.MAX_VALUE);
+        }
+    }
+
+    private final class Stripe {
+        private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+        private final AtomicLong nextSweep = new AtomicLong(windowNanos);
+
+        void sweepIfDue(long elapsed, long current) {
+            long due = nextSweep.get();
+            if (elapsed - due < 0 || !nextSweep.compareAndSet(due, elapsed + windowNanos)) {
+                return;
+            }
+            windows.values().removeIf(window -> current - window.newest >= buckets);
+        }
+    }
+}
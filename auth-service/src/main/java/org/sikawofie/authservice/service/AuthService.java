@@ -1,10 +1,21 @@
 package org.sikawofie.authservice.service;
 
+import org.sikawofie.authservice.dto.AuthTokens;
+import org.sikawofie.authservice.dto.BulkRegisterResult;
 import org.sikawofie.authservice.dto.LoginRequest;
 import org.sikawofie.authservice.dto.RegisterRequest;
 import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.enums.Role;
+
+import java.util.List;
 
 public interface AuthService {
     User register(RegisterRequest request);
-    String login(LoginRequest request);
+    BulkRegisterResult registerAll(List<RegisterRequest> requests, Role role);
+    /**
+     * @param clientAddress the caller's address for failed-attempt throttling, or {@code null} if unknown
+     */
+    AuthTokens login(LoginRequest request, String clientAddress);
+    AuthTokens refresh(String refreshToken);
+    void logout(String accessToken, String refreshToken);
 }
@@ -0,0 +1,34 @@
+package org.sikawofie.authservice.service;
+
+import org.sikawofie.authservice.entity.User;
+
+public interface RefreshTokenService {
+
+    /**
+     * Creates a refresh token for {@code user} and returns its opaque value.
+     */
+    String issue(User user);
+
+    /**
+     * Consumes {@code refreshToken} and issues its replacement.
+     *
+     * @throws org.springframework.security.authentication.BadCredentialsException if the token is unknown,
+     *                                                                             expired or already used
+     */
+    Rotation rotate(String refreshToken);
+
+    /**
+     * Deletes {@code refreshToken} if it exists.
+     */
+    void revoke(String refreshToken);
+
+    /**
+     * Deletes expired tokens in batches.
+     *
+     * @return the number of tokens deleted
+     */
+    int purgeExpired();
+
+    record Rotation(User user, String refreshToken) {
+    }
+}
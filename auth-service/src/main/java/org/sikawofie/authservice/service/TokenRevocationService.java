@@ -0,0 +1,30 @@
+package org.sikawofie.authservice.service;
+
+public interface TokenRevocationService {
+
+    /**
+     * Denies {@code accessToken} for the rest of its lifetime. Expired tokens, and tokens without a {@code jti},
+     * are left alone.
+     *
+     * @return whether the token was newly revoked
+     * @throws org.springframework.security.authentication.BadCredentialsException if the token is malformed or forged
+     */
+    boolean revoke(String accessToken);
+
+    /**
+     * Exact check behind the replicated Bloom filter.
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * Publishes the Bloom filter of live revoked tokens as a snapshot, rebuilding it first if the denylist grew.
+     */
+    void publishSnapshot();
+
+    /**
+     * Deletes revocations of tokens that have expired anyway, in batches.
+     *
+     * @return the number of revocations deleted
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,14 @@
+package org.sikawofie.authservice.service;
+
+import org.sikawofie.authservice.dto.UserProfileResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserProfileService {
+
+    /**
+     * Profiles of the known users among {@code ids}, in one query. Unknown ids are left out.
+     */
+    List<UserProfileResponse> findProfiles(Collection<Long> ids);
+}
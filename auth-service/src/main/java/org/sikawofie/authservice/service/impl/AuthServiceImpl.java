@@ -1,34 +1,66 @@
 package org.sikawofie.authservice.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.dto.AuthTokens;
+import org.sikawofie.authservice.dto.BulkRegisterResult;
 import org.sikawofie.authservice.dto.LoginRequest;
 import org.sikawofie.authservice.dto.RegisterRequest;
 import org.sikawofie.authservice.entity.User;
 import org.sikawofie.authservice.enums.Role;
+import org.sikawofie.authservice.exceptions.DuplicateUserException;
+import org.sikawofie.authservice.exceptions.LoginThrottledException;
+import org.sikawofie.authservice.principal.UserPrincipal;
+import org.sikawofie.authservice.principal.UserPrincipalCache;
+import org.sikawofie.authservice.repository.UserKeys;
 import org.sikawofie.authservice.repository.UserRepository;
+import org.sikawofie.authservice.security.BoundedPasswordEncoder;
+import org.sikawofie.authservice.security.LoginAttemptThrottle;
 import org.sikawofie.authservice.service.AuthService;
+import org.sikawofie.authservice.service.RefreshTokenService;
+import org.sikawofie.authservice.service.TokenRevocationService;
 import org.sikawofie.authservice.utils.JwtUtils;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    private static final String INSERT_USER = "insert into users (email, username, password, role) values (?, ?, ?, ?)";
+    private static final int INSERT_BATCH_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final RefreshTokenService refreshTokenService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
     @Override
     public User register(RegisterRequest request) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new DataIntegrityViolationException("Email already registered");
+        // One projection query so a duplicate is turned away before paying for a BCrypt hash; the unique
+        // constraints still decide races between concurrent registrations.
+        List<UserKeys> conflicts = userRepository.findByEmailOrUsername(request.getEmail(), request.getUsername());
+        if (conflicts.stream().anyMatch(keys -> keys.getEmail().equalsIgnoreCase(request.getEmail()))) {
+            throw new DuplicateUserException("Email already registered");
         }
-
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new DataIntegrityViolationException("Username already taken");
+        if (!conflicts.isEmpty()) {
+            throw new DuplicateUserException("Username already taken");
         }
 
         User user = new User();
@@ -37,23 +69,130 @@ public class AuthServiceImpl implements AuthService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(Role.ROLE_CUSTOMER);
 
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicate(e);
+        }
+    }
+
+    /**
+     * Hashes outside any transaction, then inserts all accepted users in one transaction with JDBC batches.
+     */
+    @Override
+    public BulkRegisterResult registerAll(List<RegisterRequest> requests, Role role) {
+        Map<String, String> skipped = new LinkedHashMap<>();
+        Map<String, RegisterRequest> byEmail = new LinkedHashMap<>();
+        Set<String> usernames = new HashSet<>();
+        for (RegisterRequest request : requests) {
+            String email = request.getEmail().toLowerCase(Locale.ROOT);
+            if (byEmail.containsKey(email)) {
+                skipped.put(request.getEmail(), "Duplicate email in request");
+            } else if (!usernames.add(request.getUsername().toLowerCase(Locale.ROOT))) {
+                skipped.put(request.getEmail(), "Duplicate username in request");
+            } else {
+                byEmail.put(email, request);
+            }
+        }
+
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenUsernames = new HashSet<>();
+        if (!byEmail.isEmpty()) {
+            List<String> usernameList = byEmail.values().stream().map(RegisterRequest::getUsername).toList();
+            List<String> emailList = byEmail.values().stream().map(RegisterRequest::getEmail).toList();
+            for (UserKeys keys : userRepository.findByEmailInOrUsernameIn(emailList, usernameList)) {
+                takenEmails.add(keys.getEmail().toLowerCase(Locale.ROOT));
+                takenUsernames.add(keys.getUsername().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<RegisterRequest> accepted = new ArrayList<>(byEmail.size());
+        for (Map.Entry<String, RegisterRequest> entry : byEmail.entrySet()) {
+            RegisterRequest request = entry.getValue();
+            if (takenEmails.contains(entry.getKey())) {
+                skipped.put(request.getEmail(), "Email already registered");
+            } else if (takenUsernames.contains(request.getUsername().toLowerCase(Locale.ROOT))) {
+                skipped.put(request.getEmail(), "Username already taken");
+            } else {
+                accepted.add(request);
+            }
+        }
+
+        List<String> hashes = encodeAll(accepted.stream().map(RegisterRequest::getPassword).toList());
+        List<Object[]> rows = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            RegisterRequest request = accepted.get(i);
+            rows.add(new Object[]{request.getEmail(), request.getUsername(), hashes.get(i), role.name()});
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += INSERT_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(INSERT_USER, rows.subList(from, Math.min(from + INSERT_BATCH_SIZE, rows.size())));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateUserException("Users were registered concurrently with this import; retry it");
+        }
+        return new BulkRegisterResult(rows.size(), skipped);
     }
 
     @Override
-    public String login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+    public AuthTokens login(LoginRequest request, String clientAddress) {
+        // Checked before the user lookup and the BCrypt compare, which are what a stuffing burst costs us
+        long retryAfter = loginAttemptThrottle.retryAfterSeconds(request.getEmail(), clientAddress);
+        if (retryAfter > 0) {
+            throw new LoginThrottledException("Too many failed login attempts", retryAfter);
+        }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        UserPrincipal principal = userPrincipalCache.get(request.getEmail());
+        if (principal == null || !passwordEncoder.matches(request.getPassword(), principal.getPassword())) {
+            loginAttemptThrottle.recordFailure(request.getEmail(), clientAddress);
             throw new BadCredentialsException("Invalid credentials");
         }
+        loginAttemptThrottle.recordSuccess(request.getEmail());
+
+        String token = accessToken(principal.getId(), principal.getUsername(), principal.getRole(), principal.getEmail());
+        return new AuthTokens(token, refreshTokenService.issue(userRepository.getReferenceById(principal.getId())));
+    }
+
+    @Override
+    public AuthTokens refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
+        return new AuthTokens(accessToken(user.getId(), user.getUsername(), user.getRole(), user.getEmail()),
+                rotation.refreshToken());
+    }
+
+    @Override
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            tokenRevocationService.revoke(accessToken);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    /**
+     * Spreads the hashes over the bounded encoder's pool when there is one; a sequential import of 1000 users at
+     * BCrypt cost 10 would otherwise take well over a minute.
+     */
+    private List<String> encodeAll(List<String> passwords) {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedEncoder) {
+            return boundedEncoder.encodeAll(passwords);
+        }
+        return passwords.stream().map(passwordEncoder::encode).toList();
+    }
+
+    private String accessToken(Long userId, String username, Role role, String email) {
+        return jwtUtils.generateToken(userId, username, role.name(), email);
+    }
 
-        return jwtUtils.generateToken(
-                user.getId(),
-                user.getUsername(),
-                user.getRole().name(),
-                user.getEmail()
-        );
+    private static DuplicateUserException duplicate(DataIntegrityViolationException e) {
+        String cause = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        return cause.contains(User.USERNAME_CONSTRAINT)
+                ? new DuplicateUserException("Username already taken")
+                : new DuplicateUserException("Email already registered");
     }
-}
\ No newline at end of file
+}
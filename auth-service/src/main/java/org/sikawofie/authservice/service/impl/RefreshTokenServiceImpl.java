@@ -0,0 +1,115 @@
+package org.sikawofie.authservice.service.impl;
+
+import org.sikawofie.authservice.entity.RefreshToken;
+import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.repository.RefreshTokenRepository;
+import org.sikawofie.authservice.service.RefreshTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Opaque, single-use refresh tokens. Each refresh deletes the presented token and issues a new one with a fresh
+ * {@code ttl}, so an active session slides forward while an idle one lapses.
+ */
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenServiceImpl.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${auth.refresh-token.ttl:14d}") Duration ttl,
+                                   @Value("${auth.refresh-token.purge-batch-size:500}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    @Override
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plus(ttl));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    @Override
+    @Transactional
+    public Rotation rotate(String refreshToken) {
+        RefreshToken stored = refreshTokenRepository.findByTokenHashWithUser(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        if (!Instant.now().isBefore(stored.getExpiresAt())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (refreshTokenRepository.deleteByIdReturningCount(stored.getId()) == 0) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+
+        User user = stored.getUser();
+        return new Rotation(user, issue(user));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.deleteByTokenHash(hash(refreshToken));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${auth.refresh-token.purge-interval:10m}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, PageRequest.ofSize(purgeBatchSize));
+            if (!ids.isEmpty()) {
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                purged += ids.size();
+            }
+        } while (ids.size() == purgeBatchSize);
+
+        if (purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.sikawofie.authservice.service.impl;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.sikawofie.authservice.entity.RevokedToken;
+import org.sikawofie.authservice.producer.TokenRevocationPublisher;
+import org.sikawofie.authservice.repository.RevokedTokenKeys;
+import org.sikawofie.authservice.repository.RevokedTokenRepository;
+import org.sikawofie.authservice.service.TokenRevocationService;
+import org.sikawofie.authservice.utils.JwtUtils;
+import org.sikawofie.authservice.utils.TokenClaims;
+import org.sikawofie.securitycommon.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the denylist of revoked access tokens in the database and replicates it to the gateways over Kafka: each
+ * revocation goes out at once as a delta, and a Bloom filter of every live revocation is republished every
+ * {@code auth.revocation.snapshot-interval} so late joiners converge.
+ * <p>
+ * The filter is only rebuilt from the table when a revocation was added since the last build, or when the last
+ * build is older than {@code auth.revocation.rebuild-interval} so that expired entries age out; otherwise the
+ * previous snapshot is sent again as is.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    // Filters are sized for this many times the live revocations, leaving room for the deltas added on top
+    private static final int DELTA_HEADROOM = 2;
+    // JSON around the base64 filter in a snapshot record
+    private static final int SNAPSHOT_ENVELOPE_BYTES = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenRevocationPublisher publisher;
+    private final JwtUtils jwtUtils;
+    private final long expectedRevocations;
+    private final long maxRevocations;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final Duration rebuildInterval;
+
+    private Snapshot snapshot;
+
+    public TokenRevocationServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                      TokenRevocationPublisher publisher,
+                                      JwtUtils jwtUtils,
+                                      @Value("${auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                      @Value("${auth.revocation.max-revocations:10000000}") long maxRevocations,
+                                      @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                      @Value("${auth.revocation.batch-size:5000}") int batchSize,
+                                      @Value("${auth.revocation.rebuild-interval:30m}") Duration rebuildInterval) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.publisher = publisher;
+        this.jwtUtils = jwtUtils;
+        this.expectedRevocations = expectedRevocations;
+        this.maxRevocations = maxRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.batchSize = batchSize;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    /**
+     * The largest snapshot record, for a filter sized for {@code maxRevocations} live revocations; the filter
+     * travels base64-encoded, a third larger than its bytes.
+     */
+    public static int maxSnapshotBytes(long maxRevocations, double falsePositiveRate) {
+        long filterBytes = BloomFilter.sizeInBytes(maxRevocations * DELTA_HEADROOM, falsePositiveRate);
+        return Math.toIntExact((filterBytes + 2) / 3 * 4 + SNAPSHOT_ENVELOPE_BYTES);
+    }
+
+    @Override
+    public boolean revoke(String accessToken) {
+        TokenClaims claims;
+        try {
+            claims = jwtUtils.parseToken(accessToken);
+        } catch (ExpiredJwtException e) {
+            return false;
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid token");
+        }
+        if (claims.tokenId() == null || claims.expiresAt() == null) {
+            return false;
+        }
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setTokenId(claims.tokenId());
+        revoked.setExpiresAt(claims.expiresAt());
+        try {
+            revoked = revokedTokenRepository.save(revoked);
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        publisher.publishRevoked(revoked.getId(), revoked.getTokenId(), revoked.getExpiresAt().getEpochSecond());
+        return true;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revokedTokenRepository.existsByTokenId(tokenId);
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.revocation.snapshot-interval:1m}")
+    public void publishSnapshot() {
+        Instant now = Instant.now();
+        long latestId = revokedTokenRepository.findMaxId();
+        if (snapshot == null || snapshot.latestId() != latestId
+                || !now.isBefore(snapshot.builtAt().plus(rebuildInterval))) {
+            snapshot = buildSnapshot(latestId, now);
+        }
+        publisher.publishSnapshot(snapshot.latestId(), snapshot.filter());
+    }
+
+    private Snapshot buildSnapshot(long latestId, Instant now) {
+        long live = revokedTokenRepository.countByExpiresAtAfter(now);
+        if (live > maxRevocations) {
+            logger.warn("{} live revocations exceed auth.revocation.max-revocations={}; the denylist filter will "
+                    + "report more false positives", live, maxRevocations);
+        }
+        long capacity = Math.min(Math.max(expectedRevocations, live * DELTA_HEADROOM), maxRevocations * DELTA_HEADROOM);
+        BloomFilter filter = BloomFilter.create(capacity, falsePositiveRate);
+
+        long lastId = 0;
+        List<RevokedTokenKeys> page;
+        do {
+            page = revokedTokenRepository.findLiveAfter(lastId, now, PageRequest.ofSize(batchSize));
+            for (RevokedTokenKeys keys : page) {
+                filter.put(keys.getTokenId());
+                lastId = keys.getId();
+            }
+        } while (page.size() == batchSize);
+
+        logger.debug("Rebuilt denylist snapshot of {} revoked tokens in {} bytes", live, filter.sizeInBytes());
+        return new Snapshot(latestId, now, filter.toBytes());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${auth.revocation.purge-interval:10m}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = revokedTokenRepository.findExpiredIds(now, PageRequest.ofSize(batchSize));
+            if (!ids.isEmpty()) {
+                revokedTokenRepository.deleteAllByIdInBatch(ids);
+                purged += ids.size();
+            }
+        } while (ids.size() == batchSize);
+
+        if (purged > 0) {
+            logger.info("Purged {} expired token revocations", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * A built filter; {@code latestId} is the newest revocation that existed when it was built, expired or not.
+     * It is the snapshot's sequence: unlike the newest live id it never goes down, and gateways drop any snapshot
+     * older than the one they hold.
+     */
+    private record Snapshot(long latestId, Instant builtAt, byte[] filter) {
+    }
+}
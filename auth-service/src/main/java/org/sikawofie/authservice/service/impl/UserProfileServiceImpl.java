@@ -0,0 +1,28 @@
+package org.sikawofie.authservice.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.sikawofie.authservice.dto.UserProfileResponse;
+import org.sikawofie.authservice.repository.UserRepository;
+import org.sikawofie.authservice.service.UserProfileService;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UserProfileServiceImpl implements UserProfileService {
+
+    private final UserRepository userRepository;
+
+    @Override
+    public List<UserProfileResponse> findProfiles(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findByIdIn(new LinkedHashSet<>(ids)).stream()
+                .map(UserProfileResponse::from)
+                .toList();
+    }
+}
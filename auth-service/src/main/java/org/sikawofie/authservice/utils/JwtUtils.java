@@ -1,75 +1,84 @@
 package org.sikawofie.authservice.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.ProtectedHeader;
+import org.sikawofie.authservice.security.SigningKeys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.function.Supplier;
 
+/**
+ * Issues and parses the platform's JWTs. Tokens are signed ES256 with the current key of the rotation and carry
+ * its {@code kid}, so the gateway and the services can verify them against the published JWK set without a call
+ * to auth-service. Every token carries a random {@code jti} so it can be revoked.
+ */
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final long jwtExpiration;
+    private final Supplier<SigningKeys> signingKeys;
+    private final JwtParser parser;
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64URL.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtils(Supplier<SigningKeys> signingKeys, @Value("${jwt.expiration}") long jwtExpiration) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKeys = signingKeys;
+        this.parser = Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? signingKeys.get().verificationKeys().get(protectedHeader.getKeyId())
+                        : null)
+                .build();
     }
 
-    public String generateToken(Long userId,String username, String role, String email) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("role", role);
-        claims.put("email", email);
-
+    public String generateToken(Long userId, String username, String role, String email) {
+        long now = System.currentTimeMillis();
+        SigningKeys keys = signingKeys.get();
         return Jwts.builder()
-                .claims(claims)
+                .header().keyId(keys.signingKeyId()).and()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .claim("userId", userId)
+                .claim("role", role)
+                .claim("email", email)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpiration))
+                .signWith(keys.signingKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies the signature and expiry and returns every claim from the one parse.
+     *
+     * @throws JwtException if the token is malformed, forged, expired or signed with an unknown key
+     */
+    public TokenClaims parseToken(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new TokenClaims(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.get("email", String.class),
+                claims.getId(),
+                issuedAt != null ? issuedAt.toInstant() : null,
+                expiration != null ? expiration.toInstant() : null
+        );
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String extractUsername(String token) {
+        return parseToken(token).username();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean validateToken(String token, UserDetails userDetails) {
+        TokenClaims claims = parseToken(token);
+        return claims.username().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package org.sikawofie.authservice.utils;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have been checked by {@link JwtUtils#parseToken}.
+ * {@code tokenId} is the {@code jti} claim; tokens issued before it was added have none.
+ */
+public record TokenClaims(Long userId, String username, String role, String email, String tokenId, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
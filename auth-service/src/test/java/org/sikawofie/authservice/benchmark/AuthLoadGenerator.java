@@ -0,0 +1,151 @@
+package org.sikawofie.authservice.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load against a running auth-service, mixing {@code /auth/login} and {@code /auth/register}.
+ * To compare thread models, run it once against the default profile and once against
+ * {@code spring.profiles.active=virtual-threads}, with the same database, and compare the reports.
+ * <p>
+ * Arguments: {@code baseUrl concurrency durationSeconds loginPercent}, defaulting to
+ * {@code http://localhost:9000 400 60 80}. Seed users are registered before the clock starts. Each caller runs on
+ * its own virtual thread, so the client is not the bottleneck. The report gives throughput, latency percentiles
+ * and status codes per endpoint; a 503 is load shed by the password-hashing pool or the request limit.
+ */
+public class AuthLoadGenerator {
+
+    private static final int SEED_USERS = 200;
+    private static final String PASSWORD = "load-test-password";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registered = new AtomicLong();
+
+    private AuthLoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:9000";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int loginPercent = args.length > 3 ? Integer.parseInt(args[3]) : 80;
+        new AuthLoadGenerator(baseUrl).run(concurrency, Duration.ofSeconds(durationSeconds), loginPercent);
+    }
+
+    private void run(int concurrency, Duration duration, int loginPercent) throws Exception {
+        List<String> seedEmails = new ArrayList<>();
+        for (int i = 0; i < SEED_USERS; i++) {
+            String email = nextEmail();
+            int status = send("/auth/register", registerBody(email)).statusCode();
+            if (status == 201 || status == 409) {
+                seedEmails.add(email);
+            }
+        }
+        if (seedEmails.isEmpty()) {
+            throw new IllegalStateException("Could not register any seed users at " + baseUrl);
+        }
+
+        Map<String, Stats> stats = new ConcurrentHashMap<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                callers.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        boolean login = random.nextInt(100) < loginPercent;
+                        String path = login ? "/auth/login" : "/auth/register";
+                        String body = login
+                                ? loginBody(seedEmails.get(random.nextInt(seedEmails.size())))
+                                : registerBody(nextEmail());
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(path, body).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        stats.computeIfAbsent(path, p -> new Stats()).record(status, System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+
+        System.out.printf("%s, %d callers, %ds, %d%% logins%n", baseUrl, concurrency, duration.toSeconds(), loginPercent);
+        stats.forEach((path, pathStats) -> pathStats.print(path, duration));
+    }
+
+    private HttpResponse<Void> send(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private String nextEmail() {
+        return "load-" + runId + "-" + registered.incrementAndGet() + "@example.com";
+    }
+
+    private static String registerBody(String email) {
+        String username = email.substring(0, email.indexOf('@'));
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String loginBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static final class Stats {
+        private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        private final List<Long> latencies = new ArrayList<>();
+
+        void record(int status, long nanos) {
+            statuses.computeIfAbsent(status, s -> new AtomicLong()).incrementAndGet();
+            synchronized (latencies) {
+                latencies.add(nanos);
+            }
+        }
+
+        void print(String path, Duration duration) {
+            long[] sorted;
+            synchronized (latencies) {
+                sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            }
+            Arrays.sort(sorted);
+            System.out.printf("  %-15s %8.1f req/s  p50 %6.1f ms  p95 %6.1f ms  p99 %6.1f ms  max %6.1f ms  statuses %s%n",
+                    path, (double) sorted.length / duration.toSeconds(),
+                    millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), millis(sorted, 1.0),
+                    new TreeMap<>(statuses));
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
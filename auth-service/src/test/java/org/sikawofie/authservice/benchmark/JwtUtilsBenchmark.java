@@ -0,0 +1,51 @@
+package org.sikawofie.authservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.authservice.security.SigningKeys;
+import org.sikawofie.authservice.utils.JwtUtils;
+import org.sikawofie.authservice.utils.TokenClaims;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of issuing and parsing tokens with {@link JwtUtils}.
+ * Run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final SigningKeys KEYS = SigningKeys.generate();
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(() -> KEYS, TimeUnit.HOURS.toMillis(1));
+        token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+    }
+
+    @Benchmark
+    public TokenClaims parse() {
+        return jwtUtils.parseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
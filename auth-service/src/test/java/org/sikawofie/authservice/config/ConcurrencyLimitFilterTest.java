@@ -0,0 +1,85 @@
+package org.sikawofie.authservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(50), meterRegistry);
+
+    @Test
+    void requestBeyondLimit_ShouldBeRejectedAfterMaxWait() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.IN_FLIGHT).gauge().value());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/register"), rejected, (request, response) -> fail());
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get(ConcurrencyLimitFilter.REJECTED).counter().count());
+
+        release.countDown();
+        holder.join(1_000);
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/auth/register"), accepted, (request, response) -> {
+        });
+        assertEquals(200, accepted.getStatus());
+    }
+
+    @Test
+    void actuatorRequests_ShouldNotTakeASlot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/auth/login"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            awaitQuietly(release);
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        MockHttpServletResponse health = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), health, (request, response) -> {
+        });
+
+        assertEquals(200, health.getStatus());
+        release.countDown();
+        holder.join(1_000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.sikawofie.authservice.principal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.enums.Role;
+import org.sikawofie.authservice.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(userRepository, 100, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    void repeatedLookups_ShouldHitTheDatabaseOnce() {
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user(42L, "secret-hash")));
+
+        UserPrincipal first = cache.get("alice@example.com");
+        UserPrincipal second = cache.get("alice@example.com");
+
+        assertSame(first, second);
+        assertEquals("alice", first.getUsername());
+        assertEquals("ROLE_CUSTOMER", first.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByEmail("alice@example.com");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "auth.user.principal").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void snapshot_ShouldNotFollowLaterEntityChanges() {
+        User user = user(42L, "old-hash");
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.of(user));
+
+        UserPrincipal principal = cache.get("alice@example.com");
+        user.setPassword("new-hash");
+
+        assertEquals("old-hash", principal.getPassword());
+    }
+
+    @Test
+    void evictUser_ShouldReloadOnNextLookup() {
+        when(userRepository.findByEmail("alice@example.com"))
+                .thenReturn(Optional.of(user(42L, "old-hash")), Optional.of(user(42L, "new-hash")));
+
+        cache.get("alice@example.com");
+        cache.evictUser(7L);
+        assertEquals("old-hash", cache.get("alice@example.com").getPassword());
+
+        cache.evictUser(42L);
+        assertEquals("new-hash", cache.get("alice@example.com").getPassword());
+    }
+
+    @Test
+    void unknownEmail_ShouldNotBeCached() {
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertNull(cache.get("ghost@example.com"));
+        assertNull(cache.get("ghost@example.com"));
+
+        verify(userRepository, times(2)).findByEmail("ghost@example.com");
+    }
+
+    private static User user(Long id, String password) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("alice");
+        user.setEmail("alice@example.com");
+        user.setPassword(password);
+        user.setRole(Role.ROLE_CUSTOMER);
+        return user;
+    }
+}
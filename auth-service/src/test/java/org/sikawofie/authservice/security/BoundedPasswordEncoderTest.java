@@ -0,0 +1,186 @@
+package org.sikawofie.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.authservice.exceptions.PasswordHashingRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<BoundedPasswordEncoder> encoders = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        encoders.forEach(BoundedPasswordEncoder::destroy);
+    }
+
+    @Test
+    void saturatedPool_ShouldRejectWithoutWaiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = encoder(new BlockingEncoder(release), 2, 2, Duration.ofSeconds(5));
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> accepted = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accepted.add(callers.submit(() -> encoder.matches("secret", "hash")));
+        }
+        awaitQueueDepth(2);
+
+        long start = System.nanoTime();
+        PasswordHashingRejectedException rejected =
+                assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("secret", "hash"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(rejected.getRetryAfterSeconds() >= 1);
+        assertEquals(1.0, meterRegistry.get(BoundedPasswordEncoder.REJECTED).counter().count());
+
+        release.countDown();
+        for (Future<Boolean> future : accepted) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+        assertEquals(4, meterRegistry.get(BoundedPasswordEncoder.HASH_TIME).tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void slowHash_ShouldTimeOut() {
+        BoundedPasswordEncoder encoder = encoder(new BlockingEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("secret"));
+    }
+
+    @Test
+    void encodeAll_ShouldHashInParallelAndKeepOrder() {
+        BoundedPasswordEncoder encoder = encoder(new SleepingEncoder(50), 4, 1, Duration.ofSeconds(5));
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            passwords.add("secret" + i);
+        }
+
+        long start = System.nanoTime();
+        List<String> hashes = encoder.encodeAll(passwords);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(passwords.stream().map(password -> "hash-" + password).toList(), hashes);
+        // 16 hashes of 50 ms take 800 ms one after another and about 200 ms over four threads
+        assertTrue(elapsedMillis < 500, "16 hashes took " + elapsedMillis + "ms");
+        assertEquals(0.0, meterRegistry.get(BoundedPasswordEncoder.REJECTED).counter().count());
+    }
+
+    /**
+     * Models Tomcat as a fixed pool of request threads serving a login storm with health probes mixed in. Hashing
+     * inline pins every request thread, so probes queue behind the storm; the bounded encoder rejects the excess
+     * logins at once and the probes are served.
+     */
+    @Test
+    void loginStorm_ShouldNotStarveHealthChecks() throws Exception {
+        PasswordEncoder bcryptLike = new SleepingEncoder(50);
+
+        long inline = maxHealthLatencyMillis(bcryptLike);
+        long bounded = maxHealthLatencyMillis(encoder(bcryptLike, 2, 2, Duration.ofSeconds(5)));
+
+        assertTrue(inline > 1_000, "inline hashing should starve probes, max latency " + inline + "ms");
+        assertTrue(bounded < 500, "bounded hashing should keep probes responsive, max latency " + bounded + "ms");
+    }
+
+    private long maxHealthLatencyMillis(PasswordEncoder encoder) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(8);
+        AtomicLong maxLatency = new AtomicLong();
+        List<Future<?>> requests = new ArrayList<>();
+        try {
+            for (int i = 0; i < 400; i++) {
+                requests.add(requestThreads.submit(() -> {
+                    try {
+                        encoder.matches("secret", "hash");
+                    } catch (PasswordHashingRejectedException e) {
+                        // served as 503 with Retry-After
+                    }
+                }));
+                if (i % 40 == 0) {
+                    long submitted = System.nanoTime();
+                    requests.add(requestThreads.submit(() -> maxLatency.accumulateAndGet(
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submitted), Math::max)));
+                }
+            }
+            for (Future<?> request : requests) {
+                request.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            requestThreads.shutdownNow();
+        }
+        return maxLatency.get();
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(BoundedPasswordEncoder.QUEUE_DEPTH).gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "queue never filled");
+            Thread.sleep(5);
+        }
+    }
+
+    private BoundedPasswordEncoder encoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, threads, queueCapacity, timeout, meterRegistry);
+        encoders.add(encoder);
+        return encoder;
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hash";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return true;
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record SleepingEncoder(long millis) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            sleep();
+            return "hash-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            sleep();
+            return true;
+        }
+
+        private void sleep() {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
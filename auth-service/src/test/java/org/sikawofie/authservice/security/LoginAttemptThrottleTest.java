@@ -0,0 +1,101 @@
+package org.sikawofie.authservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginAttemptThrottle throttle =
+            new LoginAttemptThrottle(Duration.ofMinutes(15), 15, 3, 10, 4, clock::get, meterRegistry);
+
+    @Test
+    void emailLimit_ShouldThrottleUntilOldestFailureLeavesWindow() {
+        throttle.recordFailure("alice@example.com", "198.51.100.1");
+        advance(Duration.ofMinutes(1));
+        throttle.recordFailure("Alice@Example.com", "198.51.100.2");
+        advance(Duration.ofMinutes(1));
+        assertEquals(0, throttle.retryAfterSeconds("alice@example.com", "198.51.100.3"));
+        throttle.recordFailure("alice@example.com", "198.51.100.3");
+
+        assertEquals(Duration.ofMinutes(13).toSeconds(), throttle.retryAfterSeconds("alice@example.com", "198.51.100.4"));
+        assertEquals(0, throttle.retryAfterSeconds("bob@example.com", "198.51.100.4"));
+
+        advance(Duration.ofMinutes(13));
+        assertEquals(0, throttle.retryAfterSeconds("alice@example.com", "198.51.100.4"));
+        assertEquals(1.0, meterRegistry.get(LoginAttemptThrottle.THROTTLED).tag("key", "email").counter().count());
+    }
+
+    @Test
+    void successfulLogin_ShouldClearEmailFailures() {
+        throttle.recordFailure("alice@example.com", "198.51.100.1");
+        throttle.recordFailure("alice@example.com", "198.51.100.1");
+
+        throttle.recordSuccess("alice@example.com");
+        throttle.recordFailure("alice@example.com", "198.51.100.1");
+
+        assertEquals(0, throttle.retryAfterSeconds("alice@example.com", "198.51.100.1"));
+    }
+
+    @Test
+    void clientLimit_ShouldSpanEmails() {
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "203.0.113.7");
+        }
+
+        assertTrue(throttle.retryAfterSeconds("fresh@example.com", "203.0.113.7") > 0);
+        assertEquals(0, throttle.retryAfterSeconds("fresh@example.com", "203.0.113.8"));
+        assertEquals(0, throttle.retryAfterSeconds("fresh@example.com", null));
+        assertEquals(1.0, meterRegistry.get(LoginAttemptThrottle.THROTTLED).tag("key", "client").counter().count());
+    }
+
+    @Test
+    void idleKeys_ShouldExpire() {
+        for (int i = 0; i < 100; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "203.0.113." + i);
+        }
+        assertEquals(100.0, meterRegistry.get(LoginAttemptThrottle.TRACKED).tag("key", "email").gauge().value());
+
+        advance(Duration.ofMinutes(31));
+        for (int i = 0; i < 100; i++) {
+            throttle.recordFailure("other" + i + "@example.com", "192.0.2." + i);
+        }
+
+        assertEquals(100.0, meterRegistry.get(LoginAttemptThrottle.TRACKED).tag("key", "email").gauge().value());
+        assertEquals(100.0, meterRegistry.get(LoginAttemptThrottle.TRACKED).tag("key", "client").gauge().value());
+    }
+
+    @Test
+    void concurrentFailures_ShouldAllBeCounted() throws InterruptedException {
+        SlidingWindowCounter counter = new SlidingWindowCounter(Duration.ofMinutes(15), 15, 4, clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    counter.increment("203.0.113.7");
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(8_000, counter.count("203.0.113.7"));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
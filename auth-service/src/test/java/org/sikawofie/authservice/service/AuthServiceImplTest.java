@@ -0,0 +1,223 @@
+package org.sikawofie.authservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sikawofie.authservice.dto.BulkRegisterResult;
+import org.sikawofie.authservice.dto.LoginRequest;
+import org.sikawofie.authservice.dto.RegisterRequest;
+import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.enums.Role;
+import org.sikawofie.authservice.exceptions.DuplicateUserException;
+import org.sikawofie.authservice.exceptions.LoginThrottledException;
+import org.sikawofie.authservice.principal.UserPrincipal;
+import org.sikawofie.authservice.principal.UserPrincipalCache;
+import org.sikawofie.authservice.repository.UserKeys;
+import org.sikawofie.authservice.repository.UserRepository;
+import org.sikawofie.authservice.security.LoginAttemptThrottle;
+import org.sikawofie.authservice.service.impl.AuthServiceImpl;
+import org.sikawofie.authservice.utils.JwtUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JwtUtils jwtUtils;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+    @Mock
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @InjectMocks
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hashed-" + inv.getArgument(0));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void register_ShouldCheckBothKeysInOneQuery() {
+        when(userRepository.findByEmailOrUsername("alice@example.com", "alice"))
+                .thenReturn(List.of(new Keys("other@example.com", "Alice")));
+
+        DuplicateUserException ex = assertThrows(DuplicateUserException.class,
+                () -> authService.register(request("alice", "alice@example.com")));
+
+        assertEquals("Username already taken", ex.getMessage());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).findByUsername(anyString());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void register_ShouldMapConstraintViolationFromConcurrentRegistration() {
+        when(userRepository.findByEmailOrUsername(anyString(), anyString())).thenReturn(List.of());
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("insert failed",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'alice' for key 'users.uk_users_username'")));
+
+        DuplicateUserException ex = assertThrows(DuplicateUserException.class,
+                () -> authService.register(request("alice", "alice@example.com")));
+
+        assertEquals("Username already taken", ex.getMessage());
+    }
+
+    @Test
+    void registerAll_ShouldSkipConflictsAndInsertTheRestInOneBatch() {
+        when(userRepository.findByEmailInOrUsernameIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(new Keys("taken@example.com", "someone")));
+
+        BulkRegisterResult result = authService.registerAll(List.of(
+                request("chef", "chef@example.com"),
+                request("waiter", "taken@example.com"),
+                request("cook", "CHEF@example.com"),
+                request("Someone", "new@example.com"),
+                request("host", "host@example.com")
+        ), Role.ROLE_RESTAURANT_OWNER);
+
+        assertEquals(2, result.created());
+        assertEquals("Email already registered", result.skipped().get("taken@example.com"));
+        assertEquals("Duplicate email in request", result.skipped().get("CHEF@example.com"));
+        assertEquals("Username already taken", result.skipped().get("new@example.com"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        assertArrayEquals(new Object[]{"chef@example.com", "chef", "hashed-secret1", "ROLE_RESTAURANT_OWNER"},
+                rows.getValue().get(0));
+        verify(userRepository, times(1)).findByEmailInOrUsernameIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void throttledLogin_ShouldSkipLookupAndHash() {
+        when(loginAttemptThrottle.retryAfterSeconds("alice@example.com", "203.0.113.7")).thenReturn(42L);
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> authService.login(login("alice@example.com", "guess"), "203.0.113.7"));
+
+        assertEquals(42L, ex.getRetryAfterSeconds());
+        verifyNoInteractions(userPrincipalCache, passwordEncoder);
+    }
+
+    @Test
+    void failedLogin_ShouldBeCounted() {
+        when(userPrincipalCache.get("alice@example.com")).thenReturn(principal("alice@example.com"));
+        when(passwordEncoder.matches("guess", "hash")).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class,
+                () -> authService.login(login("alice@example.com", "guess"), "203.0.113.7"));
+
+        verify(loginAttemptThrottle).recordFailure("alice@example.com", "203.0.113.7");
+    }
+
+    /**
+     * Replays a stuffing burst from one address over a list of leaked emails: after the address's failure
+     * budget is spent, every further attempt is turned away without a lookup or a hash, for microseconds of CPU.
+     */
+    @Test
+    void credentialStuffingBurst_ShouldBeRejectedCheaply() {
+        LoginAttemptThrottle throttle = new LoginAttemptThrottle(Duration.ofMinutes(15), 15, 5, 100, new SimpleMeterRegistry());
+        AuthServiceImpl service = new AuthServiceImpl(userRepository, passwordEncoder, jwtUtils, refreshTokenService,
+                jdbcTemplate, transactionTemplate, userPrincipalCache, tokenRevocationService, throttle);
+        when(userPrincipalCache.get(anyString())).thenAnswer(inv -> principal(inv.getArgument(0)));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        LoginRequest[] attempts = new LoginRequest[1_000];
+        for (int i = 0; i < attempts.length; i++) {
+            attempts[i] = login("victim" + i + "@example.com", "Summer2024!");
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            rejected += attempt(service, attempts[i % attempts.length]) ? 1 : 0;
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < 10_000; i++) {
+            rejected += attempt(service, attempts[i % attempts.length]) ? 1 : 0;
+        }
+        long cpuPerAttempt = (threads.getCurrentThreadCpuTime() - cpuStart) / 10_000;
+
+        assertTrue(cpuPerAttempt < 50_000, "CPU per throttled attempt " + cpuPerAttempt + " ns");
+        assertEquals(19_900, rejected);
+        verify(userPrincipalCache, times(100)).get(anyString());
+        verify(passwordEncoder, times(100)).matches(anyString(), anyString());
+    }
+
+    private static boolean attempt(AuthServiceImpl service, LoginRequest request) {
+        try {
+            service.login(request, "203.0.113.7");
+            return false;
+        } catch (LoginThrottledException e) {
+            return true;
+        } catch (BadCredentialsException e) {
+            return false;
+        }
+    }
+
+    private static LoginRequest login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+
+    private static UserPrincipal principal(String email) {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail(email);
+        user.setUsername("user");
+        user.setPassword("hash");
+        user.setRole(Role.ROLE_CUSTOMER);
+        return new UserPrincipal(user);
+    }
+
+    private static RegisterRequest request(String username, String email) {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("secret1");
+        return request;
+    }
+
+    private record Keys(String getEmail, String getUsername) implements UserKeys {
+    }
+}
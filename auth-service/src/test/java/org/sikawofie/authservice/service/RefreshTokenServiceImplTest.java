@@ -0,0 +1,110 @@
+package org.sikawofie.authservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sikawofie.authservice.entity.RefreshToken;
+import org.sikawofie.authservice.entity.User;
+import org.sikawofie.authservice.repository.RefreshTokenRepository;
+import org.sikawofie.authservice.service.impl.RefreshTokenServiceImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, Duration.ofDays(14), 2);
+        user = new User();
+        user.setId(42L);
+        user.setUsername("alice");
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHash() {
+        String token = refreshTokenService.issue(user);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals(64, saved.getValue().getTokenHash().length());
+        assertSame(user, saved.getValue().getUser());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(13))));
+    }
+
+    @Test
+    void rotate_ShouldConsumeTokenAndIssueReplacement() {
+        RefreshToken stored = stored(Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByIdReturningCount(7L)).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("presented");
+
+        assertSame(user, rotation.user());
+        assertNotEquals("presented", rotation.refreshToken());
+        verify(refreshTokenRepository).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_ShouldRejectTokenAlreadyUsedByConcurrentRefresh() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString()))
+                .thenReturn(Optional.of(stored(Instant.now().plusSeconds(60))));
+        when(refreshTokenRepository.deleteByIdReturningCount(7L)).thenReturn(0);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("presented"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_ShouldRejectExpiredAndUnknownTokens() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString()))
+                .thenReturn(Optional.of(stored(Instant.now().minusSeconds(1))))
+                .thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("expired"));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void purgeExpired_ShouldDeleteInBatchesUntilDrained() {
+        when(refreshTokenRepository.findExpiredIds(any(Instant.class), any(Pageable.class)))
+                .thenReturn(ids(1, 2), ids(3, 4), ids(5));
+
+        assertEquals(5, refreshTokenService.purgeExpired());
+        verify(refreshTokenRepository, times(3)).deleteAllByIdInBatch(anyList());
+    }
+
+    private RefreshToken stored(Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setId(7L);
+        token.setUser(user);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+
+    private static List<Long> ids(long... ids) {
+        return LongStream.of(ids).boxed().toList();
+    }
+}
@@ -0,0 +1,183 @@
+package org.sikawofie.authservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sikawofie.authservice.entity.RevokedToken;
+import org.sikawofie.authservice.producer.TokenRevocationPublisher;
+import org.sikawofie.authservice.repository.RevokedTokenKeys;
+import org.sikawofie.authservice.repository.RevokedTokenRepository;
+import org.sikawofie.authservice.security.SigningKeys;
+import org.sikawofie.authservice.service.impl.TokenRevocationServiceImpl;
+import org.sikawofie.authservice.utils.JwtUtils;
+import org.sikawofie.securitycommon.BloomFilter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    private static final SigningKeys KEYS = SigningKeys.generate();
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @Mock
+    private TokenRevocationPublisher publisher;
+
+    private final JwtUtils jwtUtils = new JwtUtils(() -> KEYS, 60_000);
+    private TokenRevocationServiceImpl revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationServiceImpl(revokedTokenRepository, publisher, jwtUtils, 1_000, 100_000, 0.001, 2,
+                Duration.ofMinutes(30));
+    }
+
+    @Test
+    void revoke_ShouldStoreTokenIdAndPublishDelta() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+        String tokenId = jwtUtils.parseToken(token).tokenId();
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(inv -> {
+            RevokedToken revoked = inv.getArgument(0);
+            revoked.setId(7L);
+            return revoked;
+        });
+
+        assertTrue(revocationService.revoke(token));
+
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertEquals(tokenId, saved.getValue().getTokenId());
+        verify(publisher).publishRevoked(eq(7L), eq(tokenId), eq(saved.getValue().getExpiresAt().getEpochSecond()));
+    }
+
+    @Test
+    void revokingTwice_ShouldPublishOnce() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertFalse(revocationService.revoke(token));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void expiredToken_ShouldNotBeStored() {
+        String token = new JwtUtils(() -> KEYS, -1_000).generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        assertFalse(revocationService.revoke(token));
+        verifyNoInteractions(revokedTokenRepository, publisher);
+    }
+
+    @Test
+    void forgedToken_ShouldBeRejected() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        assertThrows(BadCredentialsException.class, () -> revocationService.revoke(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void snapshot_ShouldHoldEveryLiveRevocation() {
+        when(revokedTokenRepository.findMaxId()).thenReturn(5L);
+        when(revokedTokenRepository.countByExpiresAtAfter(any(Instant.class))).thenReturn(3L);
+        when(revokedTokenRepository.findLiveAfter(eq(0L), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(keys(1L, "jti-1"), keys(2L, "jti-2")));
+        when(revokedTokenRepository.findLiveAfter(eq(2L), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(keys(5L, "jti-5")));
+
+        revocationService.publishSnapshot();
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(publisher).publishSnapshot(eq(5L), bytes.capture());
+        BloomFilter filter = BloomFilter.fromBytes(bytes.getValue());
+        assertTrue(filter.mightContain("jti-1"));
+        assertTrue(filter.mightContain("jti-2"));
+        assertTrue(filter.mightContain("jti-5"));
+    }
+
+    @Test
+    void unchangedDenylist_ShouldBeRepublishedWithoutRereadingTheTable() {
+        when(revokedTokenRepository.findMaxId()).thenReturn(1L);
+        when(revokedTokenRepository.countByExpiresAtAfter(any(Instant.class))).thenReturn(1L);
+        when(revokedTokenRepository.findLiveAfter(eq(0L), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(keys(1L, "jti-1")));
+
+        revocationService.publishSnapshot();
+        revocationService.publishSnapshot();
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(publisher, times(2)).publishSnapshot(eq(1L), bytes.capture());
+        assertSame(bytes.getAllValues().get(0), bytes.getAllValues().get(1));
+        verify(revokedTokenRepository, times(1)).findLiveAfter(anyLong(), any(Instant.class), any(Pageable.class));
+    }
+
+    @Test
+    void newRevocation_ShouldRebuildTheSnapshot() {
+        when(revokedTokenRepository.findMaxId()).thenReturn(1L, 2L);
+        when(revokedTokenRepository.countByExpiresAtAfter(any(Instant.class))).thenReturn(1L, 2L);
+        when(revokedTokenRepository.findLiveAfter(eq(0L), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(keys(1L, "jti-1")), List.of(keys(1L, "jti-1"), keys(2L, "jti-2")));
+        when(revokedTokenRepository.findLiveAfter(eq(2L), any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+
+        revocationService.publishSnapshot();
+        revocationService.publishSnapshot();
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(publisher).publishSnapshot(eq(2L), bytes.capture());
+        assertTrue(BloomFilter.fromBytes(bytes.getValue()).mightContain("jti-2"));
+    }
+
+    @Test
+    void newestRevocationExpiringFirst_ShouldNotLowerTheSequence() {
+        TokenRevocationServiceImpl alwaysRebuilding = new TokenRevocationServiceImpl(revokedTokenRepository, publisher,
+                jwtUtils, 1_000, 100_000, 0.001, 2, Duration.ZERO);
+        when(revokedTokenRepository.findMaxId()).thenReturn(3L);
+        when(revokedTokenRepository.countByExpiresAtAfter(any(Instant.class))).thenReturn(2L, 1L, 0L);
+        when(revokedTokenRepository.findLiveAfter(eq(0L), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(keys(1L, "jti-1"), keys(3L, "jti-3")), List.of(keys(1L, "jti-1")), List.of());
+        when(revokedTokenRepository.findLiveAfter(eq(3L), any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+
+        alwaysRebuilding.publishSnapshot();
+        alwaysRebuilding.publishSnapshot();
+        alwaysRebuilding.publishSnapshot();
+
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        verify(publisher, times(3)).publishSnapshot(eq(3L), bytes.capture());
+        assertFalse(BloomFilter.fromBytes(bytes.getAllValues().get(1)).mightContain("jti-3"));
+        assertFalse(BloomFilter.fromBytes(bytes.getAllValues().get(2)).mightContain("jti-1"));
+    }
+
+    @Test
+    void maxSnapshotBytes_ShouldFitTheLargestEncodedFilter() {
+        int limit = TokenRevocationServiceImpl.maxSnapshotBytes(10_000_000, 0.001);
+        long filterBytes = BloomFilter.sizeInBytes(20_000_000, 0.001);
+
+        assertTrue(limit > filterBytes * 4 / 3, limit + " bytes for a " + filterBytes + " byte filter");
+        assertTrue(limit < 50 * 1024 * 1024, limit + " bytes");
+    }
+
+    private static RevokedTokenKeys keys(long id, String tokenId) {
+        return new RevokedTokenKeys() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTokenId() {
+                return tokenId;
+            }
+        };
+    }
+}
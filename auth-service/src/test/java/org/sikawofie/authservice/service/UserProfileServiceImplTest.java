@@ -0,0 +1,75 @@
+package org.sikawofie.authservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sikawofie.authservice.dto.UserProfileResponse;
+import org.sikawofie.authservice.enums.Role;
+import org.sikawofie.authservice.repository.UserProfile;
+import org.sikawofie.authservice.repository.UserRepository;
+import org.sikawofie.authservice.service.impl.UserProfileServiceImpl;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserProfileServiceImpl userProfileService;
+
+    @Test
+    void findProfiles_ShouldIssueOneQueryForDistinctIds() {
+        when(userRepository.findByIdIn(any())).thenReturn(List.of(profile(1L, "alice"), profile(2L, "bob")));
+
+        List<UserProfileResponse> profiles = userProfileService.findProfiles(List.of(1L, 2L, 1L, 3L));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository, times(1)).findByIdIn(ids.capture());
+        assertEquals(List.of(1L, 2L, 3L), List.copyOf(ids.getValue()));
+        assertEquals(List.of(
+                new UserProfileResponse(1L, "alice", "alice@example.com", "ROLE_CUSTOMER"),
+                new UserProfileResponse(2L, "bob", "bob@example.com", "ROLE_CUSTOMER")), profiles);
+    }
+
+    @Test
+    void findProfiles_WithNoIds_ShouldNotQuery() {
+        assertTrue(userProfileService.findProfiles(List.of()).isEmpty());
+        verifyNoInteractions(userRepository);
+    }
+
+    private static UserProfile profile(Long id, String username) {
+        return new UserProfile() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return username + "@example.com";
+            }
+
+            @Override
+            public Role getRole() {
+                return Role.ROLE_CUSTOMER;
+            }
+        };
+    }
+}
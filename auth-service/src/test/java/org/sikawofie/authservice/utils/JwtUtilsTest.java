@@ -0,0 +1,103 @@
+package org.sikawofie.authservice.utils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.authservice.security.SigningKeys;
+import org.sikawofie.securitycommon.JwtVerifier;
+import org.sikawofie.securitycommon.Roles;
+import org.sikawofie.securitycommon.UserIdentity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final SigningKeys KEYS = SigningKeys.generate();
+
+    private final JwtUtils jwtUtils = new JwtUtils(() -> KEYS, 60_000);
+
+    @Test
+    void issuedToken_ShouldParseIntoAllClaims() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        TokenClaims claims = jwtUtils.parseToken(token);
+
+        assertEquals(42L, claims.userId());
+        assertEquals("alice", claims.username());
+        assertEquals("ROLE_CUSTOMER", claims.role());
+        assertEquals("alice@example.com", claims.email());
+        assertFalse(claims.isExpired(Instant.now()));
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void issuedTokens_ShouldCarryDistinctIds() {
+        TokenClaims first = jwtUtils.parseToken(jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com"));
+        TokenClaims second = jwtUtils.parseToken(jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com"));
+
+        assertNotNull(first.tokenId());
+        assertNotEquals(first.tokenId(), second.tokenId());
+    }
+
+    @Test
+    void validateToken_ShouldMatchUsername() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+        UserDetails alice = User.withUsername("alice").password("x").authorities(List.of()).build();
+        UserDetails bob = User.withUsername("bob").password("x").authorities(List.of()).build();
+
+        assertTrue(jwtUtils.validateToken(token, alice));
+        assertFalse(jwtUtils.validateToken(token, bob));
+        assertEquals("alice", jwtUtils.extractUsername(token));
+    }
+
+    @Test
+    void tamperedToken_ShouldBeRejected() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        assertThrows(JwtException.class, () -> jwtUtils.parseToken(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    @Test
+    void expiredToken_ShouldBeRejected() {
+        String token = new JwtUtils(() -> KEYS, -1_000).generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.parseToken(token));
+    }
+
+    @Test
+    void tokenFromUnknownKey_ShouldBeRejected() {
+        String token = new JwtUtils(SigningKeys::generate, 60_000).generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        assertThrows(JwtException.class, () -> jwtUtils.parseToken(token));
+    }
+
+    @Test
+    void tokenFromRetiredKey_ShouldStillParseAfterRotation() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+        SigningKeys next = SigningKeys.generate();
+        SigningKeys rotated = new SigningKeys(next.signingKeyId(), next.signingKey(),
+                Map.of(KEYS.signingKeyId(), KEYS.verificationKeys().get(KEYS.signingKeyId()),
+                        next.signingKeyId(), next.verificationKeys().get(next.signingKeyId())),
+                next.jwks());
+
+        assertEquals("alice", new JwtUtils(() -> rotated, 60_000).parseToken(token).username());
+    }
+
+    @Test
+    void issuedToken_ShouldVerifyWithPublishedKeys() {
+        String token = jwtUtils.generateToken(42L, "alice", "ROLE_CUSTOMER", "alice@example.com");
+
+        UserIdentity identity = new JwtVerifier(KEYS.verificationKeys()::get).verify(token, Instant.now().getEpochSecond());
+
+        assertNotNull(identity);
+        assertEquals(42L, identity.userId());
+        assertEquals("alice", identity.username());
+        assertEquals(Roles.CUSTOMER, identity.roleMask());
+    }
+}
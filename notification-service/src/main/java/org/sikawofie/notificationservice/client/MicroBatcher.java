@@ -0,0 +1,90 @@
+package org.sikawofie.notificationservice.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Merges single-key lookups issued within {@code window} of each other into one call to {@code loader}. A batch
+ * is sent when the window closes or when it reaches {@code maxBatchSize}, whichever comes first; concurrent
+ * lookups of the same key share one future. Keys the loader does not return complete with {@code null}.
+ */
+public class MicroBatcher<K, V> implements AutoCloseable {
+
+    private final Function<Set<K>, Map<K, V>> loader;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Object lock = new Object();
+    private Map<K, CompletableFuture<V>> pending = new HashMap<>();
+
+    public MicroBatcher(String name, Function<Set<K>, Map<K, V>> loader, Duration window, int maxBatchSize, int threads) {
+        this.loader = loader;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-batcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    public CompletableFuture<V> get(K key) {
+        Map<K, CompletableFuture<V>> full = null;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            } else if (pending.size() == 1) {
+                Map<K, CompletableFuture<V>> batch = pending;
+                executor.schedule(() -> flushIfPending(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            Map<K, CompletableFuture<V>> batch = full;
+            executor.execute(() -> load(batch));
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void flushIfPending(Map<K, CompletableFuture<V>> batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                // already sent because it filled up
+                return;
+            }
+            pending = new HashMap<>();
+        }
+        load(batch);
+    }
+
+    private void load(Map<K, CompletableFuture<V>> batch) {
+        try {
+            Map<K, V> loaded = loader.apply(batch.keySet());
+            batch.forEach((key, future) -> future.complete(loaded.get(key)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
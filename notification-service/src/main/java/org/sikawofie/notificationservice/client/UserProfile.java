@@ -0,0 +1,7 @@
+package org.sikawofie.notificationservice.client;
+
+/**
+ * Profile of a user as served by auth-service's {@code POST /auth/users/batch}.
+ */
+public record UserProfile(Long id, String username, String email, String role) {
+}
@@ -0,0 +1,84 @@
+package org.sikawofie.notificationservice.client;
+
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.sikawofie.securitycommon.Roles;
+import org.sikawofie.securitycommon.UserIdentity;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Looks users up in auth-service. Single lookups from concurrent event handlers are merged by a
+ * {@link MicroBatcher} into {@code POST /auth/users/batch} calls, so enriching N events costs a handful of
+ * requests and {@code IN} queries instead of N.
+ */
+@Component
+public class UserProfileClient implements DisposableBean {
+
+    private static final ParameterizedTypeReference<List<UserProfile>> PROFILES = new ParameterizedTypeReference<>() {
+    };
+    private static final long SERVICE_IDENTITY_TTL_SECONDS = 60;
+
+    private final RestClient restClient;
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final int maxBatchSize;
+    private final MicroBatcher<Long, UserProfile> batcher;
+
+    public UserProfileClient(RestClient.Builder loadBalancedRestClientBuilder,
+                             IdentityHeaderCodec identityHeaderCodec,
+                             @Value("${notification.user-lookup.window:5ms}") Duration window,
+                             @Value("${notification.user-lookup.max-batch-size:1000}") int maxBatchSize,
+                             @Value("${notification.user-lookup.threads:2}") int threads) {
+        this.restClient = loadBalancedRestClientBuilder.baseUrl("http://auth-service").build();
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.maxBatchSize = maxBatchSize;
+        this.batcher = new MicroBatcher<>("user-lookup", this::findUsers, window, maxBatchSize, threads);
+    }
+
+    /**
+     * Completes with the user's profile, or {@code null} if auth-service does not know the id.
+     */
+    public CompletableFuture<UserProfile> findUser(Long userId) {
+        return batcher.get(userId);
+    }
+
+    public Map<Long, UserProfile> findUsers(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(Set.copyOf(userIds));
+        Map<Long, UserProfile> profiles = new HashMap<>(ids.size() * 2);
+        String identity = serviceIdentity();
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<UserProfile> page = restClient.post()
+                    .uri("/auth/users/batch")
+                    .header(IdentityHeaderCodec.HEADER, identity)
+                    .body(Map.of("ids", ids.subList(from, Math.min(from + maxBatchSize, ids.size()))))
+                    .retrieve()
+                    .body(PROFILES);
+            if (page != null) {
+                page.forEach(profile -> profiles.put(profile.id(), profile));
+            }
+        }
+        return profiles;
+    }
+
+    @Override
+    public void destroy() {
+        batcher.close();
+    }
+
+    private String serviceIdentity() {
+        long now = System.currentTimeMillis() / 1000;
+        return identityHeaderCodec.encode(
+                new UserIdentity(0L, "notification-service", "", Roles.SERVICE, now + SERVICE_IDENTITY_TTL_SECONDS));
+    }
+}
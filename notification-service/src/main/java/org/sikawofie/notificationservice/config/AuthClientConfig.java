@@ -0,0 +1,27 @@
+package org.sikawofie.notificationservice.config;
+
+import org.sikawofie.securitycommon.IdentityHeaderCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+@Configuration
+public class AuthClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public RestClient.Builder loadBalancedRestClientBuilder() {
+        return RestClient.builder();
+    }
+
+    /**
+     * Signs the service identity this service presents to auth-service.
+     */
+    @Bean
+    public IdentityHeaderCodec identityHeaderCodec(
+            @Value("${identity.header.secret}") String secret) {
+        return IdentityHeaderCodec.fromSecret(secret);
+    }
+}
@@ -2,6 +2,7 @@ package org.sikawofie.notificationservice.consumer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.notificationservice.client.UserProfileClient;
 import org.sikawofie.notificationservice.event.OrderPlacedEvent;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
@@ -11,10 +12,25 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class NotificationListener {
 
+    private final UserProfileClient userProfileClient;
+
     @KafkaListener(topics = "order-placed-topic", containerFactory = "kafkaListenerContainerFactory")
     public void onOrderPlaced(OrderPlacedEvent event) {
         log.info("📥 Received order event: Order ID={}, Customer ID={}, Status={}",
                 event.getOrderId(), event.getCustomerId(), event.getStatus());
-//         emailService.sendOrderNotification(event, event.getEmail());
+        if (event.getCustomerId() == null) {
+            return;
+        }
+        // Not awaited, so lookups for the events of one poll are merged into a single batch call.
+        userProfileClient.findUser(event.getCustomerId()).whenComplete((customer, error) -> {
+            if (error != null) {
+                log.warn("Could not look up customer {} for order {}: {}", event.getCustomerId(), event.getOrderId(), error.getMessage());
+            } else if (customer == null || customer.email() == null) {
+                log.warn("No email on record for customer {} of order {}", event.getCustomerId(), event.getOrderId());
+            } else {
+                log.debug("Resolved recipient for order {}", event.getOrderId());
+//                emailService.sendOrderNotification(event, customer.email());
+            }
+        });
     }
-}
\ No newline at end of file
+}
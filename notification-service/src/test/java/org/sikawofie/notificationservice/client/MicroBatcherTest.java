@@ -0,0 +1,100 @@
+package org.sikawofie.notificationservice.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroBatcherTest {
+
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+    private final List<MicroBatcher<Long, String>> batchers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        batchers.forEach(MicroBatcher::close);
+    }
+
+    @Test
+    void lookupsWithinWindow_ShouldShareOneCall() throws Exception {
+        MicroBatcher<Long, String> batcher = batcher(names(), Duration.ofMillis(50), 100);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            futures.add(batcher.get(id));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("user-" + (i + 1), futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, batches.size());
+        assertEquals(20, batches.get(0).size());
+    }
+
+    @Test
+    void fullBatch_ShouldBeSentWithoutWaitingForWindow() throws Exception {
+        MicroBatcher<Long, String> batcher = batcher(names(), Duration.ofSeconds(30), 3);
+
+        CompletableFuture<String> first = batcher.get(1L);
+        batcher.get(2L);
+        batcher.get(3L);
+        CompletableFuture<String> fourth = batcher.get(4L);
+
+        assertEquals("user-1", first.get(1, TimeUnit.SECONDS));
+        assertFalse(fourth.isDone());
+        assertEquals(List.of(Set.of(1L, 2L, 3L)), batches);
+    }
+
+    @Test
+    void duplicateKeys_ShouldShareOneFuture() {
+        MicroBatcher<Long, String> batcher = batcher(names(), Duration.ofMillis(50), 100);
+
+        assertSame(batcher.get(7L), batcher.get(7L));
+    }
+
+    @Test
+    void unknownKey_ShouldCompleteWithNull() throws Exception {
+        MicroBatcher<Long, String> batcher = batcher(ids -> Map.of(), Duration.ofMillis(1), 100);
+
+        assertNull(batcher.get(99L).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedLoad_ShouldFailEveryLookupInBatch() {
+        MicroBatcher<Long, String> batcher = batcher(ids -> {
+            throw new IllegalStateException("auth-service unavailable");
+        }, Duration.ofMillis(10), 100);
+
+        CompletableFuture<String> first = batcher.get(1L);
+        CompletableFuture<String> second = batcher.get(2L);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+    }
+
+    private Function<Set<Long>, Map<Long, String>> names() {
+        return ids -> ids.stream().collect(Collectors.toMap(id -> id, id -> "user-" + id));
+    }
+
+    private MicroBatcher<Long, String> batcher(Function<Set<Long>, Map<Long, String>> loader, Duration window, int maxBatchSize) {
+        MicroBatcher<Long, String> batcher = new MicroBatcher<>("test", ids -> {
+            batches.add(Set.copyOf(ids));
+            return loader.apply(ids);
+        }, window, maxBatchSize, 2);
+        batchers.add(batcher);
+        return batcher;
+    }
+}
@@ -1,22 +1,27 @@
 package org.sikawofie.orderservice.config;
 
+import org.sikawofie.orderservice.security.AuthUser;
+import org.sikawofie.securitycommon.AuthUserFactory;
+import org.sikawofie.securitycommon.HeaderAuthFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
     @Bean
-    public HeaderAuthFilter headerAuthFilter() {
-        return new HeaderAuthFilter();
+    public AuthUserFactory authUserFactory() {
+        return identity -> new AuthUser(identity.userId(), identity.email());
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, HeaderAuthFilter headerAuthFilter) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -29,7 +34,9 @@ public class SecurityConfig {
                         ).permitAll()
                                 .anyRequest().authenticated()
                 )
-                .addFilterBefore(headerAuthFilter(), BasicAuthenticationFilter.class);
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(headerAuthFilter, BasicAuthenticationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,64 @@
+package org.sikawofie.restaurantservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Per-restaurant cache of menus already serialized to JSON, bounded by the bytes it holds. Entries are never
+ * updated in place: a menu change invalidates the restaurant and the next read serializes it again.
+ * <p>
+ * A load runs inside the cache's compute for that restaurant, and an invalidation arriving meanwhile waits for
+ * it and then removes its result, so a menu read just before a write can never outlive that write's eviction.
+ * Entries also expire {@code ttl} after they were loaded, which bounds how long a lost invalidation event from
+ * another replica can keep a stale menu here.
+ */
+@Component
+public class MenuCache {
+
+    // Rough cost of the key, the entry and its headers, so that empty menus still count against the bound
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Cache<Long, Versioned<byte[]>> cache;
+
+    public MenuCache(@Value("${restaurant.menu-cache.max-size:64MB}") DataSize maxSize,
+                     @Value("${restaurant.menu-cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this(maxSize, ttl, Ticker.systemTicker(), meterRegistry);
+    }
+
+    MenuCache(DataSize maxSize, Duration ttl, Ticker ticker, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long restaurantId, Versioned<byte[]> menu) -> ENTRY_OVERHEAD + menu.data().length)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "restaurant.menus");
+    }
+
+    /**
+     * The cached JSON for {@code restaurantId} and the version it was read at, loaded by {@code loader} on a miss.
+     * Callers must not modify it.
+     */
+    public Versioned<byte[]> get(Long restaurantId, Function<Long, Versioned<byte[]>> loader) {
+        return cache.get(restaurantId, loader);
+    }
+
+    public void invalidate(Long restaurantId) {
+        cache.invalidate(restaurantId);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
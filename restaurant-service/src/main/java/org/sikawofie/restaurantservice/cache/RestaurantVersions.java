@@ -0,0 +1,93 @@
+package org.sikawofie.restaurantservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Latest known content version of each restaurant, so conditional GETs can be answered without the database.
+ * <p>
+ * Versions live in the restaurant row and only go up. This instance learns them from its own writes, from
+ * restaurant change events and from the rows it reads, and always keeps the highest it has seen. Content must
+ * be read after its version is taken: an ETag may then understate its content, which costs a client one extra
+ * full response, but can never claim content newer than it carries.
+ * <p>
+ * A version is forgotten {@code ttl} after it was recorded and read from the database again on the next
+ * request, so a lost change event can only cause stale 304s for that long.
+ */
+@Component
+public class RestaurantVersions {
+
+    private final RestaurantRepository restaurantRepository;
+    private final Cache<Long, Long> versions;
+
+    public RestaurantVersions(RestaurantRepository restaurantRepository,
+                              @Value("${restaurant.versions.ttl:5m}") Duration ttl) {
+        this(restaurantRepository, ttl, Ticker.systemTicker());
+    }
+
+    RestaurantVersions(RestaurantRepository restaurantRepository, Duration ttl, Ticker ticker) {
+        this.restaurantRepository = restaurantRepository;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    public OptionalLong known(Long restaurantId) {
+        Long version = versions.getIfPresent(restaurantId);
+        return version != null ? OptionalLong.of(version) : OptionalLong.empty();
+    }
+
+    /**
+     * The known version, or the stored one the first time this restaurant is asked for; 0 if it does not exist.
+     */
+    public long current(Long restaurantId) {
+        Long version = versions.getIfPresent(restaurantId);
+        if (version != null) {
+            return version;
+        }
+        Optional<Long> stored = restaurantRepository.findContentVersionById(restaurantId);
+        stored.ifPresent(value -> record(restaurantId, value));
+        return stored.orElse(0L);
+    }
+
+    public void record(Long restaurantId, long version) {
+        versions.asMap().merge(restaurantId, version, Math::max);
+    }
+
+    public static String restaurantETag(Long restaurantId, long version) {
+        return "\"restaurant-" + restaurantId + "-" + version + "\"";
+    }
+
+    public static String menuETag(Long restaurantId, long version) {
+        return "\"menu-" + restaurantId + "-" + version + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value matches {@code etag}, using the weak comparison RFC 9110
+     * prescribes for it.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
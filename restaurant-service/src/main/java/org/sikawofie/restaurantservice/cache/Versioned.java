@@ -0,0 +1,7 @@
+package org.sikawofie.restaurantservice.cache;
+
+/**
+ * A value together with the restaurant content version it was read at or after.
+ */
+public record Versioned<T>(T data, long version) {
+}
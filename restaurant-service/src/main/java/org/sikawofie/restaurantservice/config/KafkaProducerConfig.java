@@ -0,0 +1,38 @@
+package org.sikawofie.restaurantservice.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.sikawofie.restaurantservice.event.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+@Configuration
+public class KafkaProducerConfig {
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ProducerFactory<String, RestaurantChangedEvent> restaurantChangedProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(
+                Map.of(
+                        ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                        ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                        ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class,
+                        JsonSerializer.ADD_TYPE_INFO_HEADERS, false,
+                        ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000
+                )
+        );
+    }
+
+    @Bean
+    public KafkaTemplate<String, RestaurantChangedEvent> restaurantChangedKafkaTemplate() {
+        return new KafkaTemplate<>(restaurantChangedProducerFactory());
+    }
+}
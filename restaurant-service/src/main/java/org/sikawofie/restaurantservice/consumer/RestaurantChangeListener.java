@@ -0,0 +1,39 @@
+package org.sikawofie.restaurantservice.consumer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.restaurantservice.cache.MenuCache;
+import org.sikawofie.restaurantservice.cache.RestaurantVersions;
+import org.sikawofie.restaurantservice.event.RestaurantChangedEvent;
+import org.sikawofie.restaurantservice.producer.RestaurantEventPublisher;
+import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.sikawofie.restaurantservice.search.RestaurantSearchIndex;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RestaurantChangeListener {
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantSearchIndex searchIndex;
+    private final MenuCache menuCache;
+    private final RestaurantVersions versions;
+
+    @KafkaListener(topics = RestaurantEventPublisher.RESTAURANT_CHANGED_TOPIC, containerFactory = "searchIndexListenerContainerFactory")
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.getRestaurantId() == null) {
+            return;
+        }
+        // Cache first: once the new version is visible, no reader may still find the old menu
+        menuCache.invalidate(event.getRestaurantId());
+        if (event.getVersion() != null) {
+            versions.record(event.getRestaurantId(), event.getVersion());
+        }
+        if ("MENU_ITEM_ADDED".equals(event.getChangeType())) {
+            return;
+        }
+        log.debug("Re-indexing restaurant {} after {}", event.getRestaurantId(), event.getChangeType());
+        restaurantRepository.findById(event.getRestaurantId()).ifPresent(searchIndex::put);
+    }
+}
@@ -12,18 +12,25 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.sikawofie.restaurantservice.cache.RestaurantVersions;
+import org.sikawofie.restaurantservice.cache.Versioned;
 import org.sikawofie.restaurantservice.dto.*;
 import org.sikawofie.restaurantservice.enums.RestaurantStatus;
 import org.sikawofie.restaurantservice.service.RestaurantService;
 import org.sikawofie.restaurantservice.utils.SecurityUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalLong;
 
 @RestController
 @RequestMapping("/api/restaurant/")
@@ -32,8 +39,12 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class RestaurantController {
 
+    private static final byte[] MENU_RETRIEVED =
+            "{\"status\":200,\"message\":\"Menu retrieved\",\"data\":".getBytes(StandardCharsets.UTF_8);
+
     private final RestaurantService service;
     private final SecurityUtils securityUtils;
+    private final RestaurantVersions versions;
     private <T> ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<T>> buildResponse(HttpStatus status, String message, T data) {
         return ResponseEntity.status(status)
                 .body(org.sikawofie.restaurantservice.dto.ApiResponse.<T>builder()
@@ -44,6 +55,19 @@ public class RestaurantController {
                         .build());
     }
 
+    /**
+     * The {@link org.sikawofie.restaurantservice.dto.ApiResponse} envelope around {@code data} that is already
+     * JSON, so cached payloads are copied into the response instead of being serialized again.
+     */
+    private static byte[] envelope(byte[] head, byte[] data) {
+        byte[] tail = (",\"timestamp\":\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.now()) + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] body = Arrays.copyOf(head, head.length + data.length + tail.length);
+        System.arraycopy(data, 0, body, head.length, data.length);
+        System.arraycopy(tail, 0, body, head.length + data.length, tail.length);
+        return body;
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'OWNER')")
     @Operation(
@@ -115,7 +139,8 @@ public class RestaurantController {
     @GetMapping
     @Operation(
             summary = "Get all restaurants",
-            description = "Retrieves a list of all restaurants (active and inactive)"
+            description = "Retrieves restaurants (active and inactive) in ID order, one page at a time. "
+                    + "Pass the returned nextCursor back to fetch the following page; it is null on the last page."
     )
     @ApiResponse(
             responseCode = "200",
@@ -127,33 +152,43 @@ public class RestaurantController {
                     {
                       "status": 200,
                       "message": "Restaurants retrieved",
-                      "data": [
-                        {
-                          "id": 15,
-                          "name": "Gourmet Paradise",
-                          "status": "ACTIVE",
-                          "address": "789 Food Street, Culinary City"
-                        },
-                        {
-                          "id": 16,
-                          "name": "Burger World",
-                          "status": "ACTIVE",
-                          "address": "123 Fast Food Ave"
-                        }
-                      ],
+                      "data": {
+                        "items": [
+                          {
+                            "id": 15,
+                            "name": "Gourmet Paradise",
+                            "status": "ACTIVE",
+                            "location": "789 Food Street, Culinary City",
+                            "menuItems": []
+                          },
+                          {
+                            "id": 16,
+                            "name": "Burger World",
+                            "status": "ACTIVE",
+                            "location": "123 Fast Food Ave",
+                            "menuItems": []
+                          }
+                        ],
+                        "nextCursor": "MTY"
+                      },
                       "timestamp": "2023-10-05T15:30:00"
                     }"""
                     )
             )
     )
-    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<List<RestaurantResponseDto>>> getAll() {
-        return buildResponse(HttpStatus.OK, "Restaurants retrieved", service.getAll());
+    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<RestaurantPageDto>> getAll(
+            @Parameter(description = "Continuation token from the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, capped at 100")
+            @RequestParam(defaultValue = "20") int size) {
+        return buildResponse(HttpStatus.OK, "Restaurants retrieved", service.getAll(cursor, size));
     }
 
     @GetMapping("/{id}/menu")
     @Operation(
             summary = "Get restaurant menu",
-            description = "Retrieves the full menu for a specific restaurant",
+            description = "Retrieves the full menu for a specific restaurant. Send the ETag of a previous response "
+                    + "in If-None-Match to get 304 while the menu is unchanged",
             parameters = @Parameter(
                     name = "id",
                     description = "ID of the restaurant",
@@ -193,13 +228,30 @@ public class RestaurantController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Unchanged since the ETag sent in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Restaurant not found"
             )
     })
-    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<List<MenuItemResponseDto>>> getMenu(@PathVariable Long id) {
-        return buildResponse(HttpStatus.OK, "Menu retrieved", service.getMenu(id));
+    public ResponseEntity<byte[]> getMenu(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        OptionalLong known = versions.known(id);
+        if (known.isPresent()) {
+            String etag = RestaurantVersions.menuETag(id, known.getAsLong());
+            if (RestaurantVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        Versioned<byte[]> menu = service.getMenuJson(id);
+        return ResponseEntity.ok()
+                .eTag(RestaurantVersions.menuETag(id, menu.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(envelope(MENU_RETRIEVED, menu.data()));
     }
 
     @PostMapping("/{id}/menu")
@@ -461,7 +513,8 @@ public class RestaurantController {
     @GetMapping("/{id}")
     @Operation(
             summary = "Get restaurant by ID",
-            description = "Retrieve detailed information for a specific restaurant",
+            description = "Retrieve detailed information for a specific restaurant. Send the ETag of a previous "
+                    + "response in If-None-Match to get 304 while the restaurant is unchanged",
             parameters = @Parameter(
                     name = "id",
                     description = "ID of the restaurant",
@@ -495,13 +548,31 @@ public class RestaurantController {
                             )
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Unchanged since the ETag sent in If-None-Match"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Restaurant not found"
             )
     })
-    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<RestaurantDTO>> getById(@PathVariable Long id) {
-        return buildResponse(HttpStatus.OK, "Restaurant retrieved", service.getRestaurantById(id));
+    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<RestaurantDTO>> getById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        OptionalLong known = versions.known(id);
+        if (known.isPresent()) {
+            String etag = RestaurantVersions.restaurantETag(id, known.getAsLong());
+            if (RestaurantVersions.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        Versioned<RestaurantDTO> restaurant = service.getRestaurantWithVersion(id);
+        ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<RestaurantDTO>> response =
+                buildResponse(HttpStatus.OK, "Restaurant retrieved", restaurant.data());
+        return ResponseEntity.ok()
+                .eTag(RestaurantVersions.restaurantETag(id, restaurant.version()))
+                .body(response.getBody());
     }
 
     @GetMapping("/owner")
@@ -555,7 +626,8 @@ public class RestaurantController {
     @GetMapping("/search/name")
     @Operation(
             summary = "Search restaurants by name",
-            description = "Find restaurants by name match",
+            description = "Find restaurants by name match. Returns the best matches only, at most "
+                    + "restaurant.search.max-results (50 by default), best first and unpaginated",
             parameters = @Parameter(
                     name = "name",
                     description = "Name or partial name to search",
@@ -592,7 +664,8 @@ public class RestaurantController {
     @GetMapping("/search/address")
     @Operation(
             summary = "Search restaurants by address",
-            description = "Find restaurants by address match",
+            description = "Find restaurants by address match. Returns the best matches only, at most "
+                    + "restaurant.search.max-results (50 by default), best first and unpaginated",
             parameters = @Parameter(
                     name = "address",
                     description = "Address or partial address to search",
@@ -630,4 +703,45 @@ public class RestaurantController {
     public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<List<RestaurantDTO>>> searchByAddress(@RequestParam String address) {
         return buildResponse(HttpStatus.OK, "Search by address results", service.searchRestaurantsByAddress(address));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/autocomplete")
+    @Operation(
+            summary = "Autocomplete restaurant and dish names",
+            description = "Suggests active restaurants and dishes with a word starting with the typed prefix, "
+                    + "most ordered first. Served from memory, so it is safe to call on every keystroke."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Suggestions retrieved successfully",
+            content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    examples = @ExampleObject(
+                            value = """
+                    {
+                      "status": 200,
+                      "message": "Autocomplete suggestions",
+                      "data": [
+                        {
+                          "text": "Jollof Rice",
+                          "type": "DISH",
+                          "restaurantId": null
+                        },
+                        {
+                          "text": "Golden Jollof Kitchen",
+                          "type": "RESTAURANT",
+                          "restaurantId": 15
+                        }
+                      ],
+                      "timestamp": "2023-10-05T15:30:00"
+                    }"""
+                    )
+            )
+    )
+    public ResponseEntity<org.sikawofie.restaurantservice.dto.ApiResponse<List<AutocompleteSuggestionDto>>> autocomplete(
+            @Parameter(description = "What has been typed so far", example = "jol")
+            @RequestParam String q,
+            @Parameter(description = "Number of suggestions, capped at 20")
+            @RequestParam(defaultValue = "10") int limit) {
+        return buildResponse(HttpStatus.OK, "Autocomplete suggestions", service.autocomplete(q, limit));
+    }
+}
@@ -0,0 +1,19 @@
+package org.sikawofie.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class AutocompleteSuggestionDto {
+    private String text;
+    // RESTAURANT or DISH
+    private String type;
+    // Set for restaurants, and for dishes only one restaurant serves
+    private Long restaurantId;
+}
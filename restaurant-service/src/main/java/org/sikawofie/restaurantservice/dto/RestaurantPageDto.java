@@ -0,0 +1,19 @@
+package org.sikawofie.restaurantservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class RestaurantPageDto {
+    private List<RestaurantResponseDto> items;
+    // Opaque token for the next page; null once the last page has been returned
+    private String nextCursor;
+}
@@ -43,6 +43,15 @@ public class Restaurant {
     @Column(nullable = false)
     private Long ownerId;
 
+    // Orders placed with this restaurant, counted from order events; ranks autocomplete suggestions.
+    // Only changed by atomic update queries, so saving a loaded entity never writes back a stale count.
+    @Column(nullable = false, columnDefinition = "bigint default 0", insertable = false, updatable = false)
+    private long orderCount;
+
+    // Bumped on every change to the restaurant or its menu; source of the ETags on both
+    @Column(nullable = false, columnDefinition = "bigint default 0", insertable = false, updatable = false)
+    private long contentVersion;
+
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private List<MenuItem> menuItems;
 }
@@ -0,0 +1,17 @@
+package org.sikawofie.restaurantservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RestaurantChangedEvent {
+    private Long restaurantId;
+    private String changeType;
+    // Content version after the change; null for changes that do not alter what GETs return
+    private Long version;
+}
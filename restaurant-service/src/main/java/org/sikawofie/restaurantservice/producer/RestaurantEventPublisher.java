@@ -0,0 +1,29 @@
+package org.sikawofie.restaurantservice.producer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.restaurantservice.event.RestaurantChangedEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RestaurantEventPublisher {
+    public static final String RESTAURANT_CHANGED_TOPIC = "restaurant-changed-topic";
+
+    private final KafkaTemplate<String, RestaurantChangedEvent> kafkaTemplate;
+
+    public void publishChange(Long restaurantId, String changeType) {
+        publishChange(restaurantId, changeType, null);
+    }
+
+    public void publishChange(Long restaurantId, String changeType, Long version) {
+        try {
+            kafkaTemplate.send(RESTAURANT_CHANGED_TOPIC, String.valueOf(restaurantId),
+                    new RestaurantChangedEvent(restaurantId, changeType, version));
+        } catch (Exception e) {
+            log.warn("Failed to publish {} event for restaurant {}: {}", changeType, restaurantId, e.getMessage());
+        }
+    }
+}
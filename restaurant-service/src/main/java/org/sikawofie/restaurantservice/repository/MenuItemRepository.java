@@ -1,10 +1,31 @@
 package org.sikawofie.restaurantservice.repository;
 
 import org.sikawofie.restaurantservice.entity.MenuItem;
+import org.sikawofie.restaurantservice.enums.RestaurantStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurantId(Long restaurantId);
-}
\ No newline at end of file
+
+    @Query("""
+            select m.restaurant.id as restaurantId, m.id as id, m.name as name,
+                   m.description as description, m.price as price
+            from MenuItem m
+            where m.restaurant.id in :restaurantIds
+            order by m.restaurant.id, m.id""")
+    List<MenuItemRow> findRowsByRestaurantIdIn(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    @Query("""
+            select m.restaurant.id as restaurantId, m.id as id, m.name as name,
+                   m.description as description, m.price as price
+            from MenuItem m
+            where m.id > :afterId and m.restaurant.status = :status
+            order by m.id""")
+    List<MenuItemRow> findRowsAfter(@Param("afterId") Long afterId, @Param("status") RestaurantStatus status, Pageable page);
+}
@@ -0,0 +1,17 @@
+package org.sikawofie.restaurantservice.repository;
+
+/**
+ * Menu item columns plus the owning restaurant id, read without loading the (eager) restaurant association.
+ */
+public interface MenuItemRow {
+
+    Long getRestaurantId();
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Double getPrice();
+}
@@ -0,0 +1,10 @@
+package org.sikawofie.restaurantservice.repository;
+
+public interface RestaurantNameRow {
+
+    Long getId();
+
+    String getName();
+
+    long getOrderCount();
+}
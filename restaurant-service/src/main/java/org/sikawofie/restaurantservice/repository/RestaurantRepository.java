@@ -2,8 +2,14 @@ package org.sikawofie.restaurantservice.repository;
 
 import org.sikawofie.restaurantservice.entity.Restaurant;
 import org.sikawofie.restaurantservice.enums.RestaurantStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,4 +31,27 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
     // NEW: Find all restaurants by status
     List<Restaurant> findByStatus(RestaurantStatus status);
+
+    // Keyset page: seeks the primary key index, so every page costs the same however deep it is
+    List<Restaurant> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @Query("""
+            select r.id as id, r.name as name, r.orderCount as orderCount
+            from Restaurant r
+            where r.id > :afterId and r.status = :status
+            order by r.id""")
+    List<RestaurantNameRow> findNamesAfter(@Param("afterId") Long afterId, @Param("status") RestaurantStatus status, Pageable page);
+
+    @Modifying
+    @Transactional
+    @Query("update Restaurant r set r.orderCount = r.orderCount + 1 where r.id = :id")
+    int incrementOrderCount(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update Restaurant r set r.contentVersion = r.contentVersion + 1 where r.id = :id")
+    int incrementContentVersion(@Param("id") Long id);
+
+    @Query("select r.contentVersion from Restaurant r where r.id = :id")
+    Optional<Long> findContentVersionById(@Param("id") Long id);
 }
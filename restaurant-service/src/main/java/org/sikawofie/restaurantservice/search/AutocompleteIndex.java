@@ -0,0 +1,434 @@
+package org.sikawofie.restaurantservice.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable prefix index answering "the K most popular names with a word starting with q".
+ * <p>
+ * The trie is flattened: names are normalized into one UTF-8 blob, every word start in it is a key, and the keys
+ * are sorted by the text that follows them, so the subtree under any prefix is a contiguous key range found with
+ * two binary searches. Starting keys at every word lets "jollof" complete "Golden Jollof Kitchen" as well. A
+ * range-max tree over blocks of {@value #BLOCK} keys then pulls the top K out of that range without visiting the
+ * rest of it.
+ * <p>
+ * A key costs a little over 8 bytes (its text position and its weight); an entry costs its normalized and display
+ * text plus 17 bytes. Instances never change once built; {@link RestaurantAutocomplete} swaps whole instances.
+ */
+public final class AutocompleteIndex {
+
+    public enum Type {
+        RESTAURANT,
+        DISH
+    }
+
+    public record Suggestion(String text, Type type, Long restaurantId) {
+    }
+
+    static final int BLOCK = 16;
+
+    private static final Type[] TYPES = Type.values();
+    private static final byte END = 0;
+
+    private final byte[] keyText;
+    private final int[] keyTextStart;
+    private final byte[] displayText;
+    private final int[] displayTextStart;
+    private final byte[] types;
+    private final long[] restaurantIds;
+    private final int[] keyPositions;
+    private final int[] keyWeights;
+    private final int blocks;
+    private final int[] blockBest;
+
+    private AutocompleteIndex(byte[] keyText, int[] keyTextStart, byte[] displayText, int[] displayTextStart,
+                              byte[] types, long[] restaurantIds, int[] keyPositions, int[] keyWeights) {
+        this.keyText = keyText;
+        this.keyTextStart = keyTextStart;
+        this.displayText = displayText;
+        this.displayTextStart = displayTextStart;
+        this.types = types;
+        this.restaurantIds = restaurantIds;
+        this.keyPositions = keyPositions;
+        this.keyWeights = keyWeights;
+        this.blocks = (keyPositions.length + BLOCK - 1) / BLOCK;
+        this.blockBest = new int[2 * blocks];
+        for (int block = 0; block < blocks; block++) {
+            blockBest[blocks + block] = scan(block * BLOCK, Math.min(block * BLOCK + BLOCK, keyPositions.length));
+        }
+        for (int node = blocks - 1; node > 0; node--) {
+            blockBest[node] = better(blockBest[2 * node], blockBest[2 * node + 1]);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static AutocompleteIndex empty() {
+        return builder().build();
+    }
+
+    /**
+     * Up to {@code limit} distinct entries with a word starting with {@code prefix}, most popular first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        byte[] query = TrigramIndex.normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        if (query.length == 0 || limit <= 0 || keyPositions.length == 0) {
+            return List.of();
+        }
+        int from = lowerBound(query);
+        int to = upperBound(query, from);
+        if (from >= to) {
+            return List.of();
+        }
+
+        // Best-first over sub-ranges: take the heaviest key, then split its range around it. A name with several
+        // matching words shows up once per word, so repeated entries are skipped.
+        RangeHeap ranges = new RangeHeap(limit * 2 + 2);
+        ranges.push(from, to, argMax(from, to));
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        int[] seen = new int[limit];
+        while (suggestions.size() < limit && ranges.size() > 0) {
+            int lo = ranges.lo(), hi = ranges.hi(), top = ranges.top();
+            ranges.pop();
+            int entry = entryAt(keyPositions[top]);
+            if (!contains(seen, suggestions.size(), entry)) {
+                seen[suggestions.size()] = entry;
+                suggestions.add(suggestion(entry));
+            }
+            if (lo < top) {
+                ranges.push(lo, top, argMax(lo, top));
+            }
+            if (top + 1 < hi) {
+                ranges.push(top + 1, hi, argMax(top + 1, hi));
+            }
+        }
+        return suggestions;
+    }
+
+    public int entries() {
+        return types.length;
+    }
+
+    public int keys() {
+        return keyPositions.length;
+    }
+
+    /**
+     * Bytes held by this index's arrays, not counting object headers.
+     */
+    public long sizeInBytes() {
+        return keyText.length + 4L * keyTextStart.length + displayText.length + 4L * displayTextStart.length
+                + types.length + 8L * restaurantIds.length
+                + 4L * keyPositions.length + 4L * keyWeights.length + 4L * blockBest.length;
+    }
+
+    private Suggestion suggestion(int entry) {
+        String text = new String(displayText, displayTextStart[entry],
+                displayTextStart[entry + 1] - displayTextStart[entry], StandardCharsets.UTF_8);
+        long restaurantId = restaurantIds[entry];
+        return new Suggestion(text, TYPES[types[entry]], restaurantId == 0 ? null : restaurantId);
+    }
+
+    /**
+     * Entry whose normalized text holds {@code position}.
+     */
+    private int entryAt(int position) {
+        int entry = Arrays.binarySearch(keyTextStart, position);
+        return entry >= 0 ? entry : -entry - 2;
+    }
+
+    /**
+     * Heaviest key in [from, to): the partial blocks at either end are scanned, the whole blocks between them
+     * come from the tree.
+     */
+    private int argMax(int from, int to) {
+        int firstBlock = (from + BLOCK - 1) / BLOCK;
+        int lastBlock = to / BLOCK;
+        if (firstBlock >= lastBlock) {
+            return scan(from, to);
+        }
+        int result = from < firstBlock * BLOCK ? scan(from, firstBlock * BLOCK) : -1;
+        for (int lo = firstBlock + blocks, hi = lastBlock + blocks; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                result = result < 0 ? blockBest[lo] : better(result, blockBest[lo]);
+                lo++;
+            }
+            if ((hi & 1) == 1) {
+                hi--;
+                result = result < 0 ? blockBest[hi] : better(result, blockBest[hi]);
+            }
+        }
+        if (lastBlock * BLOCK < to) {
+            result = better(result, scan(lastBlock * BLOCK, to));
+        }
+        return result;
+    }
+
+    private int scan(int from, int to) {
+        int result = from;
+        for (int key = from + 1; key < to; key++) {
+            if (keyWeights[key] > keyWeights[result]) {
+                result = key;
+            }
+        }
+        return result;
+    }
+
+    private int better(int a, int b) {
+        if (keyWeights[a] != keyWeights[b]) {
+            return keyWeights[a] > keyWeights[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * First key that does not sort before {@code query}.
+     */
+    private int lowerBound(byte[] query) {
+        int lo = 0, hi = keyPositions.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToPrefix(keyPositions[mid], query) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First key from {@code from} on that does not start with {@code query}.
+     */
+    private int upperBound(byte[] query, int from) {
+        int lo = from, hi = keyPositions.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToPrefix(keyPositions[mid], query) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compares the key text at {@code position} with {@code query}, treating a key that starts with the query as
+     * equal to it. Every entry's text ends with {@link #END}, which sorts before any other byte.
+     */
+    private int compareToPrefix(int position, byte[] query) {
+        for (int i = 0; i < query.length; i++) {
+            byte b = keyText[position + i];
+            if (b != query[i]) {
+                return Byte.compareUnsigned(b, query[i]);
+            }
+        }
+        return 0;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Max-heap of key ranges ordered by the weight of each range's best key.
+     */
+    private final class RangeHeap {
+        private int[] lo, hi, top;
+        private int size;
+
+        RangeHeap(int capacity) {
+            lo = new int[capacity];
+            hi = new int[capacity];
+            top = new int[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int lo() {
+            return lo[0];
+        }
+
+        int hi() {
+            return hi[0];
+        }
+
+        int top() {
+            return top[0];
+        }
+
+        void push(int from, int to, int bestKey) {
+            if (size == top.length) {
+                lo = Arrays.copyOf(lo, size * 2);
+                hi = Arrays.copyOf(hi, size * 2);
+                top = Arrays.copyOf(top, size * 2);
+            }
+            int at = size++;
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (better(top[parent], bestKey) == top[parent]) {
+                    break;
+                }
+                move(parent, at);
+                at = parent;
+            }
+            lo[at] = from;
+            hi[at] = to;
+            top[at] = bestKey;
+        }
+
+        void pop() {
+            size--;
+            if (size == 0) {
+                return;
+            }
+            int lastLo = lo[size], lastHi = hi[size], lastTop = top[size];
+            int at = 0;
+            while (true) {
+                int child = 2 * at + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && better(top[child], top[child + 1]) != top[child]) {
+                    child++;
+                }
+                if (better(lastTop, top[child]) == lastTop) {
+                    break;
+                }
+                move(child, at);
+                at = child;
+            }
+            lo[at] = lastLo;
+            hi[at] = lastHi;
+            top[at] = lastTop;
+        }
+
+        private void move(int from, int to) {
+            lo[to] = lo[from];
+            hi[to] = hi[from];
+            top[to] = top[from];
+        }
+    }
+
+    public static final class Builder {
+        private final List<String> texts = new ArrayList<>();
+        private final List<Type> entryTypes = new ArrayList<>();
+        private long[] ids = new long[64];
+        private int[] weights = new int[64];
+
+        private Builder() {
+        }
+
+        /**
+         * Adds one suggestion. {@code restaurantId} may be null, e.g. for a dish served in many places.
+         */
+        public Builder add(String text, Type type, Long restaurantId, int weight) {
+            int entry = texts.size();
+            if (entry == ids.length) {
+                ids = Arrays.copyOf(ids, entry * 2);
+                weights = Arrays.copyOf(weights, entry * 2);
+            }
+            texts.add(text);
+            entryTypes.add(type);
+            ids[entry] = restaurantId == null ? 0 : restaurantId;
+            weights[entry] = Math.max(0, weight);
+            return this;
+        }
+
+        public AutocompleteIndex build() {
+            int count = texts.size();
+            byte[][] normalized = new byte[count][];
+            byte[][] display = new byte[count][];
+            int[] keyTextStart = new int[count + 1];
+            int[] displayTextStart = new int[count + 1];
+            int keyCount = 0;
+            for (int entry = 0; entry < count; entry++) {
+                normalized[entry] = TrigramIndex.normalize(texts.get(entry)).getBytes(StandardCharsets.UTF_8);
+                display[entry] = texts.get(entry).getBytes(StandardCharsets.UTF_8);
+                keyTextStart[entry + 1] = keyTextStart[entry] + normalized[entry].length + 1;
+                displayTextStart[entry + 1] = displayTextStart[entry] + display[entry].length;
+                for (int i = 0; i < normalized[entry].length; i++) {
+                    if (i == 0 || normalized[entry][i - 1] == ' ') {
+                        keyCount++;
+                    }
+                }
+            }
+
+            byte[] keyText = new byte[keyTextStart[count]];
+            byte[] displayText = new byte[displayTextStart[count]];
+            byte[] types = new byte[count];
+            // Position in the high half, weight in the low half, so the sort carries the weight along
+            long[] keys = new long[keyCount];
+            int key = 0;
+            for (int entry = 0; entry < count; entry++) {
+                byte[] text = normalized[entry];
+                int start = keyTextStart[entry];
+                System.arraycopy(text, 0, keyText, start, text.length);
+                keyText[start + text.length] = END;
+                System.arraycopy(display[entry], 0, displayText, displayTextStart[entry], display[entry].length);
+                types[entry] = (byte) entryTypes.get(entry).ordinal();
+                for (int i = 0; i < text.length; i++) {
+                    if (i == 0 || text[i - 1] == ' ') {
+                        keys[key++] = (long) (start + i) << 32 | weights[entry];
+                    }
+                }
+            }
+            sort(keys, keyText);
+
+            int[] keyPositions = new int[keyCount];
+            int[] keyWeights = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keyPositions[i] = (int) (keys[i] >>> 32);
+                keyWeights[i] = (int) keys[i];
+            }
+            return new AutocompleteIndex(keyText, keyTextStart, displayText, displayTextStart, types,
+                    Arrays.copyOf(ids, count), keyPositions, keyWeights);
+        }
+
+        /**
+         * Merge sort of the packed keys by the text they point at, without boxing millions of longs.
+         */
+        private static void sort(long[] keys, byte[] text) {
+            long[] from = keys, to = new long[keys.length];
+            for (int width = 1; width < keys.length; width *= 2) {
+                for (int lo = 0; lo < keys.length; lo += 2 * width) {
+                    int mid = Math.min(lo + width, keys.length);
+                    int hi = Math.min(lo + 2 * width, keys.length);
+                    int left = lo, right = mid, out = lo;
+                    while (left < mid && right < hi) {
+                        to[out++] = compare(from[right], from[left], text) < 0 ? from[right++] : from[left++];
+                    }
+                    System.arraycopy(from, left, to, out, mid - left);
+                    System.arraycopy(from, right, to, out + mid - left, hi - right);
+                }
+                long[] swap = from;
+                from = to;
+                to = swap;
+            }
+            if (from != keys) {
+                System.arraycopy(from, 0, keys, 0, keys.length);
+            }
+        }
+
+        private static int compare(long a, long b, byte[] text) {
+            int i = (int) (a >>> 32), j = (int) (b >>> 32);
+            while (text[i] == text[j] && text[i] != END) {
+                i++;
+                j++;
+            }
+            return Byte.compareUnsigned(text[i], text[j]);
+        }
+    }
+}
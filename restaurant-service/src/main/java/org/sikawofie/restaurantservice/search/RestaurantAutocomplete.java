@@ -0,0 +1,113 @@
+package org.sikawofie.restaurantservice.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.restaurantservice.enums.RestaurantStatus;
+import org.sikawofie.restaurantservice.repository.MenuItemRepository;
+import org.sikawofie.restaurantservice.repository.MenuItemRow;
+import org.sikawofie.restaurantservice.repository.RestaurantNameRow;
+import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplete over active restaurants' names and their dishes. Suggestions come from an immutable
+ * {@link AutocompleteIndex} that is rebuilt from the database on a schedule and swapped in with one volatile
+ * write, so lookups never wait on a rebuild or a lock.
+ * <p>
+ * A restaurant weighs its order count. A dish is suggested once per name however many menus list it, and weighs
+ * one plus the order count of every restaurant serving it.
+ */
+@Component
+@Slf4j
+public class RestaurantAutocomplete {
+
+    private static final int LOAD_BATCH = 5_000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final int maxSuggestions;
+
+    private volatile AutocompleteIndex index = AutocompleteIndex.empty();
+
+    public RestaurantAutocomplete(RestaurantRepository restaurantRepository,
+                                  MenuItemRepository menuItemRepository,
+                                  @Value("${restaurant.autocomplete.max-suggestions:20}") int maxSuggestions) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    public List<AutocompleteIndex.Suggestion> suggest(String prefix, int limit) {
+        return index.suggest(prefix, Math.clamp(limit, 1, maxSuggestions));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${restaurant.autocomplete.rebuild-interval:5m}",
+            fixedDelayString = "${restaurant.autocomplete.rebuild-interval:5m}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        AutocompleteIndex.Builder builder = AutocompleteIndex.builder();
+
+        Map<Long, Long> orderCounts = new HashMap<>();
+        long afterId = 0;
+        List<RestaurantNameRow> restaurants;
+        do {
+            restaurants = restaurantRepository.findNamesAfter(afterId, RestaurantStatus.ACTIVE, PageRequest.of(0, LOAD_BATCH));
+            for (RestaurantNameRow restaurant : restaurants) {
+                orderCounts.put(restaurant.getId(), restaurant.getOrderCount());
+                builder.add(restaurant.getName(), AutocompleteIndex.Type.RESTAURANT, restaurant.getId(),
+                        saturate(restaurant.getOrderCount()));
+                afterId = restaurant.getId();
+            }
+        } while (restaurants.size() == LOAD_BATCH);
+
+        Map<String, Dish> dishes = new LinkedHashMap<>();
+        afterId = 0;
+        List<MenuItemRow> items;
+        do {
+            items = menuItemRepository.findRowsAfter(afterId, RestaurantStatus.ACTIVE, PageRequest.of(0, LOAD_BATCH));
+            for (MenuItemRow item : items) {
+                Dish dish = dishes.computeIfAbsent(TrigramIndex.normalize(item.getName()), key -> new Dish(item.getName()));
+                dish.weight += 1 + orderCounts.getOrDefault(item.getRestaurantId(), 0L);
+                if (dish.restaurantId == null) {
+                    dish.restaurantId = item.getRestaurantId();
+                } else if (!dish.restaurantId.equals(item.getRestaurantId())) {
+                    dish.servedByMany = true;
+                }
+                afterId = item.getId();
+            }
+        } while (items.size() == LOAD_BATCH);
+        dishes.forEach((key, dish) -> builder.add(dish.name, AutocompleteIndex.Type.DISH,
+                dish.servedByMany ? null : dish.restaurantId, saturate(dish.weight)));
+
+        AutocompleteIndex rebuilt = builder.build();
+        index = rebuilt;
+        log.info("Rebuilt autocomplete over {} restaurants and {} dishes ({} keys, {} KB) in {} ms",
+                orderCounts.size(), dishes.size(), rebuilt.keys(), rebuilt.sizeInBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static int saturate(long weight) {
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static final class Dish {
+        final String name;
+        long weight;
+        Long restaurantId;
+        boolean servedByMany;
+
+        Dish(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.sikawofie.restaurantservice.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.restaurantservice.dto.RestaurantDTO;
+import org.sikawofie.restaurantservice.entity.Restaurant;
+import org.sikawofie.restaurantservice.mappers.RestaurantToDtoMapper;
+import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process trigram index over restaurant names and locations, so name and address searches no longer run
+ * {@code LIKE '%x%'} table scans. Loaded once the application is ready and kept current by
+ * {@link #put(Restaurant)} from this instance's writes and from restaurant change events for the other replicas'.
+ * While a load is running the search methods return empty so callers fall back to SQL.
+ * <p>
+ * Searches return the best {@code restaurant.search.max-results} matches only, best first, and are not
+ * paginated: a query that matches more restaurants than that needs to be narrowed down.
+ */
+@Component
+@Slf4j
+public class RestaurantSearchIndex {
+
+    private static final int LOAD_BATCH = 1_000;
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantToDtoMapper restaurantMapper;
+    private final int maxResults;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex locations = new TrigramIndex();
+    private final Map<Long, RestaurantDTO> restaurants = new HashMap<>();
+    private volatile boolean ready;
+
+    public RestaurantSearchIndex(RestaurantRepository restaurantRepository,
+                                 RestaurantToDtoMapper restaurantMapper,
+                                 @Value("${restaurant.search.max-results:50}") int maxResults) {
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantMapper = restaurantMapper;
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            restaurants.clear();
+            names.clear();
+            locations.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long afterId = 0;
+        List<Restaurant> batch;
+        do {
+            batch = restaurantRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(LOAD_BATCH));
+            batch.forEach(this::put);
+            if (!batch.isEmpty()) {
+                afterId = batch.getLast().getId();
+            }
+        } while (batch.size() == LOAD_BATCH);
+        ready = true;
+        log.info("Indexed {} restaurants for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void put(Restaurant restaurant) {
+        RestaurantDTO dto = restaurantMapper.toDTO(restaurant);
+        lock.writeLock().lock();
+        try {
+            restaurants.put(dto.getId(), dto);
+            names.put(dto.getId(), dto.getName());
+            locations.put(dto.getId(), dto.getLocation());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<List<RestaurantDTO>> searchByName(String name) {
+        return search(names, name);
+    }
+
+    public Optional<List<RestaurantDTO>> searchByLocation(String location) {
+        return search(locations, location);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return restaurants.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<List<RestaurantDTO>> search(TrigramIndex index, String query) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.search(query, maxResults).stream().map(restaurants::get).toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
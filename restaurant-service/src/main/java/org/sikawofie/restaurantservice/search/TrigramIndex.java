@@ -0,0 +1,307 @@
+package org.sikawofie.restaurantservice.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from trigrams to the documents containing them, over one text field.
+ * <p>
+ * Text is lower-cased, stripped of accents and split into words; each word is padded the way pg_trgm does
+ * ({@code "  word "}) so word starts and ends carry their own trigrams. A query matches a document when the
+ * document contains the query outright, or shares at least {@link #MIN_MATCH} of the query's trigrams, which
+ * is what lets "gormet" find "Gourmet". Hits are ranked by containment first, then by similarity to the whole
+ * document so closer and shorter texts come first. Queries whose words are all one or two characters long have
+ * no trigram without padding, so nothing but word starts and ends would match them; those are answered by a
+ * substring scan over the indexed texts instead.
+ * <p>
+ * Writes are not thread-safe: {@link RestaurantSearchIndex} guards them with a read/write lock. Searches may
+ * run concurrently; each borrows a pair of scratch arrays from a pool, so the pool only ever holds as many as
+ * searches ran at once.
+ */
+public class TrigramIndex {
+
+    static final double MIN_MATCH = 0.5;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score)
+            .thenComparingDouble(Hit::similarity)
+            .thenComparing(Comparator.comparingLong(Hit::id).reversed());
+
+    private final Map<Long, Integer> docById = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private long[] ids = new long[64];
+    private String[] texts = new String[64];
+    private int[] gramCounts = new int[64];
+    private int size;
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    public void put(long id, String text) {
+        String normalized = normalize(text);
+        Integer existing = docById.get(id);
+        int doc;
+        if (existing != null) {
+            doc = existing;
+            if (normalized.equals(texts[doc])) {
+                return;
+            }
+            unlink(doc);
+        } else {
+            doc = size++;
+            grow();
+            docById.put(id, doc);
+            ids[doc] = id;
+        }
+        String[] grams = grams(normalized);
+        texts[doc] = normalized;
+        gramCounts[doc] = grams.length;
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    /**
+     * Ids of the best {@code limit} matches for {@code query}, best first.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] grams = grams(normalized);
+
+        // A document containing the query verbatim holds every trigram without padding, so anything sharing
+        // fewer than that and fewer than MIN_MATCH of the query cannot be a hit.
+        int inner = 0;
+        for (String gram : grams) {
+            if (gram.indexOf(' ') < 0) {
+                inner++;
+            }
+        }
+        if (inner == 0) {
+            return scan(normalized, limit);
+        }
+        int required = Math.min(inner, (int) Math.ceil(grams.length * MIN_MATCH));
+
+        // Rarest trigrams first: a document missing from all of the first (grams - required + 1) lists cannot
+        // reach the required count, so only those lists introduce candidates and the common ones, which can
+        // span most of the index, are only probed for the candidates already found.
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.getOrDefault(grams[i], Postings.EMPTY);
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int seeds = Math.min(lists.length, lists.length - required + 1);
+
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null) {
+            scratch = new Scratch();
+        }
+        List<Long> result = rank(normalized, grams, lists, seeds, required, limit, scratch.reserve(size));
+        // Only returned once rank() has cleared it; a search that failed half-way drops its arrays
+        scratchPool.offer(scratch);
+        return result;
+    }
+
+    private List<Long> rank(String normalized, String[] grams, Postings[] lists, int seeds, int required, int limit,
+                            Scratch scratch) {
+        int[] shared = scratch.shared;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+        for (int l = 0; l < lists.length; l++) {
+            Postings list = lists[l];
+            if (l < seeds) {
+                for (int i = 0; i < list.length; i++) {
+                    int doc = list.docs[i];
+                    if (shared[doc]++ == 0) {
+                        touched[touchedCount++] = doc;
+                    }
+                }
+            } else if ((long) touchedCount * 16 < list.length) {
+                for (int i = 0; i < touchedCount; i++) {
+                    if (list.contains(touched[i])) {
+                        shared[touched[i]]++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < list.length; i++) {
+                    int doc = list.docs[i];
+                    if (shared[doc] > 0) {
+                        shared[doc]++;
+                    }
+                }
+            }
+        }
+
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            int count = shared[doc];
+            shared[doc] = 0;
+            if (count < required) {
+                continue;
+            }
+            double containment = (double) count / grams.length;
+            boolean exact = texts[doc].contains(normalized);
+            if (!exact && containment < MIN_MATCH) {
+                continue;
+            }
+            double similarity = (double) count / (grams.length + gramCounts[doc] - count);
+            offer(best, new Hit(ids[doc], exact ? 1.0 + similarity : containment, similarity), limit);
+        }
+        return ranked(best);
+    }
+
+    /**
+     * Every document containing {@code normalized} verbatim, shorter texts first. Linear in the index size, so
+     * only used for the short queries the trigram lists cannot answer.
+     */
+    private List<Long> scan(String normalized, int limit) {
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING);
+        for (int doc = 0; doc < size; doc++) {
+            if (texts[doc].contains(normalized)) {
+                double similarity = (double) normalized.length() / texts[doc].length();
+                offer(best, new Hit(ids[doc], 1.0 + similarity, similarity), limit);
+            }
+        }
+        return ranked(best);
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Hit hit, int limit) {
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (RANKING.compare(hit, best.peek()) > 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    private static List<Long> ranked(PriorityQueue<Hit> best) {
+        List<Long> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().id());
+        }
+        return result.reversed();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        docById.clear();
+        postings.clear();
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+    }
+
+    private void unlink(int doc) {
+        for (String gram : grams(texts[doc])) {
+            Postings list = postings.get(gram);
+            list.remove(doc);
+            if (list.length == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private void grow() {
+        if (size > ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static String[] grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams.toArray(String[]::new);
+    }
+
+    private record Hit(long id, double score, double similarity) {
+    }
+
+    /**
+     * Per-search counters for {@link #search}. {@code shared} is all zeros between searches: each search
+     * clears the entries it touched.
+     */
+    private static final class Scratch {
+        private int[] shared = new int[0];
+        private int[] touched = new int[0];
+
+        Scratch reserve(int size) {
+            if (shared.length < size) {
+                int capacity = Math.max(size, shared.length * 2);
+                shared = new int[capacity];
+                touched = new int[capacity];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Sorted doc numbers. Documents only ever get new, higher numbers, so building the index appends.
+     */
+    private static final class Postings {
+        static final Postings EMPTY = new Postings();
+
+        private int[] docs = new int[4];
+        private int length;
+
+        boolean contains(int doc) {
+            return Arrays.binarySearch(docs, 0, length, doc) >= 0;
+        }
+
+        void add(int doc) {
+            int at = length == 0 || docs[length - 1] < doc ? length : Arrays.binarySearch(docs, 0, length, doc);
+            if (at >= 0 && at < length) {
+                return;
+            }
+            int insert = at < 0 ? -at - 1 : at;
+            if (length == docs.length) {
+                docs = Arrays.copyOf(docs, length * 2);
+            }
+            System.arraycopy(docs, insert, docs, insert + 1, length - insert);
+            docs[insert] = doc;
+            length++;
+        }
+
+        void remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, length, doc);
+            if (at >= 0) {
+                System.arraycopy(docs, at + 1, docs, at, length - at - 1);
+                length--;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.sikawofie.restaurantservice.service;
 
+import org.sikawofie.restaurantservice.cache.Versioned;
 import org.sikawofie.restaurantservice.dto.*;
 import org.sikawofie.restaurantservice.enums.RestaurantStatus;
 
@@ -9,10 +10,12 @@ public interface RestaurantService {
 
     RestaurantResponseDto createRestaurant(RestaurantRequestDto restaurantRequestDto, Long ownerId, String role);
 
-    List<RestaurantResponseDto> getAll();
+    RestaurantPageDto getAll(String cursor, int size);
 
     List<MenuItemResponseDto> getMenu(Long restaurantId);
 
+    Versioned<byte[]> getMenuJson(Long restaurantId);
+
     MenuItemResponseDto addMenuItem(Long restaurantId, MenuItemRequestDto menuItemRequestDto, Long ownerId, String role);
 
     RestaurantResponseDto updateRestaurant(Long id, RestaurantRequestDto request, Long ownerId);
@@ -23,12 +26,16 @@ public interface RestaurantService {
 
     RestaurantDTO getRestaurantById(Long id);
 
+    Versioned<RestaurantDTO> getRestaurantWithVersion(Long id);
+
     List<RestaurantDTO> getRestaurantsByOwner(Long ownerId);
 
     List<RestaurantDTO> searchRestaurantsByName(String name);
 
     List<RestaurantDTO> searchRestaurantsByAddress(String address);
 
+    List<AutocompleteSuggestionDto> autocomplete(String prefix, int limit);
+
 
 //    List<RestaurantDTO> getRestaurantsWithCircuitBreaker();
 }
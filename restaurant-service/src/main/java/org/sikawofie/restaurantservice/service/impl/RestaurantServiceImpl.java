@@ -1,8 +1,13 @@
 package org.sikawofie.restaurantservice.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.sikawofie.restaurantservice.cache.MenuCache;
+import org.sikawofie.restaurantservice.cache.RestaurantVersions;
+import org.sikawofie.restaurantservice.cache.Versioned;
 import org.sikawofie.restaurantservice.dto.*;
 import org.sikawofie.restaurantservice.entity.MenuItem;
 import org.sikawofie.restaurantservice.entity.Restaurant;
@@ -12,13 +17,23 @@ import org.sikawofie.restaurantservice.exceptions.ResourceNotFoundException;
 import org.sikawofie.restaurantservice.exceptions.UnauthorizedException;
 import org.sikawofie.restaurantservice.mappers.RestaurantRequestDtoToRestaurant;
 import org.sikawofie.restaurantservice.mappers.RestaurantToDtoMapper;
+import org.sikawofie.restaurantservice.producer.RestaurantEventPublisher;
 import org.sikawofie.restaurantservice.repository.MenuItemRepository;
+import org.sikawofie.restaurantservice.repository.MenuItemRow;
 import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.sikawofie.restaurantservice.search.RestaurantAutocomplete;
+import org.sikawofie.restaurantservice.search.RestaurantSearchIndex;
 import org.sikawofie.restaurantservice.service.RestaurantService;
+import org.sikawofie.restaurantservice.utils.PageCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,10 +41,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RestaurantServiceImpl implements RestaurantService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
     private final RestaurantToDtoMapper restaurantMapper;
     private final RestaurantRequestDtoToRestaurant requestMapper;
+    private final RestaurantEventPublisher eventPublisher;
+    private final RestaurantSearchIndex searchIndex;
+    private final RestaurantAutocomplete autocomplete;
+    private final MenuCache menuCache;
+    private final RestaurantVersions versions;
+    private final ObjectMapper objectMapper;
 
     @Override
     public RestaurantResponseDto createRestaurant(RestaurantRequestDto dto, Long ownerId, String role) {
@@ -44,18 +67,39 @@ public class RestaurantServiceImpl implements RestaurantService {
         restaurant.setStatus(RestaurantStatus.PENDING);
         Restaurant saved = restaurantRepository.save(restaurant);
         log.info("Restaurant '{}' created with ID {}", saved.getName(), saved.getId());
+        searchIndex.put(saved);
+        eventPublisher.publishChange(saved.getId(), "CREATED");
 
         return mapToResponseDto(saved);
     }
 
     @Override
-    public List<RestaurantResponseDto> getAll() {
-        log.info("Fetching all restaurants");
-        List<RestaurantResponseDto> list = restaurantRepository.findAll().stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
-        log.debug("Found {} restaurants", list.size());
-        return list;
+    public RestaurantPageDto getAll(String cursor, int size) {
+        long afterId = PageCursor.decode(cursor);
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        log.info("Fetching restaurants after ID {} (page size {})", afterId, pageSize);
+
+        // One extra row tells us whether another page follows without a count query
+        List<Restaurant> restaurants = restaurantRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        boolean hasMore = restaurants.size() > pageSize;
+        if (hasMore) {
+            restaurants = restaurants.subList(0, pageSize);
+        }
+
+        Map<Long, List<MenuItemResponseDto>> menus = restaurants.isEmpty()
+                ? Map.of()
+                : menuItemRepository.findRowsByRestaurantIdIn(restaurants.stream().map(Restaurant::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(MenuItemRow::getRestaurantId,
+                                Collectors.mapping(this::mapMenuItemRowToDto, Collectors.toList())));
+
+        List<RestaurantResponseDto> items = restaurants.stream()
+                .map(restaurant -> mapToResponseDto(restaurant, menus.getOrDefault(restaurant.getId(), List.of())))
+                .toList();
+        log.debug("Found {} restaurants", items.size());
+        return RestaurantPageDto.builder()
+                .items(items)
+                .nextCursor(hasMore ? PageCursor.encode(restaurants.getLast().getId()) : null)
+                .build();
     }
 
     @Override
@@ -68,6 +112,18 @@ public class RestaurantServiceImpl implements RestaurantService {
         return list;
     }
 
+    @Override
+    public Versioned<byte[]> getMenuJson(Long restaurantId) {
+        Versioned<byte[]> menu = menuCache.get(restaurantId, this::loadMenu);
+        // A newer version re-read after a lost change event also retires the menu cached before it
+        OptionalLong known = versions.known(restaurantId);
+        if (known.isPresent() && known.getAsLong() > menu.version()) {
+            menuCache.invalidate(restaurantId);
+            menu = menuCache.get(restaurantId, this::loadMenu);
+        }
+        return menu;
+    }
+
     @Override
     public MenuItemResponseDto addMenuItem(Long restaurantId, MenuItemRequestDto dto, Long ownerId, String role) {
         log.info("Adding menu item to restaurantId={} by ownerId={} with role={}", restaurantId, ownerId, role);
@@ -97,6 +153,7 @@ public class RestaurantServiceImpl implements RestaurantService {
 
         MenuItem savedItem = menuItemRepository.save(item);
         log.info("Menu item '{}' added to restaurant {}", savedItem.getName(), restaurantId);
+        contentChanged(restaurantId, "MENU_ITEM_ADDED");
         return mapMenuItemToDto(savedItem);
     }
 
@@ -132,6 +189,8 @@ public class RestaurantServiceImpl implements RestaurantService {
 
         Restaurant updated = restaurantRepository.save(restaurant);
         log.info("Restaurant ID={} updated successfully", updated.getId());
+        searchIndex.put(updated);
+        contentChanged(id, "UPDATED");
 
         return mapToResponseDto(updated);
     }
@@ -147,6 +206,8 @@ public class RestaurantServiceImpl implements RestaurantService {
         restaurant.setStatus(status);
         Restaurant updated = restaurantRepository.save(restaurant);
         log.info("Status of restaurant ID={} updated to {}", id, status);
+        searchIndex.put(updated);
+        contentChanged(id, "STATUS_CHANGED");
         return restaurantMapper.toDTO(updated);
     }
 
@@ -162,14 +223,19 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     @Override
     public RestaurantDTO getRestaurantById(Long id) {
+        return getRestaurantWithVersion(id).data();
+    }
+
+    @Override
+    public Versioned<RestaurantDTO> getRestaurantWithVersion(Long id) {
         log.info("Fetching restaurant by ID {}", id);
-        return restaurantMapper.toDTO(
-                restaurantRepository.findById(id)
-                        .orElseThrow(() -> {
-                            log.warn("Restaurant with ID {} not found", id);
-                            return new ResourceNotFoundException("Restaurant not found.");
-                        })
-        );
+        Restaurant restaurant = restaurantRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Restaurant with ID {} not found", id);
+                    return new ResourceNotFoundException("Restaurant not found.");
+                });
+        versions.record(id, restaurant.getContentVersion());
+        return new Versioned<>(restaurantMapper.toDTO(restaurant), restaurant.getContentVersion());
     }
 
     @Override
@@ -183,17 +249,31 @@ public class RestaurantServiceImpl implements RestaurantService {
     @Override
     public List<RestaurantDTO> searchRestaurantsByName(String name) {
         log.info("Searching restaurants by name: {}", name);
-        return restaurantRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        return searchIndex.searchByName(name)
+                .orElseGet(() -> restaurantRepository.findByNameContainingIgnoreCase(name).stream()
+                        .map(restaurantMapper::toDTO)
+                        .collect(Collectors.toList()));
     }
 
     @Override
     public List<RestaurantDTO> searchRestaurantsByAddress(String address) {
         log.info("Searching restaurants by address: {}", address);
-        return restaurantRepository.findByLocationContainingIgnoreCase(address).stream()
-                .map(restaurantMapper::toDTO)
-                .collect(Collectors.toList());
+        return searchIndex.searchByLocation(address)
+                .orElseGet(() -> restaurantRepository.findByLocationContainingIgnoreCase(address).stream()
+                        .map(restaurantMapper::toDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<AutocompleteSuggestionDto> autocomplete(String prefix, int limit) {
+        log.debug("Autocompleting '{}'", prefix);
+        return autocomplete.suggest(prefix, limit).stream()
+                .map(suggestion -> AutocompleteSuggestionDto.builder()
+                        .text(suggestion.text())
+                        .type(suggestion.type().name())
+                        .restaurantId(suggestion.restaurantId())
+                        .build())
+                .toList();
     }
 
     public List<RestaurantDTO> fallbackGetAllRestaurants(Exception ex) {
@@ -202,6 +282,12 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     private RestaurantResponseDto mapToResponseDto(Restaurant restaurant) {
+        return mapToResponseDto(restaurant, restaurant.getMenuItems() != null
+                ? restaurant.getMenuItems().stream().map(this::mapMenuItemToDto).toList()
+                : List.of());
+    }
+
+    private RestaurantResponseDto mapToResponseDto(Restaurant restaurant, List<MenuItemResponseDto> menuItems) {
         return RestaurantResponseDto.builder()
                 .id(restaurant.getId())
                 .name(restaurant.getName())
@@ -209,12 +295,46 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .location(restaurant.getLocation())
                 .status(restaurant.getStatus())
                 .ownerId(restaurant.getOwnerId())
-                .menuItems(restaurant.getMenuItems() != null
-                        ? restaurant.getMenuItems().stream().map(this::mapMenuItemToDto).toList()
-                        : List.of())
+                .menuItems(menuItems)
                 .build();
     }
 
+    private Versioned<byte[]> loadMenu(Long restaurantId) {
+        // Version before content, so the ETag can only ever understate the menu it is sent with
+        long version = versions.current(restaurantId);
+        try {
+            return new Versioned<>(objectMapper.writeValueAsBytes(getMenu(restaurantId)), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize menu of restaurant " + restaurantId, e);
+        }
+    }
+
+    /**
+     * Bumps the restaurant's content version. The cached menu is dropped at once, so this transaction reads its
+     * own change, and again after commit together with announcing the new version, so that nothing read before
+     * the commit outlives it and no reader can pair the new version with the old content.
+     */
+    private void contentChanged(Long restaurantId, String changeType) {
+        restaurantRepository.incrementContentVersion(restaurantId);
+        long version = restaurantRepository.findContentVersionById(restaurantId).orElse(0L);
+        menuCache.invalidate(restaurantId);
+        Runnable publish = () -> {
+            menuCache.invalidate(restaurantId);
+            versions.record(restaurantId, version);
+            eventPublisher.publishChange(restaurantId, changeType, version);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
     private MenuItemResponseDto mapMenuItemToDto(MenuItem item) {
         return MenuItemResponseDto.builder()
                 .id(item.getId())
@@ -223,4 +343,13 @@ public class RestaurantServiceImpl implements RestaurantService {
                 .price(item.getPrice())
                 .build();
     }
+
+    private MenuItemResponseDto mapMenuItemRowToDto(MenuItemRow row) {
+        return MenuItemResponseDto.builder()
+                .id(row.getId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .price(row.getPrice())
+                .build();
+    }
 }
@@ -0,0 +1,36 @@
+package org.sikawofie.restaurantservice.utils;
+
+import org.sikawofie.restaurantservice.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination: the last id of the previous page, base64url-encoded so clients treat
+ * it as opaque and the sort key can change without breaking the API.
+ */
+public final class PageCursor {
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (lastId < 0) {
+                throw new BusinessException("Invalid cursor.");
+            }
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.sikawofie.restaurantservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.restaurantservice.search.AutocompleteIndex;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete lookups over one million generated restaurant and dish names. Sample-time mode, so the report
+ * carries p50/p99/p99.9 per prefix length; {@link #main} also prints the index's footprint and build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AutocompleteBenchmark {
+
+    private static final String[] PREFIXES = {"Golden", "Royal", "Mama", "Papa", "Little", "Big", "Happy", "Spicy",
+            "Urban", "Old", "Blue", "Red", "Green", "Silver", "Lucky", "Sunny", "Grand", "Wild", "Sweet", "Smoky"};
+    private static final String[] CUISINES = {"Jollof", "Waakye", "Kenkey", "Banku", "Fufu", "Kelewele", "Sushi",
+            "Pizza", "Burger", "Taco", "Curry", "Noodle", "Ramen", "Shawarma", "Kebab", "Grill", "Bakery", "Dumpling",
+            "Pasta", "Steak", "Seafood", "Vegan", "Chicken", "Suya", "Pho"};
+    private static final String[] KINDS = {"Kitchen", "House", "Palace", "Corner", "Bistro", "Cafe", "Spot", "Joint",
+            "Garden", "Hub", "Express", "Lounge", "Bar", "Place", "Shack"};
+    private static final int ENTRIES = 1_000_000;
+    private static final int QUERIES = 1_024;
+
+    @Param({"1", "3", "8"})
+    public int prefixLength;
+
+    private AutocompleteIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = build(ENTRIES);
+        Random random = new Random(7);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = switch (random.nextInt(3)) {
+                case 0 -> PREFIXES[random.nextInt(PREFIXES.length)];
+                case 1 -> CUISINES[random.nextInt(CUISINES.length)];
+                default -> KINDS[random.nextInt(KINDS.length)];
+            };
+            queries[i] = word.substring(0, Math.min(prefixLength, word.length()));
+        }
+    }
+
+    @Benchmark
+    public List<AutocompleteIndex.Suggestion> suggest() {
+        return index.suggest(queries[next++ & (QUERIES - 1)], 10);
+    }
+
+    /**
+     * Three-word names, numbered so each is distinct, with a popularity skewed towards a few favourites.
+     */
+    static AutocompleteIndex build(int entries) {
+        Random random = new Random(42);
+        AutocompleteIndex.Builder builder = AutocompleteIndex.builder();
+        for (int i = 0; i < entries; i++) {
+            String name = PREFIXES[random.nextInt(PREFIXES.length)] + " "
+                    + CUISINES[random.nextInt(CUISINES.length)] + " " + KINDS[random.nextInt(KINDS.length)] + " " + i;
+            int weight = (int) Math.min(Integer.MAX_VALUE, Math.round(Math.pow(random.nextDouble(), 8) * 100_000));
+            AutocompleteIndex.Type type = i % 4 == 0 ? AutocompleteIndex.Type.RESTAURANT : AutocompleteIndex.Type.DISH;
+            builder.add(name, type, type == AutocompleteIndex.Type.RESTAURANT ? (long) i : null, weight);
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        AutocompleteIndex index = build(ENTRIES);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%d entries, %d keys: arrays %.1f MB, retained heap %.1f MB, built in %d ms%n",
+                index.entries(), index.keys(), index.sizeInBytes() / 1e6, (heapAfter - heapBefore) / 1e6, buildMillis);
+
+        new Runner(new OptionsBuilder()
+                .include(AutocompleteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package org.sikawofie.restaurantservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.restaurantservice.search.TrigramIndex;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search through the trigram index against the {@code LIKE '%x%'} query that
+ * {@code findByNameContainingIgnoreCase} generates, over the same generated restaurants in MySQL 8.
+ * The SQL path scans the whole table on every call and finds nothing for a misspelled query.
+ * Needs Docker; run {@link #main} from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestaurantSearchBenchmark {
+
+    private static final String[] PREFIXES = {"Golden", "Royal", "Mama", "Papa", "Little", "Big", "Happy", "Spicy",
+            "Urban", "Old", "Blue", "Red", "Green", "Silver", "Lucky", "Sunny", "Grand", "Wild", "Sweet", "Smoky"};
+    private static final String[] CUISINES = {"Jollof", "Waakye", "Kenkey", "Banku", "Fufu", "Kelewele", "Sushi",
+            "Pizza", "Burger", "Taco", "Curry", "Noodle", "Ramen", "Shawarma", "Kebab", "Grill", "Bakery", "Dumpling",
+            "Pasta", "Steak", "Seafood", "Vegan", "Chicken", "Suya", "Pho"};
+    private static final String[] KINDS = {"Kitchen", "House", "Palace", "Corner", "Bistro", "Cafe", "Spot", "Joint",
+            "Garden", "Hub", "Express", "Lounge", "Bar", "Place", "Shack"};
+    private static final String LIKE_BY_NAME = "select r.id, r.name, r.description, r.location, r.email, "
+            + "r.phone_number, r.image_url, r.status, r.owner_id from restaurants r "
+            + "where upper(r.name) like upper(?) escape '\\\\'";
+
+    @Param({"10000", "50000"})
+    public int restaurants;
+
+    @Param({"Golden Jollof", "Gollden Jolof", "Shack"})
+    public String query;
+
+    private MySQLContainer<?> mysql;
+    private Connection connection;
+    private PreparedStatement likeByName;
+    private TrigramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:8.0").withUrlParam("rewriteBatchedStatements", "true");
+        mysql.start();
+        connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table restaurants (id bigint primary key, name varchar(100) not null, "
+                    + "description text not null, location varchar(255) not null, email varchar(255) not null, "
+                    + "phone_number varchar(255) not null, image_url varchar(255), status varchar(255) not null, "
+                    + "owner_id bigint not null)");
+        }
+
+        index = new TrigramIndex();
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into restaurants values (?, ?, 'Benchmark restaurant', 'Accra', ?, ?, null, 'ACTIVE', 1)")) {
+            for (int id = 1; id <= restaurants; id++) {
+                String name = PREFIXES[random.nextInt(PREFIXES.length)] + " "
+                        + CUISINES[random.nextInt(CUISINES.length)] + " " + KINDS[random.nextInt(KINDS.length)];
+                index.put(id, name);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, "r" + id + "@example.com");
+                insert.setString(4, String.valueOf(1_000_000_000L + id));
+                insert.addBatch();
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        likeByName = connection.prepareStatement(LIKE_BY_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return index.search(query, 50);
+    }
+
+    @Benchmark
+    public void sqlLike(Blackhole blackhole) throws SQLException {
+        likeByName.setString(1, "%" + query + "%");
+        try (ResultSet rows = likeByName.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+                blackhole.consume(rows.getString(2));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RestaurantSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
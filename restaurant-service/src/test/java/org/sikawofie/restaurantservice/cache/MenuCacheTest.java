@@ -0,0 +1,81 @@
+package org.sikawofie.restaurantservice.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final MenuCache cache =
+            new MenuCache(DataSize.ofKilobytes(64), Duration.ofMinutes(10), nanos::get, new SimpleMeterRegistry());
+
+    @Test
+    void hit_ShouldReturnSameBytesWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+        Versioned<byte[]> first = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return menu("[]", 1);
+        });
+        Versioned<byte[]> second = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return menu("[{}]", 2);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldLoadAgainOnNextRead() {
+        cache.get(1L, id -> menu("[]", 1));
+        cache.get(2L, id -> menu("[]", 1));
+
+        cache.invalidate(1L);
+
+        assertEquals(2, cache.get(1L, id -> menu("[{}]", 2)).version());
+        assertArrayEquals("[]".getBytes(), cache.get(2L, id -> menu("[{}]", 2)).data());
+    }
+
+    @Test
+    void entries_ShouldExpireAfterTtl() {
+        cache.get(1L, id -> menu("[]", 1));
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertEquals(2, cache.get(1L, id -> menu("[{}]", 2)).version());
+    }
+
+    @Test
+    void cache_ShouldStayWithinItsByteBound() {
+        Versioned<byte[]> menu = new Versioned<>(new byte[4 * 1024], 0);
+        for (long id = 0; id < 100; id++) {
+            cache.get(id, restaurantId -> menu);
+        }
+
+        // Eviction runs asynchronously; 64 KB holds at most 15 menus of 4 KB plus overhead
+        assertTrue(waitForSize(15), "cache holds " + cache.size() + " menus");
+    }
+
+    private static Versioned<byte[]> menu(String json, long version) {
+        return new Versioned<>(json.getBytes(), version);
+    }
+
+    private boolean waitForSize(long max) {
+        for (int i = 0; i < 100 && cache.size() > max; i++) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return cache.size() <= max;
+    }
+}
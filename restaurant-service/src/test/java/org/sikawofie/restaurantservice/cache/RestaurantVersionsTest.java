@@ -0,0 +1,81 @@
+package org.sikawofie.restaurantservice.cache;
+
+import org.junit.jupiter.api.Test;
+import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RestaurantVersionsTest {
+
+    private final RestaurantRepository restaurantRepository = mock(RestaurantRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final RestaurantVersions versions =
+            new RestaurantVersions(restaurantRepository, Duration.ofMinutes(5), nanos::get);
+
+    @Test
+    void known_ShouldNeverTouchTheDatabase() {
+        assertEquals(OptionalLong.empty(), versions.known(1L));
+
+        versions.record(1L, 3L);
+
+        assertEquals(OptionalLong.of(3L), versions.known(1L));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    void current_ShouldLoadStoredVersionOnce() {
+        when(restaurantRepository.findContentVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertEquals(5L, versions.current(1L));
+        assertEquals(5L, versions.current(1L));
+
+        verify(restaurantRepository, times(1)).findContentVersionById(1L);
+    }
+
+    @Test
+    void current_ForMissingRestaurant_ShouldBeZeroAndNotRemembered() {
+        when(restaurantRepository.findContentVersionById(9L)).thenReturn(Optional.empty());
+
+        assertEquals(0L, versions.current(9L));
+        assertEquals(OptionalLong.empty(), versions.known(9L));
+    }
+
+    @Test
+    void current_AfterTtl_ShouldReloadStoredVersion() {
+        when(restaurantRepository.findContentVersionById(1L)).thenReturn(Optional.of(5L), Optional.of(8L));
+        assertEquals(5L, versions.current(1L));
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertEquals(OptionalLong.empty(), versions.known(1L));
+        assertEquals(8L, versions.current(1L));
+        verify(restaurantRepository, times(2)).findContentVersionById(1L);
+    }
+
+    @Test
+    void record_ShouldKeepHighestVersionWhateverTheOrder() {
+        versions.record(1L, 6L);
+        versions.record(1L, 5L);
+
+        assertEquals(OptionalLong.of(6L), versions.known(1L));
+    }
+
+    @Test
+    void matches_ShouldFollowIfNoneMatchComparison() {
+        String etag = RestaurantVersions.menuETag(1L, 2L);
+
+        assertTrue(RestaurantVersions.matches(etag, etag));
+        assertTrue(RestaurantVersions.matches("W/" + etag, etag));
+        assertTrue(RestaurantVersions.matches("\"other\", " + etag, etag));
+        assertTrue(RestaurantVersions.matches("*", etag));
+        assertFalse(RestaurantVersions.matches(null, etag));
+        assertFalse(RestaurantVersions.matches(RestaurantVersions.menuETag(1L, 1L), etag));
+        assertFalse(RestaurantVersions.matches(RestaurantVersions.restaurantETag(1L, 2L), etag));
+    }
+}
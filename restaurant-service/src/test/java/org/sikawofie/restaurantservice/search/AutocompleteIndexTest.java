@@ -0,0 +1,82 @@
+package org.sikawofie.restaurantservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.restaurantservice.search.AutocompleteIndex.Suggestion;
+import org.sikawofie.restaurantservice.search.AutocompleteIndex.Type;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = AutocompleteIndex.builder()
+                .add("Golden Jollof Kitchen", Type.RESTAURANT, 1L, 40)
+                .add("Jollof House", Type.RESTAURANT, 2L, 90)
+                .add("Jollof Rice", Type.DISH, null, 200)
+                .add("Jollof Jollof Grill", Type.RESTAURANT, 3L, 5)
+                .add("Café Noir", Type.RESTAURANT, 4L, 10)
+                .build();
+    }
+
+    @Test
+    void prefix_ShouldMatchStartOfAnyWord() {
+        assertEquals(List.of("Golden Jollof Kitchen"), texts(index.suggest("gold", 10)));
+        assertEquals(List.of("Golden Jollof Kitchen"), texts(index.suggest("KITCH", 10)));
+        assertEquals(List.of("Jollof House"), texts(index.suggest("jollof h", 10)));
+        assertTrue(index.suggest("ollof", 10).isEmpty());
+    }
+
+    @Test
+    void matches_ShouldComeMostPopularFirst() {
+        assertEquals(List.of("Jollof Rice", "Jollof House", "Golden Jollof Kitchen", "Jollof Jollof Grill"),
+                texts(index.suggest("jol", 10)));
+        assertEquals(List.of("Jollof Rice", "Jollof House"), texts(index.suggest("jol", 2)));
+    }
+
+    @Test
+    void nameMatchingTwice_ShouldBeSuggestedOnce() {
+        assertEquals(1, index.suggest("jollof", 10).stream()
+                .filter(suggestion -> suggestion.text().equals("Jollof Jollof Grill"))
+                .count());
+    }
+
+    @Test
+    void suggestion_ShouldCarryDisplayTextTypeAndRestaurant() {
+        assertEquals(List.of(new Suggestion("Café Noir", Type.RESTAURANT, 4L)), index.suggest("cafe", 10));
+        assertEquals(List.of(new Suggestion("Jollof Rice", Type.DISH, null)), index.suggest("rice", 10));
+    }
+
+    @Test
+    void blankOrUnknownPrefix_ShouldSuggestNothing() {
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(index.suggest(null, 10).isEmpty());
+        assertTrue(index.suggest("sushi", 10).isEmpty());
+        assertTrue(index.suggest("jol", 0).isEmpty());
+        assertTrue(AutocompleteIndex.empty().suggest("jol", 10).isEmpty());
+    }
+
+    @Test
+    void largeIndex_ShouldFindTopWeightsAcrossBlocks() {
+        AutocompleteIndex.Builder builder = AutocompleteIndex.builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.add("Dish " + i, Type.DISH, null, (i * 7) % 1_000);
+        }
+        AutocompleteIndex large = builder.build();
+
+        assertEquals(1_000, large.entries());
+        assertEquals(2_000, large.keys());
+        // i * 7 mod 1000 is a permutation, so weights 999, 998 and 997 belong to dishes 857, 714 and 571
+        assertEquals(List.of("Dish 857", "Dish 714", "Dish 571"), texts(large.suggest("dish", 3)));
+        assertEquals(List.of("Dish 512"), texts(large.suggest("512", 5)));
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
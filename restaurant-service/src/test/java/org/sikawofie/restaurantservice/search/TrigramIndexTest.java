@@ -0,0 +1,94 @@
+package org.sikawofie.restaurantservice.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put(1L, "Gourmet Paradise");
+        index.put(2L, "Burger World");
+        index.put(3L, "Gourmet Burger Kitchen");
+        index.put(4L, "Café Noir");
+    }
+
+    @Test
+    void substring_ShouldMatchLikeContaining() {
+        assertEquals(List.of(1L, 3L), index.search("gourmet", 10));
+        assertEquals(List.of(2L, 3L), index.search("URGE", 10));
+    }
+
+    @Test
+    void typo_ShouldStillMatch() {
+        assertEquals(List.of(1L, 3L), index.search("Gormet", 10));
+        assertEquals(List.of(2L, 3L), index.search("burgr", 10));
+    }
+
+    @Test
+    void closerText_ShouldRankFirst() {
+        assertEquals(List.of(2L, 3L), index.search("burger", 10));
+        assertEquals(List.of(3L), index.search("burger kitchen", 10));
+        assertEquals(List.of(2L), index.search("burger", 1));
+    }
+
+    @Test
+    void accentsAndPunctuation_ShouldBeIgnored() {
+        assertEquals(List.of(4L), index.search("cafe", 10));
+        assertEquals(List.of(1L), index.search("gourmet-paradise!", 10));
+    }
+
+    @Test
+    void shortQuery_ShouldMatchInsideWords() {
+        index.put(5L, "Pizza Hut");
+
+        assertEquals(List.of(5L), index.search("zz", 10));
+        assertEquals(List.of(2L, 1L, 3L), index.search("ur", 10));
+        assertEquals(List.of(2L), index.search("UR", 1));
+        assertTrue(index.search("qx", 10).isEmpty());
+    }
+
+    @Test
+    void repeatedSearches_ShouldNotCarryCountsOver() {
+        List<Long> first = index.search("gormet", 10);
+        index.search("burger", 10);
+
+        assertEquals(first, index.search("gormet", 10));
+        assertEquals(List.of(4L), index.search("cafe", 10));
+    }
+
+    @Test
+    void unrelatedQuery_ShouldFindNothing() {
+        assertTrue(index.search("sushi", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void updatedText_ShouldReplaceOldTrigrams() {
+        index.put(2L, "Sushi Bar");
+
+        assertEquals(List.of(3L), index.search("burger", 10));
+        assertEquals(List.of(2L), index.search("sushi", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void growingIndex_ShouldKeepEveryDocument() {
+        for (long id = 100; id < 1_100; id++) {
+            index.put(id, "Restaurant " + id);
+        }
+
+        assertEquals(List.of(512L), index.search("restaurant 512", 1));
+        assertEquals(1_004, index.size());
+
+        index.clear();
+        assertTrue(index.search("gourmet", 10).isEmpty());
+    }
+}
@@ -37,6 +37,7 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
         registry.add("spring.datasource.username", mySQLContainer::getUsername);
         registry.add("spring.datasource.password", mySQLContainer::getPassword);
+        registry.add("identity.header.secret", () -> "aW50ZWdyYXRpb24tdGVzdC1pZGVudGl0eS1oZWFkZXItc2VjcmV0");
     }
 
     @AfterEach
@@ -44,7 +45,7 @@ public abstract class BaseIntegrationTest {
         try (var connection = dataSource.getConnection();
              var statement = connection.createStatement()) {
             statement.execute("SET FOREIGN_KEY_CHECKS = 0");
-            statement.execute("TRUNCATE TABLE menu_items");
+            statement.execute("TRUNCATE TABLE menu_item");
             statement.execute("TRUNCATE TABLE restaurants");
             statement.execute("SET FOREIGN_KEY_CHECKS = 1");
         }
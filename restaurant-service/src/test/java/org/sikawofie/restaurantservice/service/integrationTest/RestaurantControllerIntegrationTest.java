@@ -10,6 +10,7 @@ import org.sikawofie.restaurantservice.entity.Restaurant;
 import org.sikawofie.restaurantservice.enums.RestaurantStatus;
 import org.sikawofie.restaurantservice.repository.MenuItemRepository;
 import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.sikawofie.restaurantservice.search.RestaurantSearchIndex;
 import org.sikawofie.restaurantservice.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -46,6 +47,9 @@ class RestaurantControllerIntegrationTest {
     @Autowired
     private MenuItemRepository menuItemRepository;
 
+    @Autowired
+    private RestaurantSearchIndex searchIndex;
+
     @MockBean
     private SecurityUtils securityUtils;
 
@@ -75,6 +79,7 @@ class RestaurantControllerIntegrationTest {
                 .restaurant(testRestaurant)
                 .build();
         testMenuItem = menuItemRepository.save(testMenuItem);
+        searchIndex.load();
 
         when(securityUtils.getUserId()).thenReturn(1L);
         when(securityUtils.getUserRole()).thenReturn("OWNER");
@@ -114,8 +119,10 @@ class RestaurantControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status", is(200)))
                 .andExpect(jsonPath("$.message", is("Restaurants retrieved")))
-                .andExpect(jsonPath("$.data", hasSize(1)))
-                .andExpect(jsonPath("$.data[0].name", is(testRestaurant.getName())));
+                .andExpect(jsonPath("$.data.items", hasSize(1)))
+                .andExpect(jsonPath("$.data.items[0].name", is(testRestaurant.getName())))
+                .andExpect(jsonPath("$.data.items[0].menuItems[0].name", is(testMenuItem.getName())))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
     }
 
     @Test
@@ -129,6 +136,36 @@ class RestaurantControllerIntegrationTest {
                 .andExpect(jsonPath("$.data[0].name", is(testMenuItem.getName())));
     }
 
+    @Test
+    @WithMockUser(roles = {"OWNER"})
+    void getRestaurantMenu_ShouldServeCachedMenuUntilMenuChanges() throws Exception {
+        mockMvc.perform(get("/api/restaurant/{id}/menu", testRestaurant.getId()))
+                .andExpect(jsonPath("$.data", hasSize(1)));
+
+        // Removed behind the service's back, so only a cache miss would notice
+        menuItemRepository.deleteAll();
+        menuItemRepository.flush();
+        mockMvc.perform(get("/api/restaurant/{id}/menu", testRestaurant.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name", is(testMenuItem.getName())))
+                .andExpect(jsonPath("$.timestamp", notNullValue()));
+
+        MenuItemRequestDto request = MenuItemRequestDto.builder()
+                .name("New Item")
+                .description("New Item Description")
+                .price(12.99)
+                .build();
+        mockMvc.perform(post("/api/restaurant/{id}/menu", testRestaurant.getId())
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/restaurant/{id}/menu", testRestaurant.getId()))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].name", is("New Item")));
+    }
+
     @Test
     @WithMockUser(roles = {"OWNER"})
     void addMenuItem_ShouldReturnCreatedMenuItem() throws Exception {
@@ -0,0 +1,124 @@
+package org.sikawofie.restaurantservice.service.integrationTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the whole restaurant listing over 50k restaurants, one keyset page at a time, and compares the latency of
+ * the first and the last pages. With offset pagination the last pages would scan every row before them; here each
+ * page is one index seek for the restaurants plus one query for their menus.
+ */
+@WithMockUser
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RestaurantPaginationBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int RESTAURANTS = 50_000;
+    private static final int MENU_ITEMS_PER_RESTAURANT = 3;
+    private static final int PAGE_SIZE = 50;
+    private static final int INSERT_CHUNK = 1_000;
+    private static final int SAMPLE_PAGES = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() throws SQLException {
+        cleanup();
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            for (int from = 0; from < RESTAURANTS; from += INSERT_CHUNK) {
+                StringBuilder sql = new StringBuilder("INSERT INTO restaurants "
+                        + "(name, description, location, email, phone_number, status, owner_id) VALUES ");
+                for (int i = from; i < from + INSERT_CHUNK; i++) {
+                    if (i > from) {
+                        sql.append(',');
+                    }
+                    sql.append("('Restaurant ").append(i).append("', 'Benchmark restaurant', 'Accra', 'r")
+                            .append(i).append("@example.com', '").append(1_000_000_000L + i).append("', 'ACTIVE', ")
+                            .append(i % 500 + 1).append(')');
+                }
+                statement.execute(sql.toString());
+            }
+            for (int item = 1; item <= MENU_ITEMS_PER_RESTAURANT; item++) {
+                statement.execute("INSERT INTO menu_item (name, description, price, restaurant_id) "
+                        + "SELECT 'Dish " + item + "', 'Benchmark dish', " + (item * 5.5) + ", id FROM restaurants");
+            }
+        }
+    }
+
+    @Test
+    void perPageLatency_ShouldStayFlatAcrossFiftyThousandRestaurants() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < SAMPLE_PAGES; i++) {
+            fetchPage(null);
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long start = System.nanoTime();
+            JsonNode page = fetchPage(cursor);
+            latencies.add(System.nanoTime() - start);
+
+            assertEquals(2, statistics.getPrepareStatementCount() - statementsBefore,
+                    "one query for the restaurants and one for their menus");
+            for (JsonNode restaurant : page.get("items")) {
+                assertTrue(seen.add(restaurant.get("id").asLong()), "restaurant returned twice");
+                assertEquals(MENU_ITEMS_PER_RESTAURANT, restaurant.get("menuItems").size());
+            }
+            cursor = page.path("nextCursor").isTextual() ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(RESTAURANTS, seen.size());
+        assertEquals(RESTAURANTS / PAGE_SIZE, latencies.size());
+
+        long first = median(latencies.subList(0, SAMPLE_PAGES));
+        long last = median(latencies.subList(latencies.size() - SAMPLE_PAGES, latencies.size()));
+        assertTrue(last < first * 3, "median of the last " + SAMPLE_PAGES + " of " + latencies.size() + " pages took "
+                + last + " ns against " + first + " ns for the first " + SAMPLE_PAGES);
+    }
+
+    private JsonNode fetchPage(String cursor) throws Exception {
+        var request = get("/api/restaurant/").param("size", String.valueOf(PAGE_SIZE));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("data");
+    }
+
+    private static long median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,160 @@
+package org.sikawofie.restaurantservice.service.integrationTest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sikawofie.restaurantservice.dto.MenuItemRequestDto;
+import org.sikawofie.restaurantservice.enums.RestaurantStatus;
+import org.sikawofie.restaurantservice.producer.RestaurantEventPublisher;
+import org.sikawofie.restaurantservice.service.RestaurantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Replays one polling trace twice: clients poll restaurants and their menus while owners now and then add a dish
+ * or change a restaurant's status. The first pass polls unconditionally, the second sends back the last ETag
+ * each client saw. Both count the SQL statements the polls themselves cause, and after every poll, 304s included,
+ * what the client holds is checked against the current state so an avoided query can never mean stale data.
+ */
+@WithMockUser
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RestaurantPollingWorkloadTest extends BaseIntegrationTest {
+
+    private static final int RESTAURANTS = 20;
+    private static final int MENU_ITEMS_PER_RESTAURANT = 3;
+    private static final int POLLS = 2_000;
+    private static final int CHANGE_EVERY = 50;
+    private static final long OWNER_ID = 1L;
+
+    @MockBean
+    private RestaurantEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RestaurantService restaurantService;
+
+    private final int[] menuSizes = new int[RESTAURANTS + 1];
+    private final RestaurantStatus[] statuses = new RestaurantStatus[RESTAURANTS + 1];
+
+    @BeforeEach
+    void seed() throws SQLException {
+        cleanup();
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement()) {
+            for (int i = 1; i <= RESTAURANTS; i++) {
+                statement.execute("INSERT INTO restaurants (name, description, location, email, phone_number, status, "
+                        + "owner_id) VALUES ('Restaurant " + i + "', 'Polled restaurant', 'Accra', 'r" + i
+                        + "@example.com', '" + (1_000_000_000L + i) + "', 'ACTIVE', " + OWNER_ID + ")");
+                menuSizes[i] = MENU_ITEMS_PER_RESTAURANT;
+                statuses[i] = RestaurantStatus.ACTIVE;
+            }
+            for (int item = 1; item <= MENU_ITEMS_PER_RESTAURANT; item++) {
+                statement.execute("INSERT INTO menu_item (name, description, price, restaurant_id) "
+                        + "SELECT 'Dish " + item + "', 'Polled dish', " + (item * 5.5) + ", id FROM restaurants");
+            }
+        }
+    }
+
+    @Test
+    void conditionalPolling_ShouldAvoidQueriesWithoutServingStaleContent() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Replay unconditional = replay(false, statistics);
+        Replay conditional = replay(true, statistics);
+
+        assertEquals(0, unconditional.notModified());
+        assertTrue(conditional.notModified() > POLLS / 2, conditional.notModified() + " of " + POLLS + " polls answered 304");
+        // Once every client holds an ETag, a poll only reaches the database after the restaurant it asks for changed
+        assertTrue(conditional.statements() <= 3L * RESTAURANTS + 4L * conditional.changes(),
+                conditional.statements() + " statements for " + conditional.changes() + " changes");
+        assertTrue(conditional.statements() * 5 < unconditional.statements(),
+                conditional.statements() + " statements with If-None-Match against " + unconditional.statements()
+                        + " unconditionally over " + POLLS + " polls");
+    }
+
+    private Replay replay(boolean conditional, Statistics statistics) throws Exception {
+        Random random = new Random(42);
+        Map<String, String> etags = new HashMap<>();
+        Map<String, JsonNode> held = new HashMap<>();
+        long statements = 0;
+        int notModified = 0;
+        int changes = 0;
+        for (int poll = 1; poll <= POLLS; poll++) {
+            if (poll % CHANGE_EVERY == 0) {
+                change(1 + random.nextInt(RESTAURANTS), random);
+                changes++;
+            }
+
+            int id = 1 + random.nextInt(RESTAURANTS);
+            boolean menu = random.nextBoolean();
+            String url = menu ? "/api/restaurant/" + id + "/menu" : "/api/restaurant/" + id;
+            var request = get(url);
+            if (conditional && etags.containsKey(url)) {
+                request.header(HttpHeaders.IF_NONE_MATCH, etags.get(url));
+            }
+
+            long before = statistics.getPrepareStatementCount();
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+            statements += statistics.getPrepareStatementCount() - before;
+
+            if (response.getStatus() == 304) {
+                notModified++;
+                assertEquals(etags.get(url), response.getHeader(HttpHeaders.ETAG));
+            } else {
+                assertEquals(200, response.getStatus(), url);
+                assertNotNull(response.getHeader(HttpHeaders.ETAG), url);
+                etags.put(url, response.getHeader(HttpHeaders.ETAG));
+                held.put(url, objectMapper.readTree(response.getContentAsString()).get("data"));
+            }
+
+            if (menu) {
+                assertEquals(menuSizes[id], held.get(url).size(), "stale menu at poll " + poll);
+            } else {
+                assertEquals(statuses[id].name(), held.get(url).get("status").asText(), "stale restaurant at poll " + poll);
+            }
+        }
+        return new Replay(statements, notModified, changes);
+    }
+
+    private void change(int id, Random random) {
+        if (random.nextBoolean()) {
+            restaurantService.addMenuItem((long) id, MenuItemRequestDto.builder()
+                    .name("Special " + menuSizes[id])
+                    .description("Added while polling")
+                    .price(9.5)
+                    .build(), OWNER_ID, "OWNER");
+            menuSizes[id]++;
+        } else {
+            statuses[id] = statuses[id] == RestaurantStatus.ACTIVE ? RestaurantStatus.INACTIVE : RestaurantStatus.ACTIVE;
+            restaurantService.updateRestaurantStatus((long) id, statuses[id]);
+        }
+    }
+
+    private record Replay(long statements, int notModified, int changes) {
+    }
+}
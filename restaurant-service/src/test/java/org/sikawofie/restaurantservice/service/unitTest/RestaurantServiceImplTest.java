@@ -1,8 +1,12 @@
 package org.sikawofie.restaurantservice.service.unitTest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.sikawofie.restaurantservice.cache.MenuCache;
+import org.sikawofie.restaurantservice.cache.RestaurantVersions;
+import org.sikawofie.restaurantservice.cache.Versioned;
 import org.sikawofie.restaurantservice.dto.*;
 import org.sikawofie.restaurantservice.entity.MenuItem;
 import org.sikawofie.restaurantservice.entity.Restaurant;
@@ -10,12 +14,20 @@ import org.sikawofie.restaurantservice.enums.RestaurantStatus;
 import org.sikawofie.restaurantservice.exceptions.*;
 import org.sikawofie.restaurantservice.mappers.RestaurantRequestDtoToRestaurant;
 import org.sikawofie.restaurantservice.mappers.RestaurantToDtoMapper;
+import org.sikawofie.restaurantservice.producer.RestaurantEventPublisher;
 import org.sikawofie.restaurantservice.repository.MenuItemRepository;
+import org.sikawofie.restaurantservice.repository.MenuItemRow;
 import org.sikawofie.restaurantservice.repository.RestaurantRepository;
+import org.sikawofie.restaurantservice.search.RestaurantAutocomplete;
+import org.sikawofie.restaurantservice.search.RestaurantSearchIndex;
 import org.sikawofie.restaurantservice.service.impl.RestaurantServiceImpl;
+import org.sikawofie.restaurantservice.utils.PageCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +37,12 @@ public class RestaurantServiceImplTest {
         @Mock private MenuItemRepository menuItemRepository;
         @Mock private RestaurantToDtoMapper restaurantMapper;
         @Mock private RestaurantRequestDtoToRestaurant requestMapper;
+        @Mock private RestaurantEventPublisher eventPublisher;
+        @Mock private RestaurantSearchIndex searchIndex;
+        @Mock private RestaurantAutocomplete autocomplete;
+        @Mock private MenuCache menuCache;
+        @Mock private RestaurantVersions versions;
+        @Spy private ObjectMapper objectMapper = new ObjectMapper();
 
         @InjectMocks
         private RestaurantServiceImpl restaurantService;
@@ -58,11 +76,47 @@ public class RestaurantServiceImplTest {
 
         @Test
         void testGetAll_ShouldReturnRestaurantList() {
-            List<Restaurant> mockList = List.of(new Restaurant(), new Restaurant());
-            when(restaurantRepository.findAll()).thenReturn(mockList);
+            List<Restaurant> mockList = List.of(restaurant(1L), restaurant(2L));
+            when(restaurantRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(mockList);
 
-            List<RestaurantResponseDto> result = restaurantService.getAll();
-            assertEquals(2, result.size());
+            RestaurantPageDto result = restaurantService.getAll(null, 20);
+            assertEquals(2, result.getItems().size());
+            assertNull(result.getNextCursor());
+        }
+
+        @Test
+        void testGetAll_ShouldLoadPageMenusInOneQuery() {
+            when(restaurantRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                    .thenReturn(List.of(restaurant(1L), restaurant(2L), restaurant(3L)));
+            when(menuItemRepository.findRowsByRestaurantIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(menuRow(1L, 10L, "Burger"), menuRow(1L, 11L, "Fries"), menuRow(2L, 20L, "Soup")));
+
+            RestaurantPageDto result = restaurantService.getAll(null, 2);
+
+            assertEquals(2, result.getItems().size());
+            assertEquals(List.of("Burger", "Fries"),
+                    result.getItems().get(0).getMenuItems().stream().map(MenuItemResponseDto::getName).toList());
+            assertEquals(1, result.getItems().get(1).getMenuItems().size());
+            assertEquals(2L, PageCursor.decode(result.getNextCursor()));
+            verify(menuItemRepository, times(1)).findRowsByRestaurantIdIn(anyCollection());
+            verify(menuItemRepository, never()).findByRestaurantId(anyLong());
+        }
+
+        @Test
+        void testGetAll_ShouldResumeAfterCursor() {
+            when(restaurantRepository.findByIdGreaterThanOrderByIdAsc(40L, Limit.of(RestaurantServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+            RestaurantPageDto result = restaurantService.getAll(PageCursor.encode(40L), 10_000);
+
+            assertTrue(result.getItems().isEmpty());
+            assertNull(result.getNextCursor());
+            verifyNoInteractions(menuItemRepository);
+        }
+
+        @Test
+        void testGetAll_InvalidCursor_ShouldThrowException() {
+            assertThrows(BusinessException.class, () -> restaurantService.getAll("not a cursor", 20));
+            assertThrows(BusinessException.class, () -> restaurantService.getAll(PageCursor.encode(-1L), 20));
         }
 
         @Test
@@ -81,6 +135,76 @@ public class RestaurantServiceImplTest {
             assertEquals("Burger", result.get(0).getName());
         }
 
+        @Test
+        @SuppressWarnings("unchecked")
+        void testGetMenuJson_OnMiss_ShouldSerializeMenuIntoCache() {
+            MenuItem item = MenuItem.builder().id(1L).name("Burger").description("Tasty").price(5.99).build();
+            when(versions.current(1L)).thenReturn(4L);
+            when(menuItemRepository.findByRestaurantId(1L)).thenReturn(List.of(item));
+            when(menuCache.get(eq(1L), any())).thenAnswer(invocation ->
+                    invocation.<Function<Long, Versioned<byte[]>>>getArgument(1).apply(1L));
+
+            Versioned<byte[]> menu = restaurantService.getMenuJson(1L);
+
+            assertEquals("[{\"id\":1,\"name\":\"Burger\",\"description\":\"Tasty\",\"price\":5.99}]",
+                    new String(menu.data(), StandardCharsets.UTF_8));
+            assertEquals(4L, menu.version());
+            InOrder order = inOrder(versions, menuItemRepository);
+            order.verify(versions).current(1L);
+            order.verify(menuItemRepository).findByRestaurantId(1L);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void testGetMenuJson_CachedBeforeNewerKnownVersion_ShouldBeReloaded() {
+            Versioned<byte[]> stale = new Versioned<>("[]".getBytes(StandardCharsets.UTF_8), 2L);
+            when(versions.known(1L)).thenReturn(OptionalLong.of(3L));
+            when(versions.current(1L)).thenReturn(3L);
+            when(menuItemRepository.findByRestaurantId(1L)).thenReturn(List.of());
+            when(menuCache.get(eq(1L), any())).thenReturn(stale).thenAnswer(invocation ->
+                    invocation.<Function<Long, Versioned<byte[]>>>getArgument(1).apply(1L));
+
+            Versioned<byte[]> menu = restaurantService.getMenuJson(1L);
+
+            assertEquals(3L, menu.version());
+            verify(menuCache).invalidate(1L);
+        }
+
+        @Test
+        void testAddMenuItem_Success_ShouldBumpVersionAndInvalidateCachedMenu() {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(1L);
+            restaurant.setOwnerId(1L);
+            when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+            when(menuItemRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(restaurantRepository.findContentVersionById(1L)).thenReturn(Optional.of(3L));
+
+            restaurantService.addMenuItem(1L, new MenuItemRequestDto("Fries", "Crispy", 3.5), 1L, "OWNER");
+
+            InOrder order = inOrder(menuItemRepository, restaurantRepository, menuCache, versions, eventPublisher);
+            order.verify(menuItemRepository).save(any());
+            order.verify(restaurantRepository).incrementContentVersion(1L);
+            order.verify(menuCache, times(2)).invalidate(1L);
+            order.verify(versions).record(1L, 3L);
+            order.verify(eventPublisher).publishChange(1L, "MENU_ITEM_ADDED", 3L);
+        }
+
+        @Test
+        void testGetRestaurantWithVersion_ShouldRecordStoredVersion() {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(1L);
+            restaurant.setContentVersion(7L);
+            RestaurantDTO dto = new RestaurantDTO();
+            when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+            when(restaurantMapper.toDTO(restaurant)).thenReturn(dto);
+
+            Versioned<RestaurantDTO> result = restaurantService.getRestaurantWithVersion(1L);
+
+            assertSame(dto, result.data());
+            assertEquals(7L, result.version());
+            verify(versions).record(1L, 7L);
+        }
+
         @Test
         void testAddMenuItem_WithUnauthorizedRole_ShouldThrow() {
             assertThrows(AccessDeniedException.class,
@@ -143,9 +267,13 @@ public class RestaurantServiceImplTest {
             when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
             when(restaurantRepository.save(any())).thenReturn(restaurant);
             when(restaurantMapper.toDTO(any())).thenReturn(new RestaurantDTO());
+            when(restaurantRepository.findContentVersionById(1L)).thenReturn(Optional.of(2L));
 
             RestaurantDTO result = restaurantService.updateRestaurantStatus(1L, RestaurantStatus.ACTIVE);
             assertNotNull(result);
+            verify(restaurantRepository).incrementContentVersion(1L);
+            verify(versions).record(1L, 2L);
+            verify(eventPublisher).publishChange(1L, "STATUS_CHANGED", 2L);
         }
 
         @Test
@@ -160,5 +288,39 @@ public class RestaurantServiceImplTest {
             assertTrue(fallback.isEmpty());
         }
 
+        private static Restaurant restaurant(Long id) {
+            Restaurant restaurant = new Restaurant();
+            restaurant.setId(id);
+            restaurant.setName("Restaurant " + id);
+            return restaurant;
+        }
 
+        private static MenuItemRow menuRow(Long restaurantId, Long id, String name) {
+            return new MenuItemRow() {
+                @Override
+                public Long getRestaurantId() {
+                    return restaurantId;
+                }
+
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public String getDescription() {
+                    return name;
+                }
+
+                @Override
+                public Double getPrice() {
+                    return 5.0;
+                }
+            };
+        }
 }
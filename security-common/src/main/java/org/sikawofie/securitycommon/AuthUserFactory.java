@@ -0,0 +1,11 @@
+package org.sikawofie.securitycommon;
+
+/**
+ * Builds a service's own view of the authenticated caller; {@link HeaderAuthFilter} stores it as the
+ * authentication details.
+ */
+@FunctionalInterface
+public interface AuthUserFactory {
+
+    Object create(UserIdentity identity);
+}
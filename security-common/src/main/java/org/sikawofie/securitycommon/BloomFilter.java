@@ -0,0 +1,142 @@
+package org.sikawofie.securitycommon;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over string keys, used to replicate the token denylist. {@link #mightContain} never returns a
+ * false negative; a {@code true} only means the key was probably added and has to be confirmed elsewhere.
+ * <p>
+ * Adds and lookups may run concurrently. The serialized form is
+ *
+ * <pre>
+ * version(1) | hashCount(1) | bitCount(8) | bits as big-endian longs
+ * </pre>
+ */
+public final class BloomFilter {
+
+    static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 1 + 1 + 8;
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(AtomicLongArray words, int hashCount) {
+        this.words = words;
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sizes the filter so that {@code expectedInsertions} keys give a false-positive rate of about
+     * {@code falsePositiveRate}.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long wordCount = wordCount(expectedInsertions, falsePositiveRate);
+        int hashes = (int) Math.max(1, Math.min(255, Math.round((double) wordCount * Long.SIZE / expectedInsertions * LN2)));
+        return new BloomFilter(new AtomicLongArray((int) wordCount), hashes);
+    }
+
+    /**
+     * The serialized size of a filter {@link #create created} with these arguments, without building it.
+     */
+    public static long sizeInBytes(long expectedInsertions, double falsePositiveRate) {
+        return HEADER_LENGTH + wordCount(expectedInsertions, falsePositiveRate) * Long.BYTES;
+    }
+
+    public static BloomFilter fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " Bloom filter");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        int hashes = buffer.get() & 0xFF;
+        long bits = buffer.getLong();
+        if (hashes == 0 || bits <= 0 || bits % Long.SIZE != 0 || buffer.remaining() != bits / Long.SIZE * Long.BYTES) {
+            throw new IllegalArgumentException("Corrupt Bloom filter");
+        }
+        long[] words = new long[(int) (bits / Long.SIZE)];
+        buffer.asLongBuffer().get(words);
+        return new BloomFilter(new AtomicLongArray(words), hashes);
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + words.length() * Long.BYTES);
+        buffer.put(VERSION).put((byte) hashCount).putLong(bitCount);
+        for (int i = 0; i < words.length(); i++) {
+            buffer.putLong(words.get(i));
+        }
+        return buffer.array();
+    }
+
+    public void put(CharSequence key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, add) -> current | add);
+            }
+        }
+    }
+
+    public boolean mightContain(CharSequence key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Size of {@link #toBytes()}.
+     */
+    public long sizeInBytes() {
+        return HEADER_LENGTH + (long) words.length() * Long.BYTES;
+    }
+
+    private static long wordCount(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive and the rate within (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        long wordCount = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        if (wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+        }
+        return wordCount;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the MurmurHash3 64-bit mix so that keys differing in a
+     * single character spread over the whole range.
+     */
+    private static long hash(CharSequence key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,68 @@
+package org.sikawofie.securitycommon;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Wiring for {@link HeaderAuthFilter} in servlet services. A service opts in by declaring an
+ * {@link AuthUserFactory} bean and adding the filter to its security chain; any bean below it declares itself wins.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnBean(AuthUserFactory.class)
+public class HeaderAuthAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityHeaderCodec identityHeaderCodec(
+            @Value("${identity.header.secret}") String secret) {
+        return IdentityHeaderCodec.fromSecret(secret);
+    }
+
+    @Bean
+    @LoadBalanced
+    @ConditionalOnMissingBean(name = "loadBalancedRestClientBuilder")
+    public RestClient.Builder loadBalancedRestClientBuilder() {
+        return RestClient.builder();
+    }
+
+    /**
+     * auth-service's token signing keys, refreshed in the background so verifying a token needs no network call.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public JwksKeySet jwksKeySet(@LoadBalanced RestClient.Builder loadBalancedRestClientBuilder,
+                                 @Value("${security.jwks.uri:http://auth-service/auth/.well-known/jwks.json}") String jwksUri,
+                                 @Value("${security.jwks.refresh-interval:5m}") Duration refreshInterval,
+                                 @Value("${security.jwks.retry-interval:10s}") Duration retryInterval,
+                                 @Value("${security.jwks.fetch-timeout:5s}") Duration fetchTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(fetchTimeout);
+        requestFactory.setReadTimeout(fetchTimeout);
+        RestClient restClient = loadBalancedRestClientBuilder.requestFactory(requestFactory).build();
+        return new JwksKeySet(() -> restClient.get().uri(jwksUri).retrieve().body(String.class),
+                refreshInterval, retryInterval).start();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtVerifier jwtVerifier(JwksKeySet jwksKeySet) {
+        return new JwtVerifier(jwksKeySet::get);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HeaderAuthFilter headerAuthFilter(IdentityHeaderCodec identityHeaderCodec, JwtVerifier jwtVerifier,
+                                             AuthUserFactory authUserFactory) {
+        return new HeaderAuthFilter(identityHeaderCodec, jwtVerifier, authUserFactory);
+    }
+}
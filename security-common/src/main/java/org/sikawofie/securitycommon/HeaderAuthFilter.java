@@ -0,0 +1,87 @@
+package org.sikawofie.securitycommon;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates a request from the gateway's signed {@link IdentityHeaderCodec#HEADER} or, for calls that bypass
+ * the gateway, from a bearer token. A header or token that is present but invalid is answered with 401 here;
+ * a request carrying neither continues unauthenticated. Service identities are refused.
+ */
+public class HeaderAuthFilter extends OncePerRequestFilter {
+
+    private static final System.Logger LOGGER = System.getLogger(HeaderAuthFilter.class.getName());
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final IdentityHeaderCodec identityHeaderCodec;
+    private final JwtVerifier jwtVerifier;
+    private final AuthUserFactory authUserFactory;
+
+    public HeaderAuthFilter(IdentityHeaderCodec identityHeaderCodec, JwtVerifier jwtVerifier, AuthUserFactory authUserFactory) {
+        this.identityHeaderCodec = identityHeaderCodec;
+        this.jwtVerifier = jwtVerifier;
+        this.authUserFactory = authUserFactory;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // The gateway's signed identity comes first; a bearer token only counts for calls that bypass the gateway
+        String identityHeader = request.getHeader(IdentityHeaderCodec.HEADER);
+        if (identityHeader != null) {
+            UserIdentity identity = identityHeaderCodec.decode(identityHeader, System.currentTimeMillis() / 1000);
+            if (identity == null) {
+                LOGGER.log(System.Logger.Level.WARNING, "Rejected invalid or expired ''{0}'' header", IdentityHeaderCodec.HEADER);
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid identity header");
+                return;
+            }
+            if (Roles.isService(identity.roleMask())) {
+                // Service identities are only good for auth-service's profile lookup
+                LOGGER.log(System.Logger.Level.WARNING, "Rejected service identity ''{0}''", identity.username());
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid identity header");
+                return;
+            }
+            authenticate(identity);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            UserIdentity identity = jwtVerifier.verify(authorization.substring(BEARER_PREFIX.length()), System.currentTimeMillis() / 1000);
+            if (identity == null) {
+                LOGGER.log(System.Logger.Level.WARNING, "Rejected invalid or expired access token");
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid access token");
+                return;
+            }
+            authenticate(identity);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Unauthenticated from here on; the entry point answers 401 unless the path is public
+        LOGGER.log(System.Logger.Level.DEBUG, "No identity header or access token presented");
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(UserIdentity identity) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(identity.username(), null, identity.authorities());
+        authentication.setDetails(authUserFactory.create(identity));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        LOGGER.log(System.Logger.Level.DEBUG, "Authenticated user [id={0}, name={1}] from signed identity",
+                identity.userId(), identity.username());
+    }
+}
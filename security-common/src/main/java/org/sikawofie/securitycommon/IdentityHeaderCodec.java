@@ -0,0 +1,214 @@
+package org.sikawofie.securitycommon;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes the identity the gateway verified into a single {@value #HEADER} header and decodes it in the
+ * services. The value is unpadded base64url over a fixed binary layout:
+ *
+ * <pre>
+ * version(1) | userId(8) | roleMask(1) | expiresAt epoch seconds(4)
+ *   | usernameLength(1) username(UTF-8) | emailLength(1) email(UTF-8) | HMAC-SHA256 truncated to 16 bytes
+ * </pre>
+ *
+ * Decoding works in per-thread buffers with a per-thread {@link Mac}; the only allocations are the
+ * username and email strings and the returned {@link UserIdentity}.
+ */
+public class IdentityHeaderCodec {
+
+    public static final String HEADER = "X-User-Identity";
+
+    static final byte VERSION = 1;
+    static final int TAG_LENGTH = 16;
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int FIXED_LENGTH = 1 + 8 + 1 + 4 + 1 + 1;
+    private static final int MAX_LENGTH = FIXED_LENGTH + 2 * MAX_FIELD_LENGTH + TAG_LENGTH;
+    private static final long NO_EXPIRY = 0xFFFF_FFFFL;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Scratch> scratch;
+
+    public IdentityHeaderCodec(byte[] secret) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Identity header secret must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(secret.clone(), ALGORITHM);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac()));
+    }
+
+    /**
+     * @param secret base64url-encoded key, as configured under {@code identity.header.secret}
+     */
+    public static IdentityHeaderCodec fromSecret(String secret) {
+        return new IdentityHeaderCodec(Base64.getUrlDecoder().decode(secret));
+    }
+
+    public String encode(UserIdentity identity) {
+        if (!Roles.isValid(identity.roleMask())) {
+            throw new IllegalArgumentException("Unknown role mask: " + identity.roleMask());
+        }
+        byte[] username = utf8(identity.username());
+        byte[] email = utf8(identity.email());
+        long expiresAt = identity.expiresAtEpochSecond() > 0 ? Math.min(identity.expiresAtEpochSecond(), NO_EXPIRY - 1) : NO_EXPIRY;
+
+        byte[] bytes = new byte[FIXED_LENGTH + username.length + email.length + TAG_LENGTH];
+        int pos = 0;
+        bytes[pos++] = VERSION;
+        pos = putLong(bytes, pos, identity.userId(), 8);
+        bytes[pos++] = (byte) identity.roleMask();
+        pos = putLong(bytes, pos, expiresAt, 4);
+        bytes[pos++] = (byte) username.length;
+        System.arraycopy(username, 0, bytes, pos, username.length);
+        pos += username.length;
+        bytes[pos++] = (byte) email.length;
+        System.arraycopy(email, 0, bytes, pos, email.length);
+        pos += email.length;
+
+        Scratch s = scratch.get();
+        s.mac.update(bytes, 0, pos);
+        s.doFinal();
+        System.arraycopy(s.digest, 0, bytes, pos, TAG_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @return the identity, or {@code null} if the value is malformed, forged, of an unknown version or expired
+     */
+    public UserIdentity decode(CharSequence value, long nowEpochSecond) {
+        if (value == null) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        int length = decodeBase64(value, s.bytes);
+        if (length < FIXED_LENGTH + TAG_LENGTH || s.bytes[0] != VERSION) {
+            return null;
+        }
+
+        byte[] bytes = s.bytes;
+        int payloadLength = length - TAG_LENGTH;
+        int usernameLength = bytes[14] & 0xFF;
+        int emailAt = 15 + usernameLength;
+        if (emailAt >= payloadLength) {
+            return null;
+        }
+        int emailLength = bytes[emailAt] & 0xFF;
+        if (emailAt + 1 + emailLength != payloadLength) {
+            return null;
+        }
+
+        s.mac.update(bytes, 0, payloadLength);
+        s.doFinal();
+        int diff = 0;
+        for (int i = 0; i < TAG_LENGTH; i++) {
+            diff |= s.digest[i] ^ bytes[payloadLength + i];
+        }
+        if (diff != 0) {
+            return null;
+        }
+
+        int roleMask = bytes[9] & 0xFF;
+        long expiresAt = getLong(bytes, 10, 4);
+        if (!Roles.isValid(roleMask) || (expiresAt != NO_EXPIRY && nowEpochSecond >= expiresAt)) {
+            return null;
+        }
+        return new UserIdentity(
+                getLong(bytes, 1, 8),
+                new String(bytes, 15, usernameLength, StandardCharsets.UTF_8),
+                new String(bytes, emailAt + 1, emailLength, StandardCharsets.UTF_8),
+                roleMask,
+                expiresAt == NO_EXPIRY ? 0L : expiresAt
+        );
+    }
+
+    private static int decodeBase64(CharSequence value, byte[] out) {
+        int chars = value.length();
+        if (chars % 4 == 1 || chars * 3L / 4 > out.length) {
+            return -1;
+        }
+        int length = 0;
+        int buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            int sextet = c < 128 ? BASE64URL[c] : -1;
+            if (sextet < 0) {
+                return -1;
+            }
+            buffer = (buffer << 6) | sextet;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                out[length++] = (byte) (buffer >> bits);
+            }
+        }
+        return length;
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (bytes.length > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Identity field longer than " + MAX_FIELD_LENGTH + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int putLong(byte[] bytes, int pos, long value, int width) {
+        for (int shift = (width - 1) * 8; shift >= 0; shift -= 8) {
+            bytes[pos++] = (byte) (value >>> shift);
+        }
+        return pos;
+    }
+
+    private static long getLong(byte[] bytes, int pos, int width) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = (value << 8) | (bytes[pos + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] bytes = new byte[MAX_LENGTH];
+        final byte[] digest = new byte[32];
+
+        Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        void doFinal() {
+            try {
+                mac.doFinal(digest, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.sikawofie.securitycommon;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes JSON Web Key Sets (RFC 7517) holding P-256 signing keys, the only kind auth-service issues.
+ */
+public final class Jwks {
+
+    public static final String ALGORITHM = "ES256";
+    private static final String CURVE = "P-256";
+    private static final int COORDINATE_LENGTH = 32;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ECParameterSpec P256 = p256();
+
+    private Jwks() {
+    }
+
+    public static String toJson(Map<String, ECPublicKey> keys) {
+        ObjectNode jwks = MAPPER.createObjectNode();
+        ArrayNode array = jwks.putArray("keys");
+        keys.forEach((kid, key) -> array.addObject()
+                .put("kty", "EC")
+                .put("crv", CURVE)
+                .put("use", "sig")
+                .put("alg", ALGORITHM)
+                .put("kid", kid)
+                .put("x", coordinate(key.getW().getAffineX()))
+                .put("y", coordinate(key.getW().getAffineY())));
+        return jwks.toString();
+    }
+
+    /**
+     * @return the P-256 signing keys by {@code kid}; keys of other types are skipped
+     * @throws IllegalArgumentException if the document is not a JWK set
+     */
+    public static Map<String, PublicKey> parse(String json) {
+        JsonNode keys;
+        try {
+            keys = MAPPER.readTree(json).path("keys");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JWK set", e);
+        }
+        if (!keys.isArray()) {
+            throw new IllegalArgumentException("JWK set has no keys");
+        }
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode key : keys) {
+            if (!"EC".equals(key.path("kty").asText()) || !CURVE.equals(key.path("crv").asText())
+                    || !key.hasNonNull("kid") || !key.hasNonNull("x") || !key.hasNonNull("y")) {
+                continue;
+            }
+            parsed.put(key.get("kid").asText(), publicKey(key.get("x").asText(), key.get("y").asText()));
+        }
+        return parsed;
+    }
+
+    private static PublicKey publicKey(String x, String y) {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        ECPoint point = new ECPoint(new BigInteger(1, decoder.decode(x)), new BigInteger(1, decoder.decode(y)));
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, P256));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid EC key in JWK set", e);
+        }
+    }
+
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, COORDINATE_LENGTH - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 is not available", e);
+        }
+    }
+}
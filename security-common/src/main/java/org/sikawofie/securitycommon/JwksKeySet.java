@@ -0,0 +1,120 @@
+package org.sikawofie.securitycommon;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Local copy of auth-service's signing keys. A background thread refetches the JWK set every
+ * {@code refreshInterval}, and sooner after a failure, then swaps the new keys in whole; lookups never wait on
+ * the network. auth-service publishes a key before signing with it, so a rotation is picked up ahead of time.
+ * An unknown {@code kid} only schedules an early refresh.
+ */
+public class JwksKeySet implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(JwksKeySet.class.getName());
+
+    private final Supplier<String> fetcher;
+    private final Duration refreshInterval;
+    private final Duration retryInterval;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastAttemptNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+
+    /**
+     * @param fetcher returns the JWK set document; it is only called from the refresh thread, so it may block
+     */
+    public JwksKeySet(Supplier<String> fetcher, Duration refreshInterval, Duration retryInterval) {
+        this.fetcher = fetcher;
+        this.refreshInterval = refreshInterval;
+        this.retryInterval = retryInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the background refresh, beginning with an immediate fetch.
+     */
+    public JwksKeySet start() {
+        scheduler.execute(this::scheduledRefresh);
+        return this;
+    }
+
+    /**
+     * @return the verification key, or {@code null} if {@code kid} is not (yet) known
+     */
+    public PublicKey get(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            refreshSoon();
+        }
+        return key;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Fetches the key set now. A response without keys leaves the current keys in place.
+     *
+     * @return whether the fetch succeeded
+     */
+    public boolean refresh() {
+        lastAttemptNanos = System.nanoTime();
+        try {
+            Map<String, PublicKey> loaded = Jwks.parse(fetcher.get());
+            if (loaded.isEmpty()) {
+                LOGGER.log(System.Logger.Level.WARNING, "JWK set has no usable keys; keeping {0} known keys", keys.size());
+                return false;
+            }
+            keys = Map.copyOf(loaded);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Could not refresh JWK set: {0}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void scheduledRefresh() {
+        Duration next = refresh() ? refreshInterval : retryInterval;
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::scheduledRefresh, next.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refreshSoon() {
+        if (System.nanoTime() - lastAttemptNanos < retryInterval.toNanos() || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshQueued.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshQueued.set(false);
+        }
+    }
+}
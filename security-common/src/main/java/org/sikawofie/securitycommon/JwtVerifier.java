@@ -0,0 +1,83 @@
+package org.sikawofie.securitycommon;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Verifies the platform's ES256 access tokens against locally held keys, typically a {@link JwksKeySet}, and
+ * maps the claims to a {@link UserIdentity}. Only ES256 is accepted; the {@code alg} header cannot downgrade it.
+ */
+public class JwtVerifier {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Function<String, PublicKey> keys;
+    private final ThreadLocal<Signature> signature = ThreadLocal.withInitial(() -> {
+        try {
+            // JWS carries ECDSA signatures as raw r|s rather than DER
+            return Signature.getInstance("SHA256withECDSAinP1363Format");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("ECDSA is not available", e);
+        }
+    });
+
+    /**
+     * @param keys verification key by {@code kid}, or {@code null} if unknown
+     */
+    public JwtVerifier(Function<String, PublicKey> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * @return the caller's identity, or {@code null} if the token is malformed, not ES256, signed with an unknown
+     * key, forged, expired or carries an unknown role
+     */
+    public UserIdentity verify(String token, long nowEpochSecond) {
+        if (token == null) {
+            return null;
+        }
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonNode header = MAPPER.readTree(decoder.decode(token.substring(0, headerEnd)));
+            if (!Jwks.ALGORITHM.equals(header.path("alg").asText())) {
+                return null;
+            }
+            PublicKey key = keys.apply(header.path("kid").asText(null));
+            if (key == null) {
+                return null;
+            }
+
+            Signature verifier = signature.get();
+            verifier.initVerify(key);
+            verifier.update(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+            if (!verifier.verify(decoder.decode(token.substring(payloadEnd + 1)))) {
+                return null;
+            }
+
+            JsonNode claims = MAPPER.readTree(decoder.decode(token.substring(headerEnd + 1, payloadEnd)));
+            long expiresAt = claims.path("exp").asLong(0);
+            JsonNode userId = claims.get("userId");
+            int roleMask = Roles.mask(claims.path("role").asText(""));
+            if (expiresAt <= nowEpochSecond || userId == null || !userId.canConvertToLong() || roleMask < 0) {
+                return null;
+            }
+            return new UserIdentity(userId.asLong(), claims.path("sub").asText(null), claims.path("email").asText(""),
+                    roleMask, expiresAt);
+        } catch (IllegalArgumentException | IOException | GeneralSecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.sikawofie.securitycommon;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The platform's roles as bits of a mask. Every combination has one shared, unmodifiable authority list,
+ * so authenticating a request never allocates authorities.
+ */
+public final class Roles {
+
+    public static final int CUSTOMER = 1;
+    public static final int RESTAURANT_OWNER = 1 << 1;
+    public static final int ADMIN = 1 << 2;
+    /**
+     * Held only by identities services mint for their own calls, never by a user: {@link #mask(String)} rejects it,
+     * so no access token can carry it.
+     */
+    public static final int SERVICE = 1 << 3;
+
+    private static final String[] NAMES = {"ROLE_CUSTOMER", "ROLE_RESTAURANT_OWNER", "ROLE_ADMIN", "ROLE_SERVICE"};
+    private static final int ALL = (1 << NAMES.length) - 1;
+
+    @SuppressWarnings("unchecked")
+    private static final List<GrantedAuthority>[] AUTHORITIES = new List[ALL + 1];
+
+    static {
+        for (int mask = 0; mask <= ALL; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>(NAMES.length);
+            for (int bit = 0; bit < NAMES.length; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    authorities.add(new SimpleGrantedAuthority(NAMES[bit]));
+                }
+            }
+            AUTHORITIES[mask] = List.copyOf(authorities);
+        }
+    }
+
+    private Roles() {
+    }
+
+    /**
+     * Parses a comma-separated role list as carried in the JWT, with or without the {@code ROLE_} prefix.
+     *
+     * @return the role mask, or {@code -1} if any role is unknown or is {@link #SERVICE}
+     */
+    public static int mask(String roles) {
+        if (roles == null) {
+            return 0;
+        }
+        int mask = 0;
+        int start = 0;
+        while (start <= roles.length()) {
+            int end = roles.indexOf(',', start);
+            if (end < 0) {
+                end = roles.length();
+            }
+            int from = start;
+            int to = end;
+            while (from < to && Character.isWhitespace(roles.charAt(from))) {
+                from++;
+            }
+            while (to > from && Character.isWhitespace(roles.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to) {
+                int bit = bit(roles, from, to);
+                if (bit < 0 || 1 << bit == SERVICE) {
+                    return -1;
+                }
+                mask |= 1 << bit;
+            }
+            start = end + 1;
+        }
+        return mask;
+    }
+
+    public static boolean isService(int mask) {
+        return (mask & SERVICE) != 0;
+    }
+
+    public static boolean isValid(int mask) {
+        return mask >= 0 && mask <= ALL;
+    }
+
+    public static List<GrantedAuthority> authorities(int mask) {
+        if (!isValid(mask)) {
+            throw new IllegalArgumentException("Unknown role mask: " + mask);
+        }
+        return AUTHORITIES[mask];
+    }
+
+    private static int bit(String roles, int from, int to) {
+        boolean prefixed = roles.startsWith("ROLE_", from);
+        for (int bit = 0; bit < NAMES.length; bit++) {
+            String name = NAMES[bit];
+            int offset = prefixed ? 0 : 5;
+            int length = name.length() - offset;
+            if (to - from == length && roles.regionMatches(from, name, offset, length)) {
+                return bit;
+            }
+        }
+        return -1;
+    }
+}
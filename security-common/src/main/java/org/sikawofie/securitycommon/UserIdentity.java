@@ -0,0 +1,16 @@
+package org.sikawofie.securitycommon;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Identity of a caller as verified by the gateway. {@code expiresAtEpochSecond} mirrors the JWT's
+ * {@code exp} claim.
+ */
+public record UserIdentity(long userId, String username, String email, int roleMask, long expiresAtEpochSecond) {
+
+    public List<GrantedAuthority> authorities() {
+        return Roles.authorities(roleMask);
+    }
+}
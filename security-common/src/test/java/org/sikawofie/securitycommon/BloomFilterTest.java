@@ -0,0 +1,80 @@
+package org.sikawofie.securitycommon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void addedKeys_ShouldAlwaysBeFound() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.001);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key));
+        }
+    }
+
+    @Test
+    void falsePositiveRate_ShouldStayNearTarget() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.015, "false-positive rate " + rate);
+    }
+
+    @Test
+    void serializedFilter_ShouldRoundTrip() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        filter.put("revoked-1");
+        filter.put("revoked-2");
+
+        byte[] bytes = filter.toBytes();
+        BloomFilter copy = BloomFilter.fromBytes(bytes);
+
+        assertEquals(filter.sizeInBytes(), bytes.length);
+        assertEquals(filter.bitCount(), copy.bitCount());
+        assertEquals(filter.hashCount(), copy.hashCount());
+        assertTrue(copy.mightContain("revoked-1"));
+        assertTrue(copy.mightContain("revoked-2"));
+        assertArrayEquals(bytes, copy.toBytes());
+    }
+
+    @Test
+    void predictedSize_ShouldMatchBuiltFilter() {
+        assertEquals(BloomFilter.create(1_000, 0.01).sizeInBytes(), BloomFilter.sizeInBytes(1_000, 0.01));
+        // About 1.8 bytes per key at 0.001, so ten million keys need some 18 MB
+        long size = BloomFilter.sizeInBytes(10_000_000, 0.001);
+        assertTrue(size > 17_000_000 && size < 19_000_000, size + " bytes");
+    }
+
+    @Test
+    void corruptBytes_ShouldBeRejected() {
+        byte[] bytes = BloomFilter.create(1_000, 0.01).toBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromBytes(new byte[3]));
+        bytes[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.fromBytes(bytes));
+        assertThrows(IllegalArgumentException.class,
+                () -> BloomFilter.fromBytes(Arrays.copyOf(BloomFilter.create(1_000, 0.01).toBytes(), 20)));
+    }
+}
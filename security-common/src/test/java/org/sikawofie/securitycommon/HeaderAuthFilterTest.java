@@ -0,0 +1,82 @@
+package org.sikawofie.securitycommon;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeaderAuthFilterTest {
+
+    private static final String SECRET = "c2VjdXJpdHktY29tbW9uLXRlc3Qtc2VjcmV0LTAxMjM0NTY3ODk";
+
+    private final IdentityHeaderCodec codec = IdentityHeaderCodec.fromSecret(SECRET);
+    private final HeaderAuthFilter filter = new HeaderAuthFilter(codec, new JwtVerifier(kid -> null),
+            identity -> "user-" + identity.userId());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void signedIdentity_ShouldAuthenticateWithTheServicesOwnDetails() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentityHeaderCodec.HEADER, codec.encode(identity(Roles.CUSTOMER)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(chain.getRequest());
+        assertEquals("alice", authentication.getName());
+        assertEquals("user-42", authentication.getDetails());
+        assertEquals(identity(Roles.CUSTOMER).authorities(), authentication.getAuthorities());
+    }
+
+    @Test
+    void serviceIdentity_ShouldBeRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdentityHeaderCodec.HEADER, codec.encode(identity(Roles.SERVICE)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void invalidBearerToken_ShouldBeRejected() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer not-a-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void noCredentials_ShouldContinueUnauthenticated() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static UserIdentity identity(int roleMask) {
+        return new UserIdentity(42L, "alice", "alice@example.com", roleMask, System.currentTimeMillis() / 1000 + 60);
+    }
+}
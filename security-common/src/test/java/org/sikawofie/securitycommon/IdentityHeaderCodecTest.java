@@ -0,0 +1,86 @@
+package org.sikawofie.securitycommon;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityHeaderCodecTest {
+
+    private static final String SECRET = "c2VjdXJpdHktY29tbW9uLXRlc3Qtc2VjcmV0LTAxMjM0NTY3ODk";
+    private static final long NOW = 1_750_000_000L;
+
+    private final IdentityHeaderCodec codec = IdentityHeaderCodec.fromSecret(SECRET);
+
+    @Test
+    void encodedIdentity_ShouldRoundTrip() {
+        UserIdentity identity = new UserIdentity(42L, "alice", "alice@example.com", Roles.CUSTOMER, NOW + 60);
+
+        UserIdentity decoded = codec.decode(codec.encode(identity), NOW);
+
+        assertEquals(identity, decoded);
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")), decoded.authorities());
+    }
+
+    @Test
+    void nonAsciiFields_ShouldRoundTrip() {
+        UserIdentity identity = new UserIdentity(7L, "Kwabena Ɔdɔm", "", Roles.ADMIN | Roles.RESTAURANT_OWNER, NOW + 60);
+
+        assertEquals(identity, codec.decode(codec.encode(identity), NOW));
+    }
+
+    @Test
+    void sameRoleCombination_ShouldShareAuthorities() {
+        UserIdentity alice = codec.decode(codec.encode(new UserIdentity(1L, "alice", "a@x", Roles.CUSTOMER, NOW + 60)), NOW);
+        UserIdentity bob = codec.decode(codec.encode(new UserIdentity(2L, "bob", "b@x", Roles.CUSTOMER, NOW + 60)), NOW);
+
+        assertSame(alice.authorities(), bob.authorities());
+    }
+
+    @Test
+    void tamperedValue_ShouldBeRejected() {
+        String encoded = codec.encode(new UserIdentity(42L, "alice", "alice@example.com", Roles.CUSTOMER, NOW + 60));
+        char[] chars = encoded.toCharArray();
+        chars[3] = chars[3] == 'A' ? 'B' : 'A';
+
+        assertNull(codec.decode(new String(chars), NOW));
+        assertNull(codec.decode(encoded.substring(0, encoded.length() - 4), NOW));
+        assertNull(codec.decode(encoded + "!", NOW));
+    }
+
+    @Test
+    void valueSignedWithAnotherKey_ShouldBeRejected() {
+        IdentityHeaderCodec other = new IdentityHeaderCodec(new byte[32]);
+        String encoded = other.encode(new UserIdentity(42L, "alice", "alice@example.com", Roles.ADMIN, NOW + 60));
+
+        assertNull(codec.decode(encoded, NOW));
+    }
+
+    @Test
+    void expiredIdentity_ShouldBeRejected() {
+        String encoded = codec.encode(new UserIdentity(42L, "alice", "alice@example.com", Roles.CUSTOMER, NOW));
+
+        assertNull(codec.decode(encoded, NOW));
+        assertNotNull(codec.decode(encoded, NOW - 1));
+    }
+
+    @Test
+    void roleList_ShouldBeParsedWithOrWithoutPrefix() {
+        assertEquals(Roles.CUSTOMER | Roles.ADMIN, Roles.mask("ROLE_CUSTOMER, ADMIN"));
+        assertEquals(Roles.RESTAURANT_OWNER, Roles.mask("RESTAURANT_OWNER"));
+        assertEquals(0, Roles.mask(""));
+        assertEquals(-1, Roles.mask("ROLE_SUPERUSER"));
+    }
+
+    @Test
+    void serviceRole_ShouldSurviveTheHeaderButNeverComeFromARoleList() {
+        UserIdentity service = codec.decode(codec.encode(new UserIdentity(0L, "notification-service", "", Roles.SERVICE, NOW + 60)), NOW);
+
+        assertTrue(Roles.isService(service.roleMask()));
+        assertEquals("ROLE_SERVICE", service.authorities().get(0).getAuthority());
+        assertEquals(-1, Roles.mask("SERVICE"));
+        assertEquals(-1, Roles.mask("ROLE_CUSTOMER,ROLE_SERVICE"));
+    }
+}
@@ -0,0 +1,56 @@
+package org.sikawofie.securitycommon;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeySetTest {
+
+    private final ECPublicKey first = (ECPublicKey) JwtVerifierTest.keyPair().getPublic();
+    private final ECPublicKey second = (ECPublicKey) JwtVerifierTest.keyPair().getPublic();
+
+    @Test
+    void failedRefresh_ShouldKeepKnownKeys() {
+        AtomicReference<String> document = new AtomicReference<>(Jwks.toJson(Map.of("key-1", first)));
+        try (JwksKeySet keySet = new JwksKeySet(document::get, Duration.ofHours(1), Duration.ofMillis(10))) {
+            assertTrue(keySet.refresh());
+
+            document.set("<html>bad gateway</html>");
+            assertFalse(keySet.refresh());
+            document.set("{\"keys\":[]}");
+            assertFalse(keySet.refresh());
+
+            assertNotNull(keySet.get("key-1"));
+        }
+    }
+
+    @Test
+    void unknownKid_ShouldTriggerEarlyRefresh() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        AtomicReference<String> document = new AtomicReference<>(Jwks.toJson(Map.of("key-1", first)));
+        try (JwksKeySet keySet = new JwksKeySet(() -> {
+            fetches.incrementAndGet();
+            return document.get();
+        }, Duration.ofHours(1), Duration.ofMillis(10))) {
+            assertTrue(keySet.refresh());
+            document.set(Jwks.toJson(Map.of("key-1", first, "key-2", second)));
+            Thread.sleep(20);
+
+            assertNull(keySet.get("key-2"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (keySet.get("key-2") == null) {
+                assertTrue(System.nanoTime() < deadline, "key-2 never fetched");
+                Thread.sleep(5);
+            }
+            assertEquals(2, keySet.size());
+            assertTrue(fetches.get() >= 2);
+        }
+    }
+}
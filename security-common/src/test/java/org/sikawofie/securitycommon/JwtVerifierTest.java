@@ -0,0 +1,90 @@
+package org.sikawofie.securitycommon;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private static final long NOW = 1_750_000_000L;
+    private static final String CLAIMS =
+            "{\"sub\":\"alice\",\"userId\":42,\"role\":\"ROLE_CUSTOMER\",\"email\":\"alice@example.com\",\"exp\":%d}";
+
+    private final KeyPair keyPair = keyPair();
+    private final JwtVerifier verifier = new JwtVerifier(
+            Jwks.parse(Jwks.toJson(Map.of("key-1", (ECPublicKey) keyPair.getPublic())))::get);
+
+    @Test
+    void signedToken_ShouldVerifyIntoIdentity() {
+        UserIdentity identity = verifier.verify(token("ES256", "key-1", CLAIMS.formatted(NOW + 60), keyPair), NOW);
+
+        assertEquals(new UserIdentity(42L, "alice", "alice@example.com", Roles.CUSTOMER, NOW + 60), identity);
+    }
+
+    @Test
+    void expiredToken_ShouldBeRejected() {
+        assertNull(verifier.verify(token("ES256", "key-1", CLAIMS.formatted(NOW), keyPair), NOW));
+    }
+
+    @Test
+    void unknownKeyOrOtherSigner_ShouldBeRejected() {
+        assertNull(verifier.verify(token("ES256", "key-2", CLAIMS.formatted(NOW + 60), keyPair), NOW));
+        assertNull(verifier.verify(token("ES256", "key-1", CLAIMS.formatted(NOW + 60), keyPair()), NOW));
+    }
+
+    @Test
+    void otherAlgorithmsOrTampering_ShouldBeRejected() {
+        String token = token("ES256", "key-1", CLAIMS.formatted(NOW + 60), keyPair);
+        String[] parts = token.split("\\.");
+        String admin = base64(CLAIMS.formatted(NOW + 60).replace("ROLE_CUSTOMER", "ROLE_ADMIN"));
+
+        assertNull(verifier.verify(token("HS256", "key-1", CLAIMS.formatted(NOW + 60), keyPair), NOW));
+        assertNull(verifier.verify(parts[0] + "." + admin + "." + parts[2], NOW));
+        assertNull(verifier.verify(parts[0] + "." + parts[1] + ".", NOW));
+        assertNull(verifier.verify("not-a-token", NOW));
+    }
+
+    @Test
+    void jwks_ShouldRoundTripKeys() {
+        ECPublicKey key = (ECPublicKey) keyPair.getPublic();
+
+        assertEquals(key.getW(), ((ECPublicKey) Jwks.parse(Jwks.toJson(Map.of("key-1", key))).get("key-1")).getW());
+        assertTrue(Jwks.parse("{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"r\"}]}").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> Jwks.parse("{}"));
+    }
+
+    static String token(String alg, String kid, String claims, KeyPair signer) {
+        String signingInput = base64("{\"alg\":\"" + alg + "\",\"kid\":\"" + kid + "\"}") + "." + base64(claims);
+        try {
+            Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+            signature.initSign(signer.getPrivate());
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static KeyPair keyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
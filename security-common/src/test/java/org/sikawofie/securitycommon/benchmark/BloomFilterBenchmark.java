@@ -0,0 +1,84 @@
+package org.sikawofie.securitycommon.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sikawofie.securitycommon.BloomFilter;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup cost of the revocation filter holding 10M revoked token ids, as the gateway pays it on every request.
+ * {@link #main} first prints the serialized size and the measured false-positive rate at that load, then runs
+ * the benchmarks. Run it from the test classpath with a heap of at least 2 GB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BloomFilterBenchmark {
+
+    private static final int REVOKED = 10_000_000;
+    private static final int PROBES = 1_000_000;
+
+    @Param({"0.01", "0.001"})
+    public double falsePositiveRate;
+
+    private BloomFilter filter;
+    private String[] absent;
+    private String[] present;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        filter = filled(falsePositiveRate);
+        absent = new String[1024];
+        for (int i = 0; i < absent.length; i++) {
+            absent[i] = UUID.randomUUID().toString();
+        }
+        present = new String[1024];
+        for (int i = 0; i < present.length; i++) {
+            present[i] = new UUID(0, i).toString();
+        }
+    }
+
+    @Benchmark
+    public boolean lookupNotRevoked() {
+        return filter.mightContain(absent[next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean lookupRevoked() {
+        return filter.mightContain(present[next++ & 1023]);
+    }
+
+    private static BloomFilter filled(double falsePositiveRate) {
+        BloomFilter filter = BloomFilter.create(REVOKED, falsePositiveRate);
+        for (int i = 0; i < REVOKED; i++) {
+            filter.put(new UUID(0, i).toString());
+        }
+        return filter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (double rate : new double[]{0.01, 0.001}) {
+            BloomFilter filter = filled(rate);
+            int falsePositives = 0;
+            for (int i = 0; i < PROBES; i++) {
+                if (filter.mightContain(UUID.randomUUID().toString())) {
+                    falsePositives++;
+                }
+            }
+            System.out.printf("target %.3f: %,d revoked ids in %,d bytes (%d hashes), measured false-positive rate %.5f%n",
+                    rate, REVOKED, filter.sizeInBytes(), filter.hashCount(), (double) falsePositives / PROBES);
+        }
+
+        new Runner(new OptionsBuilder()
+                .include(BloomFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}